@@ -0,0 +1,252 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+
+/**
+ * Analyzes a file of positions (one FEN or EPD record per line) on a pool of worker threads and
+ * writes one tab-separated result line per position as soon as it's done
+ *
+ * Positions are handed to the workers through a bounded queue (see WorkerPool), so the reader never runs far ahead of
+ * the analysis. Every result line starts with the position's line number, so a run that was
+ * interrupted can be resumed: positions already in the output file are skipped, and a partly written
+ * last line is dropped
+ *
+ * Every worker searches with its own EngineContext, cleared before each position, so a result
+ * doesn't depend on which positions the worker happened to analyze before it
+ *
+ * Output columns: line, fen, bestmove, score (cp or mate), depth, nodes, time (ms), id, solved
+ * (for EPD records with a bm or am opcode: whether the best move satisfies it)
+ *
+ * Usage: java BatchAnalyzer [input] [output] [engine settings (see EngineConfig)] [threads]
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class BatchAnalyzer
+{
+	private static final int COLUMNS = 9;
+	private static final int QUEUE_PER_WORKER = 4;
+	private static final String HEADER = "#line\tfen\tbestmove\tscore\tdepth\tnodes\ttime\tid\tsolved";
+
+	private final EngineConfig config;
+	private final BufferedWriter out;
+	private int completed = 0;
+	private long startTime;
+
+	public BatchAnalyzer(EngineConfig config, BufferedWriter out)
+	{
+		this.config = config;
+		this.out = out;
+	}
+
+	/**
+	 * Reads the line numbers already analyzed in an output file, rewriting it without any partly
+	 * written line (left by an interrupted run). The cleaned file is written next to it and renamed
+	 * over it, so a crash during the rewrite never loses the finished results
+	 * @param fileName The output file
+	 * @return The analyzed line numbers
+	 * @throws IOException
+	 */
+	public static HashSet<Integer> readCompleted(String fileName) throws IOException
+	{
+		HashSet<Integer> done = new HashSet<>();
+		File file = new File(fileName);
+		if (!file.exists()) return done;
+
+		StringBuilder valid = new StringBuilder(HEADER).append('\n');
+		BufferedReader br = new BufferedReader(new FileReader(file));
+		String nextLine;
+		while ((nextLine = br.readLine()) != null)
+		{
+			if (nextLine.startsWith("#")) continue;
+			String[] columns = nextLine.split("\t");
+			if (columns.length != COLUMNS) continue;
+			try {
+				done.add(Integer.parseInt(columns[0]));
+				valid.append(nextLine).append('\n');
+			}
+			catch (NumberFormatException e) {
+				continue;
+			}
+		}
+		br.close();
+
+		File temp = new File(fileName + ".tmp");
+		FileOutputStream stream = new FileOutputStream(temp);
+		BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(stream));
+		bw.write(valid.toString());
+		bw.flush();
+		stream.getFD().sync();
+		bw.close();
+		Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		return done;
+	}
+
+	/**
+	 * Parses a record as a FEN (six fields ending with the move counters) or else as an EPD record
+	 * @param record The record
+	 * @return The position fields
+	 */
+	private static PositionInfo parseRecord(String record)
+	{
+		String[] fields = record.trim().split("\\s+");
+		if (fields.length == 6 && fields[4].matches("\\d+") && fields[5].matches("\\d+")) return FEN.parse(record);
+		return FEN.parseEPD(record);
+	}
+
+	/**
+	 * Analyzes one position
+	 * @param lineNumber The line number of the record
+	 * @param record The FEN or EPD record
+	 * @param context The engine context of the worker
+	 * @return The result line
+	 * @throws IOException
+	 */
+	private String analyze(int lineNumber, String record, EngineContext context) throws IOException
+	{
+		PositionInfo info = parseRecord(record);
+		Board board = new Board();
+		FEN.setup(board, info);
+		SmartPlayerNegamax player = config.createPlayer(board, info.colorToMove, context);
+
+		final int[] reached = {0};
+		final long[] nodes = {0};
+		long start = System.currentTimeMillis();
+		Move best = player.searchWithLimits(config.depth, config.moveTime, config.nodes, (searcher, depth, searched, elapsed) -> {
+			reached[0] = depth;
+			nodes[0] = searched;
+		});
+		long time = System.currentTimeMillis() - start;
+
+		int score = player.getLastScore();
+		int mate = SmartPlayerNegamax.getMateDistance(score);
+
+		//Test suite records: solved if the best move is one of bm and none of am
+		String solved = "-";
+		if (best != null && (info.getOpcode("bm") != null || info.getOpcode("am") != null)) {
+			int colorInt = info.getColorInt();
+			boolean ok = info.getOpcode("bm") == null || matchesAny(board, colorInt, info.getOpcode("bm"), best);
+			if (info.getOpcode("am") != null && matchesAny(board, colorInt, info.getOpcode("am"), best)) ok = false;
+			solved = ok ? "1" : "0";
+		}
+
+		return lineNumber + "\t" + FEN.toFEN(board, info.colorToMove, info.halfmoveClock, info.fullmoveNumber)
+				+ "\t" + (best == null ? "0000" : best.toLongAlgebraic())
+				+ "\t" + (mate != 0 ? "mate " + mate : "cp " + score)
+				+ "\t" + reached[0] + "\t" + nodes[0] + "\t" + time
+				+ "\t" + (info.getOpcode("id") == null ? "-" : info.getOpcode("id"))
+				+ "\t" + solved;
+	}
+
+	/**
+	 * Checks if a move is one of a list of moves in standard algebraic notation
+	 * @param board The board
+	 * @param colorInt The color to move
+	 * @param notations The moves, separated by spaces
+	 * @param move The move
+	 * @return True if the move is in the list
+	 */
+	private static boolean matchesAny(Board board, int colorInt, String notations, Move move)
+	{
+		for (String notation: notations.trim().split("\\s+"))
+		{
+			Move m = Opening.convertNotationToMove(board, colorInt, notation);
+			if (m != null && m.equals(move)) return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Writes a result line and flushes it, so that finished work survives a crash
+	 * @param line The result line
+	 * @throws IOException
+	 */
+	private synchronized void writeResult(String line) throws IOException
+	{
+		out.write(line);
+		out.write('\n');
+		out.flush();
+		completed++;
+		if (completed % 100 == 0) {
+			double seconds = (System.currentTimeMillis() - startTime) / 1000.0;
+			System.out.println("Analyzed " + completed + " positions (" + Math.round(completed / Math.max(seconds, 0.001)) + "/s)");
+		}
+	}
+
+	/**
+	 * Creates the worker of one thread, with an engine context of its own
+	 * @return The worker
+	 */
+	private TaskWorker<String[]> createWorker()
+	{
+		EngineContext context = new EngineContext(config, EngineContext.DEFAULT_CAPACITY, false);
+		return task -> {
+			context.clearTable();
+			writeResult(analyze(Integer.parseInt(task[0]), task[1], context));
+		};
+	}
+
+	/**
+	 * Streams the records of an input file to the workers and waits for them to finish
+	 * @param inputFile The input file
+	 * @param threads The number of worker threads
+	 * @param skip The line numbers to skip (already analyzed)
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public void run(String inputFile, int threads, HashSet<Integer> skip) throws IOException, InterruptedException
+	{
+		startTime = System.currentTimeMillis();
+		WorkerPool<String[]> pool = new WorkerPool<>("Analyzer", threads, QUEUE_PER_WORKER, this::createWorker,
+				(task, e) -> System.out.println("Line " + task[0] + " failed: " + e.getMessage()));
+
+		BufferedReader br = new BufferedReader(new FileReader(inputFile));
+		String nextLine;
+		int lineNumber = 0;
+		while ((nextLine = br.readLine()) != null)
+		{
+			lineNumber++;
+			nextLine = nextLine.trim();
+			if (nextLine.isEmpty() || nextLine.startsWith("#") || skip.contains(lineNumber)) continue;
+			pool.submit(new String[] {"" + lineNumber, nextLine}); //Blocks while the workers are busy
+		}
+		br.close();
+
+		pool.finish();
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		String inputFile = args.length > 0 ? args[0] : "positions.epd";
+		String outputFile = args.length > 1 ? args[1] : "analysis.tsv";
+		EngineConfig config = EngineConfig.parse(args.length > 2 ? args[2] : "depth=6");
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		Game.setNearColor(Color.WHITE);
+
+		HashSet<Integer> done = readCompleted(outputFile);
+		BufferedWriter out = new BufferedWriter(new FileWriter(outputFile, true));
+		if (done.isEmpty() && new File(outputFile).length() == 0) {
+			out.write(HEADER);
+			out.write('\n');
+		}
+
+		System.out.println("Batch Analysis | Input: " + inputFile + " | Output: " + outputFile + " | Threads: " + threads
+				+ " | Resuming after: " + done.size() + " positions");
+		System.out.println("Engine: " + config);
+		long start = System.currentTimeMillis();
+		BatchAnalyzer analyzer = new BatchAnalyzer(config, out);
+		analyzer.run(inputFile, threads, done);
+		out.close();
+		System.out.println("Done | Analyzed: " + analyzer.completed + " | Time: " + (System.currentTimeMillis() - start) / 1000.0 + "s");
+	}
+}
@@ -0,0 +1,146 @@
+import java.awt.Color;
+import java.io.IOException;
+import java.util.StringTokenizer;
+
+/**
+ * Searches a fixed set of positions to a fixed depth and prints the total nodes, the speed and a
+ * signature of the node counts, to catch performance regressions and unintended changes to the
+ * search between builds (the signature only changes when the search itself behaves differently)
+ *
+ * Every position is searched with a fresh player and an empty state table, without the opening
+ * book or iterative deepening, so runs are deterministic
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class Bench
+{
+	public static final int DEFAULT_DEPTH = 4;
+
+	//Opening lines played from the starting position (standard algebraic notation)
+	private static final String[] OPENING_LINES = {
+		"e4 c5 c3 d5 exd5 Qxd5 d4 cxd4 cxd4 Nc6 Nf3 Bg4",
+		"e4 c5 Nf3 Nc6 d4 cxd4 Nxd4 Nf6 Nc3 e5 Ndb5 d6 Bg5 a6 Na3 Be6",
+		"e4 c5 Nf3 e6 d4 cxd4 Nxd4 a6 c4 Nf6 Nc3 Bb4 Bd3 Nc6",
+		"e4 c5 Nf3 Nc6 d4 cxd4 Nxd4 Nf6 Nc3 d6 Be2 e5 Nb3",
+		"e4 c5 Nf3 d6 d4 cxd4 Nxd4 Nf6 Nc3 Nc6 Bg5 e6 Qd2",
+		"e4 c5 Nf3 Nc6 d4 cxd4 Nxd4 Nf6 Nc3 d6 Be2 g6 Be3 Bg7 Qd2",
+		"e4 c5 Nf3 d6 d4 cxd4 Nxd4 Nf6 Nc3 g6 Be3 Bg7 f3",
+		"e4 c5 Nf3 d6 d4 cxd4 Nxd4 Nf6 Nc3 g6 Be3 Bg7 f3 O-O Qd2 Nc6 Bc4 Bd7 h4 Qa5 O-O-O Rfc8 Bb3",
+		"e4 c5 Nf3 e6 d4 cxd4 Nxd4 Nc6 Nc3 Qc7 Be2 a6 O-O Nf6 Kh1 Be7 f4 d6 a4",
+		"e4 c5 Nf3 d6 d4 cxd4 Nxd4 Nf6 Nc3 a6 Bg5 Nbd7 Bc4 Qa5 Qd2 e6 O-O-O b5 Bb3 Bb7 Rhe1 Nc5 e5",
+		"e4 e6 d4 a6 Nf3 b5 Bd3 c5 c3 Bb7 O-O Nf6",
+		"e4 e6 d4 d5 Nc3 Nf6 e5 Nfd7 f4 c5 dxc5 Nc6",
+		"e4 e6 d4 d5 Nc3 Nf6 Bg5 Be7 e5 Nfd7 h4 O-O",
+		"e4 e6 d4 d5 Nc3 Bb4 e5 c5 a3 cxd4 axb4 dxc3",
+		"e4 e5 Nf3 Nc6 Bb5 Nf6 O-O Bc5 c3 O-O d4 Bb6",
+		"e4 e5 Nf3 Nc6 Bb5 Nf6 O-O Nxe4 d4 Be7 Qe2 Nd6 Bxc6 bxc6 dxe5 Nb7 c4",
+		"e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O b5 Bb3 d6",
+		"e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Nxe4 d4 b5 Nxe5",
+		"e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Nxe4 d4 b5 Bb3 d5 dxe5 Be6 c3 Bc5 Qd3",
+		"e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 O-O",
+		"e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 O-O c3 d5 exd5 Nxd5 Nxe5 Nxe5 Rxe5 c6 Bxd5 cxd5 d4 Bd6 Re3",
+		"e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 d6 c3 O-O h3 Be6",
+		"e4 e5 Nf3 Nc6 Bb5 a6 Ba4 Nf6 O-O Be7 Re1 b5 Bb3 d6 c3 O-O h3 Na5 Bc2 c5",
+		"e4 c6 d4 d5 exd5 cxd5 c4 Nf6 Nc3 Nc6 Nf3 Bg4",
+		"e4 e5 Nf3 Nc6 Bc4 Be7 d4 exd4 c3 Nf6 e5 Ne4",
+		"e4 e5 Nf3 Nc6 Bc4 Bc5 c3 Nf6 d4 exd4 cxd4 Bb4+ Kf1",
+		"e4 e5 Nf3 Nc6 Bc4 Nf6 d4 exd4 O-O Bc5 e5 d5 exf6 dxc4 Re1+ Be6 Ng5 Qd5 Nc3 Qf5 Nce4 Bf8",
+		"e4 e5 Nf3 Nc6 Bc4 Nf6 Ng5 d5 exd5 Na5 d3 h6 Nf3 e4 Qe2 Nxc4 dxc4 Bc5 Nfd2",
+		"d4 Nf6 c4 e6 Nf3 b6 Nc3 Bb4 Bg5 h6 Bh4 Bb7",
+		"d4 Nf6 c4 e6 Nf3 b6 g3 Bb7 Bg2 Be7 O-O O-O Nc3",
+		"d4 Nf6 c4 e6 Nc3 Bb4 e3 c5 Bd3 Nc6 a3 Bxc3+ bxc3 O-O Ne2 b6 e4 Ne8",
+		"d4 Nf6 c4 e6 Nc3 Bb4 e3 b6 Bd3 Bb7 Nf3 O-O O-O",
+		"d4 Nf6 c4 e6 Nc3 Bb4 e3 O-O Bd3 d5 Nf3 b6",
+		"d4 Nf6 c4 g6 Nc3 Bg7 Nf3 d6 g3 O-O Bg2 c6 O-O Qb6",
+		"d4 Nf6 c4 g6 Nf3 Bg7 g3 O-O Bg2 d6 O-O Nc6 Nc3 a6 h3 Rb8 Be3 b5 Nd2",
+		"d4 Nf6 c4 g6 Nc3 Bg7 e4 d6 g3 O-O Bg2 e5 Nge2",
+		"d4 Nf6 c4 g6 Nc3 Bg7 e4 d6 f4 O-O Nf3 c5 d5 e6 Be2",
+		"d4 Nf6 c4 g6 Nc3 Bg7 e4 d6 f3 O-O Be3 e5 d5 Nh5 Qd2 Qh4+ g3 Nxg3 Qf2 Nxf1 Qxh4 Nxe3 Ke2",
+		"d4 Nf6 c4 g6 Nc3 Bg7 e4 d6 Nf3 O-O Be2 e5 O-O c6",
+		"d4 Nf6 c4 g6 Nc3 Bg7 e4 d6 Nf3 O-O Be2 e5 O-O Nc6 d5 Ne7 Nd2",
+		"c4 e5 g3 Nf6 Bg2 d5 cxd5 Nxd5 Nf3 Nc6 d3 Be7 O-O O-O",
+		"e4 e5 Nf3 Nc6 Nc3 Nf6 Bb5 a6 Bxc6 dxc6 Nxe5 Nxe4 Nxe4 Qd4 O-O Qxe5 Re1 Be6 d4 Qd5",
+	};
+
+	//Middlegame and endgame positions (FEN)
+	private static final String[] POSITIONS = {
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 1",
+		"2rq1rk1/pb1nbppp/1p2pn2/2pp4/3P4/1P1BPN2/PBPN1PPP/2RQ1RK1 b - - 0 1",
+		"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1",
+		"2r3k1/1q1nbppp/r3p3/3pP3/pPpP4/P1Q2N2/2RN1PPP/2R4K b - - 0 1",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+		"6k1/5ppp/8/8/8/8/5PPP/3R2K1 b - - 0 1",
+		"8/k7/3p4/p2P1p2/P2P1P2/8/8/K7 w - - 0 1",
+	};
+
+	/**
+	 * Sets up a bench position on a new board
+	 * @param index The index of the position (opening lines first)
+	 * @param board The empty board
+	 * @return The color to move
+	 */
+	private static Color setupPosition(int index, Board board)
+	{
+		if (index >= OPENING_LINES.length)
+		{
+			return FEN.load(board, POSITIONS[index - OPENING_LINES.length]).colorToMove;
+		}
+
+		Game.setupBoard(board);
+		int color = 1;
+		StringTokenizer st = new StringTokenizer(OPENING_LINES[index]);
+		while (st.hasMoreTokens())
+		{
+			String notation = st.nextToken();
+			Move m = Opening.convertNotationToMove(board, color, notation);
+			if (m == null) throw new IllegalStateException("Invalid bench move " + notation + " in line " + index);
+			board.executeMove(m);
+			color = -color;
+		}
+		return color == 1 ? Color.WHITE : Color.BLACK;
+	}
+
+	/**
+	 * Runs the bench
+	 * @precondition Game.getNearColor() is White
+	 * @param depth The search depth
+	 * @throws IOException
+	 */
+	public static void run(int depth) throws IOException
+	{
+		int positionCount = OPENING_LINES.length + POSITIONS.length;
+		long totalNodes = 0;
+		long totalTime = 0;
+		long signature = 0xCBF29CE484222325L;
+
+		for (int i=0;i<positionCount;i++)
+		{
+			Board board = new Board();
+			Color color = setupPosition(i, board);
+
+			//Fresh player and state table per position (the opening book isn't loaded, so it's never consulted)
+			EngineContext context = new EngineContext(null, EngineContext.DEFAULT_CAPACITY, false);
+			SmartPlayerNegamax player = new SmartPlayerNegamax(board, "Bench", color, depth, false, 0, context);
+
+			long start = System.nanoTime();
+			Move best = player.searchFixedDepth(depth);
+			totalTime += System.nanoTime() - start;
+
+			long nodes = player.getNodeCount();
+			totalNodes += nodes;
+			signature = (signature ^ nodes) * 0x100000001B3L; //FNV-1a over the node counts
+
+			System.out.println("Position " + (i+1) + "/" + positionCount + ": "
+					+ (best == null ? "none" : best.toLongAlgebraic()) + " | Nodes: " + nodes);
+		}
+
+		System.out.println("\n===========================");
+		System.out.println("Depth: " + depth);
+		System.out.println("Total time (ms): " + totalTime / 1000000);
+		System.out.println("Nodes searched: " + totalNodes);
+		System.out.println("Nodes/second: " + (totalTime == 0 ? 0 : (long) (totalNodes / (totalTime / 1e9))));
+		System.out.println("Signature: " + Long.toHexString(signature));
+	}
+}
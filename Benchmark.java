@@ -0,0 +1,259 @@
+import java.awt.Color;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+
+/**
+ * Micro-benchmarks for the engine's hot paths (move generation, evaluation, SEE, the state table,
+ * making/unmaking moves and a fixed-depth search) over a fixed set of positions, reporting
+ * throughput along with the bytes allocated and the garbage collections per operation
+ *
+ * Each benchmark is warmed up for a while before being measured, and one operation is a single
+ * pass over every position in the set. The search benchmarks also report the bytes allocated per
+ * node: search.core runs the work negamax does at every node apart from generating and sorting the
+ * moves (make/unmake, key update, state table probe and store, lazy evaluation), which should
+ * allocate nothing
+ *
+ * Usage: java Benchmark [filter] [warmup seconds] [measure seconds]
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class Benchmark
+{
+	//Benchmark positions (FEN)
+	private static final String[] POSITIONS = {
+		"rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1",
+		"r1bqkb1r/pppp1ppp/2n2n2/4p3/2B1P3/5N2/PPPP1PPP/RNBQK2R w KQkq - 0 1",
+		"r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+		"r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N1PN2/PP3PPP/R2QKB1R w KQ - 0 1",
+		"2rq1rk1/pb1nbppp/1p2pn2/2pp4/3P4/1P1BPN2/PBPN1PPP/2RQ1RK1 b - - 0 1",
+		"r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1",
+		"8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+		"6k1/5ppp/8/8/8/8/5PPP/3R2K1 b - - 0 1",
+	};
+
+	private static final int SEARCH_DEPTH = 3;
+
+	//Results are accumulated here so the JIT can't discard the benchmarked work
+	private static volatile long sink = 0;
+
+	/**
+	 * A benchmarked operation
+	 */
+	private interface Workload
+	{
+		/**
+		 * Runs the operation once
+		 * @return A value depending on the work done
+		 */
+		long run() throws IOException;
+	}
+
+	private static final ArrayList<Board> boards = new ArrayList<>();
+	private static final ArrayList<Color> colors = new ArrayList<>();
+	private static final ArrayList<ArrayList<Move>> legalMoves = new ArrayList<>();
+	private static final ArrayList<ArrayList<Move>> captureMoves = new ArrayList<>();
+	private static final ArrayList<long[]> tableKeys = new ArrayList<>(); //Zobrist key and occupied squares after every legal move
+	private static final ArrayList<Long> rootKeys = new ArrayList<>();
+	private static final long[] lazyTierCounts = new long[3];
+	private static final ArrayList<SmartPlayerNegamax> players = new ArrayList<>();
+	private static final EngineContext context = new EngineContext(null, EngineContext.DEFAULT_CAPACITY, false); //The benchmark's own state table
+
+	/**
+	 * Gets the total number of garbage collections so far
+	 * @return The collection count
+	 */
+	private static long getCollectionCount()
+	{
+		long count = 0;
+		for (GarbageCollectorMXBean bean: ManagementFactory.getGarbageCollectorMXBeans())
+		{
+			count += Math.max(0, bean.getCollectionCount());
+		}
+		return count;
+	}
+
+	/**
+	 * Sets up the boards of the benchmark positions along with their moves and state table keys
+	 * @throws IOException
+	 */
+	private static void setupPositions() throws IOException
+	{
+		for (String fen: POSITIONS)
+		{
+			Board board = new Board();
+			PositionInfo info = FEN.load(board, fen);
+			Color color = info.colorToMove;
+			int colorInt = info.getColorInt();
+
+			ArrayList<Move> moves = board.allMoves(color);
+			for (Move m: moves)
+			{
+				board.executeMove(m);
+				tableKeys.add(new long[] {Compression.compressState(board, -colorInt), StateTable.occupiedSquares(board)});
+				board.undoMove(m);
+			}
+			rootKeys.add(Compression.compressState(board, colorInt));
+
+			boards.add(board);
+			colors.add(color);
+			legalMoves.add(moves);
+			captureMoves.add(board.allCaptures(color));
+			players.add(new SmartPlayerNegamax(board, "Benchmark", color, SEARCH_DEPTH, false, 0, context));
+		}
+	}
+
+	/**
+	 * Warms up and measures a workload, then prints its results
+	 * @param name The name of the benchmark
+	 * @param workload The workload
+	 * @param warmupMs The warmup time in milliseconds
+	 * @param measureMs The measurement time in milliseconds
+	 * @param countsNodes True if the workload returns the number of search nodes it visited
+	 * @throws IOException
+	 */
+	private static void measure(String name, Workload workload, long warmupMs, long measureMs, boolean countsNodes) throws IOException
+	{
+		long end = System.currentTimeMillis() + warmupMs;
+		while (System.currentTimeMillis() < end) sink += workload.run();
+
+		long ops = 0, nodes = 0;
+		long allocationStart = ThreadStats.getAllocatedBytes();
+		long collectionStart = getCollectionCount();
+		long start = System.nanoTime();
+		end = start + measureMs * 1000000L;
+		do {
+			long result = workload.run();
+			sink += result;
+			nodes += result;
+			ops++;
+		} while (System.nanoTime() < end);
+		long time = System.nanoTime() - start;
+		long allocated = ThreadStats.getAllocatedBytes() - allocationStart;
+		long collections = getCollectionCount() - collectionStart;
+
+		String perNode = countsNodes ? String.format(" %12.1f B/node", allocated / (double) Math.max(1, nodes)) : "";
+		System.out.println(String.format("%-22s %12.1f ops/s %14.1f ns/op %14d B/op %10.4f GCs/op",
+				name, ops / (time / 1e9), time / (double) ops, allocated / ops, collections / (double) ops) + perNode);
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		Game.setNearColor(Color.WHITE);
+		String filter = args.length > 0 ? args[0] : "";
+		long warmupMs = (long) ((args.length > 1 ? Double.parseDouble(args[1]) : 2) * 1000);
+		long measureMs = (long) ((args.length > 2 ? Double.parseDouble(args[2]) : 3) * 1000);
+
+		setupPositions();
+		System.out.println("Benchmark | Positions: " + POSITIONS.length + " | Warmup: " + warmupMs + "ms | Measure: " + measureMs + "ms");
+
+		String[] names = {
+			"movegen.all", "movegen.captures", "movegen.checks", "movegen.count",
+			"eval.evaluate", "eval.SEE", "tt.addRetrieve", "board.executeUndo", "search.core", "search.negamax"
+		};
+		boolean[] countsNodes = {false, false, false, false, false, false, false, false, true, true};
+		Workload[] workloads = {
+			() -> {
+				long count = 0;
+				for (int i=0;i<boards.size();i++) count += boards.get(i).allMoves(colors.get(i)).size();
+				return count;
+			},
+			() -> {
+				long count = 0;
+				for (int i=0;i<boards.size();i++) count += boards.get(i).allCaptures(colors.get(i)).size();
+				return count;
+			},
+			() -> {
+				long count = 0;
+				for (int i=0;i<boards.size();i++) count += boards.get(i).allChecks(colors.get(i)).size();
+				return count;
+			},
+			() -> {
+				long count = 0;
+				for (int i=0;i<boards.size();i++) count += boards.get(i).getBitboard().countLegalMoves(colors.get(i));
+				return count;
+			},
+			() -> {
+				long total = 0;
+				for (Board board: boards) total += Evaluation.evaluate(board);
+				return total;
+			},
+			() -> {
+				long total = 0;
+				for (int i=0;i<boards.size();i++)
+				{
+					for (Move m: captureMoves.get(i)) total += Evaluation.SEE(boards.get(i), m);
+				}
+				return total;
+			},
+			() -> {
+				long total = 0;
+				for (int i=0;i<tableKeys.size();i++) context.addToTable(tableKeys.get(i)[0], tableKeys.get(i)[1], 2, 2, i, 0);
+				for (long[] key: tableKeys) total += CompressionWriter.recordScore(context.retrieveFromTable(key[0], key[1]));
+				return total;
+			},
+			() -> {
+				long count = 0;
+				for (int i=0;i<boards.size();i++)
+				{
+					Board board = boards.get(i);
+					for (Move m: legalMoves.get(i))
+					{
+						board.executeMove(m);
+						board.undoMove(m);
+						count++;
+					}
+				}
+				return count;
+			},
+			() -> {
+				//Every child of every position is a node: make the move, update the key, probe the
+				//table and match its move against a move list, evaluate, store the result, unmake
+				long nodes = 0;
+				for (int i=0;i<boards.size();i++)
+				{
+					Board board = boards.get(i);
+					ArrayList<Move> moves = legalMoves.get(i);
+					int colorInt = colors.get(i).equals(Color.WHITE) ? 1 : -1;
+					long rootKey = rootKeys.get(i);
+					for (Move m: moves)
+					{
+						board.executeMove(m);
+						long key = Compression.updateZobristHash(board, -colorInt, rootKey, m);
+						long occupied = StateTable.occupiedSquares(board);
+						long state = context.retrieveFromTable(key, occupied);
+						Move tableMove = OpeningBook.decodeMove(moves, CompressionWriter.recordMove(state));
+						int score = Evaluation.lazyEvaluate(board, -colorInt, -1, 1, Evaluation.LAZY_MATERIAL_MARGIN, Evaluation.LAZY_PAWN_MARGIN, lazyTierCounts);
+						context.addToTable(key, occupied, 1, 2, score, tableMove == null ? OpeningBook.encodeMove(m) : OpeningBook.encodeMove(tableMove));
+						board.undoMove(m);
+						nodes++;
+					}
+				}
+				return nodes;
+			},
+			() -> {
+				long total = 0;
+				for (int i=0;i<players.size();i++)
+				{
+					//Every search starts cold: empty state and pawn tables, and the per-search state
+					//(killers, counter moves, root order) reset by searchFixedDepth
+					context.clearTable();
+					boards.get(i).getPawnHashTable().clear();
+					players.get(i).searchFixedDepth(SEARCH_DEPTH);
+					total += players.get(i).getNodeCount();
+				}
+				return total;
+			},
+		};
+
+		for (int i=0;i<names.length;i++)
+		{
+			if (!names[i].contains(filter)) continue;
+			context.clearTable();
+			measure(names[i], workloads[i], warmupMs, measureMs, countsNodes[i]);
+		}
+		context.clearTable();
+	}
+}
@@ -21,27 +21,45 @@ public class Bitboard
 
 
     //---[ATTACK SETS]---\\
-    public final long[][][] pawnAttackSet;
-    public final long[] knightAttackSet;
-    public final long[] kingAttackSet;
-    public final long[][] rookAttackSet;
-    public final long[][] bishopAttackSet;
+    //Shared by all bitboards (generated once when the class is loaded, see the static block below)
+    public static final long[][][] pawnAttackSet = new long[64][2][2]; //[0 - Moves, 1 - Attacks][0 - Forward, 1 - Backward]
+    public static final long[] knightAttackSet = new long[64];
+    public static final long[] kingAttackSet = new long[64];
+    public static final long[][] rookAttackSet = new long[64][4096]; //2^12 different blocking configurations
+    public static final long[][] bishopAttackSet = new long[64][4096]; //2^9 different blocking configurations
 
     //---[[BLOCKER MASKS]]---\\
-    public final long[] rookBlockerMasks;
-    public final long[] bishopBlockerMasks;
+    public static final long[] rookBlockerMasks = new long[64];
+    public static final long[] bishopBlockerMasks = new long[64];
 
     //---[BLOCKER MASK BITCOUNT SETS]---\\
-    public final int[] rookBitCount;
-    public final int[] bishopBitCount;
+    public static final int[] rookBitCount = new int[64];
+    public static final int[] bishopBitCount = new int[64];
 
     //---[MAGIC NUMBERS]---\\
-    public final long[] rookMagicNumbers;
-    public final long[] bishopMagicNumbers;
+    public static final long[] rookMagicNumbers = new long[64];
+    public static final long[] bishopMagicNumbers = new long[64];
 
     //---[CACHES]---\\
     public long[] totalAttackSet;
 
+    //---[EVALUATION SCRATCH]---\\
+    //Filled in once per evaluation (see Evaluation.calculateAttacks), 0 - White, 1 - Black
+    public final long[][] attackedBy;
+    public final int[] kingAttackers;
+    public final int[] kingAttackUnits;
+
+    //---[FILE MASKS]---\\
+    //All squares of a column (index 0-7 by board column)
+    public static final long[] FILE_MASKS = new long[8];
+    static {
+        for (int col=0;col<8;col++) {
+            for (int row=0;row<8;row++) {
+                FILE_MASKS[col] = setBit(FILE_MASKS[col], toBBIndex(row, col));
+            }
+        }
+    }
+
     //---[CONSTANTS]---\\
 
     //Bruijn Index Table for getting the least significant 1 bit
@@ -66,36 +84,13 @@ public class Bitboard
         pieceBB = new long[7]; //0 is left empty
         colorBB = new long[2]; //0 - White, 1 - Black
 
-        //Attack sets
-        pawnAttackSet = new long[64][2][2]; //[0 - Moves, 1 - Attacks][0 - Forward, 1 - Backward]
-        knightAttackSet = new long[64];
-        kingAttackSet = new long[64];
-        rookAttackSet = new long[64][4096]; //2^12 different blocking configurations
-        bishopAttackSet = new long[64][4096]; //2^9 different blocking configurations
-
-        //Blocker masks
-        rookBlockerMasks = new long[64];
-        bishopBlockerMasks = new long[64];
-
-        //Bitcount sets
-        rookBitCount = new int[64];
-        bishopBitCount = new int[64];
-
-        //Magic numbers
-        rookMagicNumbers = new long[64];
-        bishopMagicNumbers = new long[64];
-
         //Caches
         totalAttackSet = new long[2]; //Tracks the current attack set so as to not recalculate; reset on bitboard change (with color)
 
-        generatePawnAttackSet();
-        generateKnightAttackSet();
-        generateKingAttackSet();
-        generateRookAttackSet();
-        generateBishopAttackSet();
-
-        System.out.println("Bitboard Initialized!");
-        
+        //Evaluation scratch
+        attackedBy = new long[2][7]; //[Color][pieceEnum], index 0 is the union of all piece types
+        kingAttackers = new int[2]; //Number of pieces attacking the enemy king zone
+        kingAttackUnits = new int[2]; //Weighted attacks on the enemy king zone
     }
     
     //[[Index Sanity Checks]]\\
@@ -289,12 +284,12 @@ public class Bitboard
         return generateRandom64BitNumber() & generateRandom64BitNumber() & generateRandom64BitNumber();
     }
 
-    public int getMagicIndex(long magic, long blockerBoard, int bitCount)
+    public static int getMagicIndex(long magic, long blockerBoard, int bitCount)
     {
         return (int)((blockerBoard * magic) >>> (64 - bitCount));
     }
 
-    public long findMagicNumber(long blockerMask, int index, int bitCount, ArrayList<Long> blockerBoardSet, ArrayList<Long> moveBoardSet) {
+    public static long findMagicNumber(long blockerMask, int index, int bitCount, ArrayList<Long> blockerBoardSet, ArrayList<Long> moveBoardSet) {
         int totVariations = blockerBoardSet.size();
         long[] attackSet = new long[totVariations];
         boolean fail;
@@ -328,6 +323,22 @@ public class Bitboard
         return 0;
     }
 
+    //Generates the shared attack sets when the class is loaded (after randomSeed is initialized)
+    static {
+        //The magic search draws from the same generator as the zobrist keys, so it runs on its own
+        //copy of the seed to keep the keys independent of when this class is first loaded
+        int seed = randomSeed;
+
+        generatePawnAttackSet();
+        generateKnightAttackSet();
+        generateKingAttackSet();
+        generateRookAttackSet();
+        generateBishopAttackSet();
+
+        randomSeed = seed;
+        System.out.println("Bitboard Initialized!");
+    }
+
     //[[Attack Set Generation]]\\
 
     /*
@@ -338,7 +349,7 @@ public class Bitboard
      */
 
 
-    public void generatePawnAttackSet()
+    public static void generatePawnAttackSet()
     {
         for (int index=0;index<64;index++) {
             for (int dir=0;dir<2;dir++) {
@@ -353,7 +364,7 @@ public class Bitboard
             }
         }
     }
-    public void generateKnightAttackSet()
+    public static void generateKnightAttackSet()
     {
         for (int index=0;index<64;index++) {
             //<<Moves/Attacks>>\\
@@ -368,7 +379,7 @@ public class Bitboard
         }
     }
 
-    public void generateBishopAttackSet()
+    public static void generateBishopAttackSet()
     {
         for (int index=0;index<64;index++) {
             long blockerMask = 0L;
@@ -469,7 +480,7 @@ public class Bitboard
     }
 
     //https://stackoverflow.com/questions/16925204/sliding-move-generation-using-magic-bitboard
-    public void generateRookAttackSet()
+    public static void generateRookAttackSet()
     {
         for (int index=0;index<64;index++) {
             long blockerMask = 0L;
@@ -562,7 +573,7 @@ public class Bitboard
             }
         }
     }
-    public void generateKingAttackSet()
+    public static void generateKingAttackSet()
     {
         for (int index=0;index<64;index++) {
             //<<Moves/Attacks>>\\
@@ -585,7 +596,7 @@ public class Bitboard
      */
     public long getPawnAttackBB(Color rawColor)
     {
-        int color = rawColor.equals(Color.WHITE) ? 0 : 1; int dir = rawColor.equals(Game.NEAR_COLOR) ? 0 : 1;
+        int color = rawColor.equals(Color.WHITE) ? 0 : 1; int dir = rawColor.equals(Game.getNearColor()) ? 0 : 1;
         long pawnBB = pieceBB[1]&colorBB[color];
         long totMoveBB = 0L;
 
@@ -684,6 +695,29 @@ public class Bitboard
         return totMoveBB;
     }
 
+    //Gets the bishop attack BB from a bitboard index given the occupied squares
+    public long getBishopAttacks(int index, long occupied)
+    {
+        return bishopAttackSet[index][getMagicIndex(bishopMagicNumbers[index], bishopBlockerMasks[index]&occupied, bishopBitCount[index])];
+    }
+
+    //Gets the rook attack BB from a bitboard index given the occupied squares
+    public long getRookAttacks(int index, long occupied)
+    {
+        return rookAttackSet[index][getMagicIndex(rookMagicNumbers[index], rookBlockerMasks[index]&occupied, rookBitCount[index])];
+    }
+
+    //Gets the attack BB of a non-pawn piece from a bitboard index given the occupied squares
+    public long getPieceAttacks(int pieceEnum, int index, long occupied)
+    {
+        if (pieceEnum == 2) return knightAttackSet[index];
+        else if (pieceEnum == 3) return getBishopAttacks(index, occupied);
+        else if (pieceEnum == 4) return getRookAttacks(index, occupied);
+        else if (pieceEnum == 5) return getBishopAttacks(index, occupied) | getRookAttacks(index, occupied);
+        else if (pieceEnum == 6) return kingAttackSet[index];
+        return 0L;
+    }
+
     //Gets the attack BB of any SINGLE piece
     public long getPieceAttackBB(int row, int col, int pieceEnum, int color)
     {
@@ -693,7 +727,7 @@ public class Bitboard
         //Get destinations (moves/attacks)
         long moveSet = 0L;
         if (pieceEnum == 1) {
-            int dir = (Game.NEAR_COLOR.equals(Color.WHITE) ? 0 : 1) == color ? 0 : 1;
+            int dir = (Game.getNearColor().equals(Color.WHITE) ? 0 : 1) == color ? 0 : 1;
             moveSet = pawnAttackSet[index][1][dir];
         }
         else if (pieceEnum == 2) moveSet = knightAttackSet[index];
@@ -717,7 +751,7 @@ public class Bitboard
 
     public ArrayList<Long>[] generatePawnMoves(Color rawColor)
     {
-        int color = rawColor.equals(Color.WHITE) ? 0 : 1; int dir = rawColor.equals(Game.NEAR_COLOR) ? 0 : 1;
+        int color = rawColor.equals(Color.WHITE) ? 0 : 1; int dir = rawColor.equals(Game.getNearColor()) ? 0 : 1;
         long pawnBB = pieceBB[1]&colorBB[color];
         ArrayList<Long>[] moves = new ArrayList[2]; for (int i=0;i<2;i++) moves[i] = new ArrayList<>();
 
@@ -890,8 +924,8 @@ public class Bitboard
 
             long moveSet = moves.get(i) & (CAPTURE_MASK | MOVE_MASK) & PIN_MASKS[index]
             & CHECK_MASKS[
-                pieceEnum==1&&(toRow(index)==1&&rawColor.equals(Game.NEAR_COLOR)
-                ||toRow(index)==6&&!rawColor.equals(Game.NEAR_COLOR))
+                pieceEnum==1&&(toRow(index)==1&&rawColor.equals(Game.getNearColor())
+                ||toRow(index)==6&&!rawColor.equals(Game.getNearColor()))
                 ?5:pieceEnum]; //Use check mask (assumes promotion is auto-queen)
 
             addMoves(allMoves, p, moveSet);
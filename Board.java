@@ -6,7 +6,11 @@ public class Board extends BoundedGrid<Piece>
 {
 	private ArrayList<Piece>[][] pieces;
 	private int[][] material;
+	private int[] nonPawnMaterial;
+	private int[] position;
+	private int phaseMaterial;
 	private Bitboard bitboard;
+	private PawnHashTable pawnHash;
 	
 	// Constructs a new Board with the given dimensions
 	public Board()
@@ -14,12 +18,16 @@ public class Board extends BoundedGrid<Piece>
 		super(8, 8);
 		pieces = new ArrayList[2][7]; //0 - White, 1 - Black; Pawn through King, index 1-6 (index 0 left empty)
 		material = new int[2][2]; //0 - White, 1 - Black; 0 - Midgame, 1 - Endgame; total material of each side
+		nonPawnMaterial = new int[2]; //0 - White, 1 - Black; midgame material of each side excluding pawns
+		position = new int[2]; //0 - White, 1 - Black; packed midgame/endgame piece-square score of each side
+		phaseMaterial = 0; //Phase weight of all pieces on the board
 		for (int c=0;c<2;c++) {
 			for (int i=1;i<=6;i++) {
 				pieces[c][i] = new ArrayList<>();
 			}
 		}
 		bitboard = new Bitboard(this);
+		pawnHash = null; //Created on first use (boards that are only used for move generation never need it)
 		
 	}
 
@@ -32,6 +40,35 @@ public class Board extends BoundedGrid<Piece>
 		return bitboard;
 	}
 
+	/**
+	 * Getter function for the pawn structure cache of this board
+	 * @return The pawn hash table
+	 */
+	public PawnHashTable getPawnHashTable()
+	{
+		if (pawnHash == null) pawnHash = new PawnHashTable();
+		return pawnHash;
+	}
+
+	/**
+	 * Creates an independent copy of the board with new pieces in the same locations, keeping
+	 * their moved flags and starting squares (so castling rights and development carry over)
+	 * @return The copied board
+	 */
+	public Board copy()
+	{
+		Board copy = new Board();
+		for (Location loc: getOccupiedLocations())
+		{
+			Piece p = get(loc);
+			Piece clone = Piece.create(p.getEnum(), p.getColor());
+			clone.setStartingLocation(p.getStartingLocation());
+			clone.putSelfInGrid(copy, loc);
+			clone.setMoved(p.getMoved());
+		}
+		return copy;
+	}
+
 	// Precondition: move has already been made on the board
 	// Postcondition: piece has moved back to its source,
 	// and any captured piece is returned to its location
@@ -68,27 +105,48 @@ public class Board extends BoundedGrid<Piece>
 	}
 	
 	/**
-	 * Adds a piece to the piece array of the board and increments material
+	 * Adds a piece to the piece array of the board and increments material, position, and phase
 	 * @param p The added piece
 	 */
 	public void addPiece(Piece p)
 	{
 		int color = p.getColor().equals(Color.WHITE) ? 0 : 1;
-		pieces[color][p.getEnum()].add(p);
-		material[color][0] += Evaluation.getMaterial(p, false);
-		material[color][1] += Evaluation.getMaterial(p, true);
+		int pieceEnum = p.getEnum();
+		pieces[color][pieceEnum].add(p);
+		material[color][0] += Evaluation.getMaterial(pieceEnum, false);
+		material[color][1] += Evaluation.getMaterial(pieceEnum, true);
+		if (pieceEnum != Pawn.ENUM) nonPawnMaterial[color] += Evaluation.getMaterial(pieceEnum, false);
+		position[color] += Evaluation.getPieceSquareScore(pieceEnum, p.getColor(), p.getLocation());
+		phaseMaterial += Evaluation.getPhaseWeight(pieceEnum);
 	}
 	
 	/**
-	 * Removes the piece from the piece array of the board and decrements material
+	 * Removes the piece from the piece array of the board and decrements material, position, and phase
 	 * @param p The removed piece
 	 */
 	public void removePiece(Piece p)
 	{
 		int color = p.getColor().equals(Color.WHITE) ? 0 : 1;
-		pieces[color][p.getEnum()].remove(p);
-		material[color][0] -= Evaluation.getMaterial(p, false);
-		material[color][1] -= Evaluation.getMaterial(p, true);
+		int pieceEnum = p.getEnum();
+		pieces[color][pieceEnum].remove(p);
+		material[color][0] -= Evaluation.getMaterial(pieceEnum, false);
+		material[color][1] -= Evaluation.getMaterial(pieceEnum, true);
+		if (pieceEnum != Pawn.ENUM) nonPawnMaterial[color] -= Evaluation.getMaterial(pieceEnum, false);
+		position[color] -= Evaluation.getPieceSquareScore(pieceEnum, p.getColor(), p.getLocation());
+		phaseMaterial -= Evaluation.getPhaseWeight(pieceEnum);
+	}
+
+	/**
+	 * Moves the piece's piece-square score from one location to another (material is unchanged)
+	 * @param p The moved piece
+	 * @param from The location moved from
+	 * @param to The location moved to
+	 */
+	public void movePiece(Piece p, Location from, Location to)
+	{
+		int color = p.getColor().equals(Color.WHITE) ? 0 : 1;
+		position[color] -= Evaluation.getPieceSquareScore(p.getEnum(), p.getColor(), from);
+		position[color] += Evaluation.getPieceSquareScore(p.getEnum(), p.getColor(), to);
 	}
 
 	/**
@@ -114,6 +172,35 @@ public class Board extends BoundedGrid<Piece>
 		return material[color.equals(Color.WHITE) ? 0 : 1][isEndgame ? 1 : 0];
 	}
 
+	/**
+	 * Retrieves the midgame material of a color excluding pawns
+	 * @param color The color of material
+	 * @return The non-pawn material
+	 */
+	public int getNonPawnMaterialOfSide(Color color)
+	{
+		return nonPawnMaterial[color.equals(Color.WHITE) ? 0 : 1];
+	}
+
+	/**
+	 * Retrieves the packed midgame/endgame piece-square score of a color
+	 * @param color The color
+	 * @return The packed piece-square score (see Evaluation.packScore)
+	 */
+	public int getPositionOfSide(Color color)
+	{
+		return position[color.equals(Color.WHITE) ? 0 : 1];
+	}
+
+	/**
+	 * Retrieves the total phase weight of the pieces on the board
+	 * @return The phase material
+	 */
+	public int getPhaseMaterial()
+	{
+		return phaseMaterial;
+	}
+
 	/**
 	 * Retrieves the king of a certain color
 	 * @param color The color of the king
@@ -236,7 +323,7 @@ public class Board extends BoundedGrid<Piece>
 		if (!king.inCheck() && !king.getMoved()) {
 			Location kingLocation = king.getLocation();
 			Color color = king.getColor();
-			boolean reorientBool = color.equals(Color.WHITE); reorientBool = Game.NEAR_COLOR.equals(color) ? reorientBool : !reorientBool;
+			boolean reorientBool = color.equals(Color.WHITE); reorientBool = Game.getNearColor().equals(color) ? reorientBool : !reorientBool;
 			
 			Location shortSide = king.sweepTo(reorientBool ? Location.EAST : Location.WEST);
 			Location longSide = king.sweepTo(reorientBool ? Location.WEST : Location.EAST);
@@ -274,9 +361,9 @@ public class Board extends BoundedGrid<Piece>
 		if (king.getMoved() || !king.inStartingSquare()) {
 			return 0;
 		}
-		boolean reorientBool = color.equals(Color.WHITE); reorientBool = Game.NEAR_COLOR.equals(color) ? reorientBool : !reorientBool;
-		Piece shortRook = get(new Location(king.getLocation().getRow(),reorientBool ? 7 : 0));
-		Piece longRook = get(new Location(king.getLocation().getRow(),reorientBool ? 0 : 7)); 
+		boolean reorientBool = color.equals(Color.WHITE); reorientBool = Game.getNearColor().equals(color) ? reorientBool : !reorientBool;
+		Piece shortRook = get(king.getLocation().getRow(), reorientBool ? 7 : 0);
+		Piece longRook = get(king.getLocation().getRow(), reorientBool ? 0 : 7);
 		boolean canCastleShort = shortRook != null && shortRook.getColor().equals(color) && shortRook instanceof Rook && !shortRook.getMoved();
 		boolean canCastleLong = longRook != null && longRook.getColor().equals(color) && longRook instanceof Rook && !longRook.getMoved();
 		if (canCastleShort && canCastleLong) {
@@ -365,4 +452,4 @@ public class Board extends BoundedGrid<Piece>
 		
 	}
 
-}
\ No newline at end of file
+}
\ No newline at end of file
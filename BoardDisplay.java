@@ -108,7 +108,7 @@ public class BoardDisplay implements ActionListener
 			// we have selected a move
 			
 			// if castle, instead add a castle move
-			boolean reorientBool = selectedPiece.getColor().equals(Color.WHITE); reorientBool = Game.NEAR_COLOR.equals(selectedPiece.getColor()) ? reorientBool : !reorientBool;
+			boolean reorientBool = selectedPiece.getColor().equals(Color.WHITE); reorientBool = Game.getNearColor().equals(selectedPiece.getColor()) ? reorientBool : !reorientBool;
 			if (selectedPiece instanceof King && Math.abs(selectedPiece.getLocation().getCol()-loc.getCol()) == 2) {
 				int type = loc.getCol()-selectedPiece.getLocation().getCol() > 0 ? 1 : 2; type = reorientBool ? type : 3-type;
 				int rookCol = type == 1 ? 7 : 0; rookCol = reorientBool ? rookCol : 7-rookCol;
@@ -118,7 +118,7 @@ public class BoardDisplay implements ActionListener
 					selectedMove = new CastleMove((King)selectedPiece, loc, (Rook)rook, rookDelta, type);
 				}
 			}
-			else if (selectedPiece instanceof Pawn && loc.getRow() == (selectedPiece.getColor().equals(Game.NEAR_COLOR) ? 0 : 7)) {
+			else if (selectedPiece instanceof Pawn && loc.getRow() == (selectedPiece.getColor().equals(Game.getNearColor()) ? 0 : 7)) {
 				selectedMove = new PromotionMove(selectedPiece, CommandLog.promotionPiece, loc);
 			}
 			// else, normal move
@@ -199,4 +199,4 @@ public class BoardDisplay implements ActionListener
 				colors[row][col] = null;
 		showBoard();
 	}
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -11,24 +11,27 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigInteger;
-import java.text.DecimalFormat;
-import java.util.HashMap;
-import java.util.StringTokenizer;
-import java.util.TreeMap;
+import java.util.ArrayList;
 
 public final class Compression
 {
-	private static HashMap<CompressedBoard, CompressionInfo> allStates = new HashMap<>();
-	private static final int TABLE_SIZE_CUTOFF = 8000000; // Maximum states that table/file can hold
-	private static final int STATE_DEPTH_CUTOFF = 2; //Only tracks states with depth >= than this (for quie, >= than -this)
 	private static CompressionWriter compressionWriter = new CompressionWriter();
-	private static final long[] ZOBRIST_KEYS = new long[773];
-	private static boolean tableLocked = false; //boolean that locks the state table on true
+	private static final long[] ZOBRIST_KEYS = generateZobristKeys(); //Never changes after the class loads, so every engine shares it
 	
 	private static final boolean SAVETOFILE = true;
+	private static final int[][] PIECE_ENUMS = { //Enums for pieces (White, Black)
+			{0,1,2,3,4,5},
+			{6,7,8,9,10,11}
+	};
 	
-	public static void generateZobristKeys()
+	/**
+	 * Generates the Zobrist keys from the fixed seed of Bitboard, so every run gets the same keys
+	 * (the files keyed by them depend on it)
+	 * @return The keys
+	 */
+	private static long[] generateZobristKeys()
 	{
+		long[] ZOBRIST_KEYS = new long[773];
 		int index = 0;
 		//64 squares from the LSB to MSB, 12 pieces with first 6 as White and next 6 as Black (64*12)
 		for (int i=0;i<64;i++) {
@@ -42,6 +45,7 @@ public final class Compression
 		}
 		//Last one for side to move = White
 		ZOBRIST_KEYS[index] = Bitboard.generateRandomMagic();
+		return ZOBRIST_KEYS;
 	}
 
 	/**
@@ -53,26 +57,20 @@ public final class Compression
 	 */
 	public static long getPieceHash(int pieceEnum, Location loc, Color color)
 	{
-		// Enums for pieces (White, Black)
-		int[][] enumTable = {
-				{0,1,2,3,4,5},
-				{6,7,8,9,10,11}
-		};
-
 		//Find the piece hash
 		int i = loc.getRow(); int j = loc.getCol();
 		long pieceHash = 0L;
 		int colorEnum = color.equals(Color.WHITE) ? 0 : 1;
 		int squareEnum = Bitboard.toBBIndex(i,j);
-		if (Game.NEAR_COLOR.equals(Color.BLACK)) squareEnum = 63 - squareEnum; //Always compress White near-side
-		pieceHash = ZOBRIST_KEYS[squareEnum*12+enumTable[colorEnum][pieceEnum-1]];
+		if (Game.getNearColor().equals(Color.BLACK)) squareEnum = 63 - squareEnum; //Always compress White near-side
+		pieceHash = ZOBRIST_KEYS[squareEnum*12+PIECE_ENUMS[colorEnum][pieceEnum-1]];
 
 		return pieceHash;
 	}
 
 	/**
 	 * Get hash of castle status
-	 * @param castleStatus The type of castle (1 - short, 2 - long)
+	 * @param castleStatus The castling rights (0 - none, 1 - short, 2 - long, 3 - both)
 	 * @param colorToMove The color to
 	 * @return
 	 */
@@ -83,7 +81,8 @@ public final class Compression
 		
 		if (castleStatus == 1) return shortHash;
 		else if (castleStatus == 2) return longHash;
-		else return shortHash ^ longHash;
+		else if (castleStatus == 3) return shortHash ^ longHash;
+		else return 0L;
 	}
 	
 	/**
@@ -122,132 +121,99 @@ public final class Compression
 		return zobristHash;
 	}
 
+	/**
+	 * Updates the Zobrist hash of the state before a move into the hash of the state after it
+	 * (gives the same result as compressState on the new board)
+	 * @param board The board, with the move already made
+	 * @param colorToMove The color to play after the move
+	 * @param previousHash The hash before the move
+	 * @param m The move
+	 * @return The updated hash
+	 */
 	public static long updateZobristHash(Board board, int colorToMove, long previousHash, Move m)
 	{
 		if (m == null) return previousHash; //Empty move
 
-		long zobristHash = previousHash;
 		Piece srcPiece = m.getPiece(); Location from = m.getSource(); Location to = m.getDestination();
-		int castleType = 0;
+		Piece victim = m.getVictim();
+
+		//Castling rights change when a king or rook moves for the first time or a rook is captured
+		//(rare, so rehash the board instead of working out the rights before the move)
+		if (!m.getMovedBefore() && (srcPiece instanceof King || srcPiece instanceof Rook) || victim instanceof Rook && !victim.getMoved()) {
+			return compressState(board, colorToMove);
+		}
+
+		long zobristHash = previousHash;
 
 		//Flip the color
 		zobristHash ^= ZOBRIST_KEYS[64*12+4];
 
-		//Remove the source piece from the state
+		//Remove the source piece and the captured piece from the state
 		zobristHash ^= getPieceHash(srcPiece.getEnum(), from, srcPiece.getColor());
+		if (victim != null) zobristHash ^= getPieceHash(victim.getEnum(), to, victim.getColor());
 
-		//PromotionMove, must put in a queen
+		//PromotionMove, the upgraded piece lands instead of the pawn
 		if (m instanceof PromotionMove) {
 			PromotionMove promotion = (PromotionMove) m;
-			zobristHash ^= getPieceHash(promotion.getUpgradePiece().getEnum(), to, promotion.getUpgradePiece().getColor());
-			return zobristHash; //Immediately return, because don't add original pawn back in
-		}
-		//Castle, other than the king moving to a different spot, the rook also moves
-		else if (m instanceof CastleMove) {
-			CastleMove castle = (CastleMove) m; Rook rook = castle.getRook(); castleType = castle.getType();
-			zobristHash ^= getPieceHash(rook.getEnum(), castle.getRookSource(), rook.getColor()); //Remove the rook in old location
-			zobristHash ^= getPieceHash(rook.getEnum(), castle.getRookDestination(), rook.getColor()); //Add rook to new location
+			return zobristHash ^ getPieceHash(promotion.getUpgradePiece().getEnum(), to, promotion.getUpgradePiece().getColor());
 		}
 
 		//Add the source piece to the new location
-		zobristHash = getPieceHash(srcPiece.getEnum(), to, srcPiece.getColor());
-
-		//Update castle status
-		int castleStatus = board.getCastlingRights(colorToMove==1?Color.WHITE:Color.BLACK);
-		int previousStatus = castleStatus - castleType;
-		zobristHash ^= getCastleHash(previousStatus, colorToMove); //Undo previous status
-		zobristHash ^= getCastleHash(castleStatus, colorToMove); //Add new status
+		return zobristHash ^ getPieceHash(srcPiece.getEnum(), to, srcPiece.getColor());
+	}
 
-		return zobristHash;
+	/**
+	 * Updates the Zobrist hash of a state into the hash of the same state with the other color to
+	 * play (a null move: nothing moves, so only the color tag flips)
+	 * @param previousHash The hash before the null move
+	 * @return The updated hash
+	 */
+	public static long nullMoveHash(long previousHash)
+	{
+		return previousHash ^ ZOBRIST_KEYS[64*12+4];
 	}
 
 	/**
 	 * Records the move log into the log file (Appends)
 	 * @throws IOException 
 	 */
-	public static void recordMoveLog() throws IOException
+	public static void recordMoveLog(ArrayList<Move> moveLog) throws IOException
 	{
 		//If no moves, don't record empty log
-		if (Game.moveLog.isEmpty()) {
+		if (moveLog.isEmpty()) {
 			return;
 		}
-		compressionWriter.recordMoveLog(Game.moveLog);
+		compressionWriter.recordMoveLog(moveLog);
 	}
 	
 	/**
-	 * Adds a state with a processed depth to the state table
-	 * 
-	 * @param key            The current state, compressed as a string
-	 * @param nodeType		 The type of node
-	 * @param depth			 The depth of the search
-	 * @param value          The evaluation value of the state
+	 * Appends a state of a state table to the data file, if the writer is running
+	 * @param key The Zobrist key of the state
+	 * @param data The search result of the state (see CompressionWriter.encodeState)
 	 */
-	public static void addToTable(CompressedBoard key, int nodeType, int depth, int value, Move PVMove) throws IOException
+	public static void recordState(long key, long data)
 	{
-		if (allStates.size() >= TABLE_SIZE_CUTOFF || tableLocked)
-		{
-			return;
-		}
-		CompressionInfo prevInfo = allStates.get(key);
-		
-		//Don't replace entry in TT if a shallower search (less accurate) than current TT entry (if exists)
-		if (prevInfo != null && prevInfo.depth > depth) return;
-
-		//Don't enter entry in TT if replacing a PV node (worse)
-		if (prevInfo != null && prevInfo.nodeType == 1) return;
-
-		//Don't enter entry in TT if search depth smaller than cutoff
-		if ((depth > 0 && depth < STATE_DEPTH_CUTOFF)) return;
-		if ((depth <= 0 && depth < -STATE_DEPTH_CUTOFF)) return;
-
-		//Don't enter entry in TT if checkmate (unreliable)
-		if (Math.abs(value) >= 99999999) return;
-
-		allStates.put(key, new CompressionInfo(nodeType, depth, value, PVMove));
+		if (SAVETOFILE && compressionWriter.isAlive()) compressionWriter.addToQueue(key, data);
 	}
 
 	/**
-	 * Checks if the state table contains a specific state
-	 * 
-	 * @param key The current state, compressed as a CompressedBoard
-	 * @return True if contains, false otherwise
+	 * Starts appending new states to the data file in the background
 	 */
-	public static boolean tableHasState(CompressedBoard key)
+	public static void startWriter()
 	{
-		return allStates.containsKey(key);
+		if (SAVETOFILE && !compressionWriter.isAlive()) compressionWriter.start();
 	}
 
 	/**
-	 * Retrieves a CompressionInfo object from the state table given the appropriate parameters
-	 * 
-	 * @precondition Key exists in the state table
-	 * 
-	 * @param key The current state, compressed as a CompressedBoard
-	 * @return The evaluation value
+	 * Writes out the states still queued for the data file and stops the writer
 	 */
-	public static CompressionInfo retrieveFromTable(CompressedBoard key)
+	public static void stopWriter()
 	{
-		return allStates.get(key);
+		compressionWriter.shutdown();
 	}
-	
-	public static void lockTable()
-	{
-		tableLocked = true;
-	}
-	
+
 	public static boolean writerIsRunning()
 	{
 		return compressionWriter.isWriting() && compressionWriter.isAlive();
 	}
-	
-	public static void printDataDetails()
-	{
-		DecimalFormat df = new DecimalFormat("###,###,###,###.#");
-		System.out.println("----- Compression Settings -----");
-		System.out.println("COMPRESSION BASE: 36");
-		System.out.println("CURRENT MEMORY USAGE: " + df.format(Runtime.getRuntime().totalMemory()/1024.0/1024.0) + " MB");
-		System.out.println("MAX HEAP MEMORY: " + df.format(Runtime.getRuntime().maxMemory()/1024.0/1024.0) + " MB");
-		System.out.println("TOTAL STATES IN TABLE: " + df.format(allStates.size()));
-		System.out.println("% TABLE SPACE USED: " + df.format(allStates.size()/(double)TABLE_SIZE_CUTOFF*100) + "%");
-	}
 }
@@ -13,7 +13,7 @@ public class CompressionShutdownHook extends Thread
 		try
 		{
 			//Record moves
-			Compression.recordMoveLog();
+			Compression.recordMoveLog(Game.moveLog);
 
 			System.out.println("Saved successfully!");
 		}
@@ -29,24 +29,27 @@ public class CompressionShutdownHook extends Thread
 		System.out.println("Compression Program Shutting Down..");
 
 		//Lock the state table
-		Compression.lockTable();
+		EngineContext.getDefault().lockTable();
 
 		//Record all data
 		recordToAllFiles();
 		
-		/*
-		//Wait until writer thread finishes
-		while (Compression.writerIsRunning()) {
-			try
-			{
-				Thread.sleep(1000);
-			}
-			catch (InterruptedException e)
-			{
-				e.printStackTrace();
-			}
+		//Flush the states still queued for the data file
+		Compression.stopWriter();
+
+		//Write out the position store's memory table
+		PositionStore.close();
+
+		//Save the state table for the next session
+		try
+		{
+			System.out.println("Saved " + EngineContext.getDefault().saveTable(TableSnapshot.SNAPSHOT_FILE) + " states to " + TableSnapshot.SNAPSHOT_FILE);
+		}
+		catch (IOException e)
+		{
+			System.out.println("State table snapshot failed.");
+			e.printStackTrace();
 		}
-		*/
 		
 	}
 }
@@ -1,53 +1,117 @@
 import java.io.BufferedWriter;
-import java.io.ByteArrayOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 /**
  * A class that utilizes multithreading to concurrently write information to the data file
+ *
+ * States are appended as fixed-width binary records (see encodeState) in batches, and the file is
+ * synced to disk at most once per SYNC_INTERVAL (group commit). The writer sleeps on its queue while
+ * there is nothing to write, and a full queue drops states instead of blocking the search
+ *
  * @author Victor Gong
  * @version 4/11/2023
  */
 public class CompressionWriter extends Thread
 {
-	
+
 	public static final String DATA_FILE = "chess.data";
 	public static final String MOVE_LOG_FILE = "move.log";
-	private Queue<String> writeQueue;
-	private boolean isWriting;
-	
+	public static final int RECORD_BYTES = 16; //Key (long), then score (int), move (short), depth (byte), node type (byte)
+	private static final int QUEUE_CAPACITY = 1 << 16;
+	private static final int BATCH_SIZE = 1024; //Records written per call
+	private static final long SYNC_INTERVAL = 1000; //Milliseconds between syncs to disk
+	private static final long SHUTDOWN_WAIT = 5000; //Milliseconds to wait for the queue to drain on shutdown
+	private static final long[] END_OF_QUEUE = new long[0]; //Tells the writer to flush and stop
+
+	private final ArrayBlockingQueue<long[]> writeQueue;
+	private volatile boolean isWriting;
+	private volatile long droppedRecords; //Approximate when several searches add at once
+	private long writtenRecords;
+
 	public CompressionWriter() {
-		writeQueue = new LinkedList<>();
+		super("CompressionWriter");
+		setDaemon(true);
+		writeQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
 		isWriting = false;
 	}
-	
+
+	/**
+	 * Packs a state into the second long of a record (the first is the key): the score, move, depth
+	 * and node type
+	 * @param nodeType The type of node
+	 * @param depth The depth of the search
+	 * @param score The evaluation value of the state
+	 * @param move The encoded best move (see OpeningBook.encodeMove), 0 if none
+	 * @return The packed state
+	 */
+	public static long encodeState(int nodeType, int depth, int score, int move)
+	{
+		return (long) score << 32 | (long) (move & 0xFFFF) << 16 | (long) (depth & 0xFF) << 8 | (nodeType & 0xFF);
+	}
+
+	//Field accessors of the second long of a record
+	public static int recordScore(long data) { return (int) (data >> 32); }
+	public static int recordMove(long data) { return (int) (data >>> 16) & 0xFFFF; }
+	public static int recordDepth(long data) { return (byte) (data >>> 8); }
+	public static int recordNodeType(long data) { return (int) data & 0xFF; }
+
+	/**
+	 * Writes records through a channel, a buffer at a time
+	 * @param channel The channel
+	 * @param buffer The buffer (holds a whole number of records)
+	 * @param records The records
+	 * @throws IOException
+	 */
+	private static void writeRecords(FileChannel channel, ByteBuffer buffer, Iterable<long[]> records) throws IOException
+	{
+		buffer.clear();
+		for (long[] record: records)
+		{
+			if (buffer.remaining() < RECORD_BYTES) {
+				buffer.flip();
+				while (buffer.hasRemaining()) channel.write(buffer);
+				buffer.clear();
+			}
+			buffer.putLong(record[0]);
+			buffer.putLong(record[1]);
+		}
+		buffer.flip();
+		while (buffer.hasRemaining()) channel.write(buffer);
+	}
+
 	/**
 	 * Saves a state table to the data file (Warning: Replaces all previous information)
-	 * 
+	 *
 	 * @throws IOException
 	 */
-	public static void saveToFile(Map<String, CompressionInfo> allStates) throws IOException
+	public static void saveToFile(StateTable allStates) throws IOException
 	{
-		PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(DATA_FILE)));
-		for (String s : allStates.keySet())
+		long[] states = allStates.export();
+		ArrayList<long[]> records = new ArrayList<>(states.length / 3);
+		for (int i=0;i<states.length;i+=3)
 		{
-			out.write(s + " " + allStates.get(s) + "\n");
+			records.add(new long[] {states[i], states[i+1]});
 		}
-		out.flush();
-		out.close();
+		FileChannel channel = FileChannel.open(Paths.get(DATA_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		writeRecords(channel, ByteBuffer.allocateDirect(BATCH_SIZE * RECORD_BYTES), records);
+		channel.force(false);
+		channel.close();
 	}
-	
+
 	/**
 	 * Records the move log of the current game in the move.log file (appends)
-	 * @throws IOException 
+	 * @throws IOException
 	 */
 	public void recordMoveLog(ArrayList<Move> moveLog) throws IOException
 	{
@@ -69,32 +133,33 @@ public class CompressionWriter extends Thread
 		out.flush();
 		out.close();
 	}
-	
+
 	/**
 	 * Clears the data file
-	 * 
+	 *
 	 * @throws IOException
 	 */
 	public void clearFile() throws IOException
 	{
-		PrintWriter out = new PrintWriter(new BufferedWriter(new FileWriter(DATA_FILE)));
-		out.write("");
-		out.flush();
-		out.close();
+		FileChannel channel = FileChannel.open(Paths.get(DATA_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		channel.close();
 	}
-	
+
 	/**
-	 * Appends a state table to the data file
-	 * 
-	 * @throws IOException
+	 * Queues a state to be appended to the data file (never blocks: if the writer is behind, the
+	 * state is dropped)
+	 *
+	 * @param key The Zobrist key of the state
+	 * @param data The state (see encodeState)
+	 * @return True if queued, false if dropped
 	 */
-	public void addToQueue(String key, CompressionInfo info) throws IOException
+	public boolean addToQueue(long key, long data)
 	{
-		String data = key + " " + info
-				+ "\n";
-		writeQueue.add(data);
+		if (writeQueue.offer(new long[] {key, data})) return true;
+		droppedRecords++;
+		return false;
 	}
-	
+
 	/**
 	 * Returns if the writer is appending to the data file
 	 * @return True if the writer is writing, false otherwise
@@ -103,30 +168,71 @@ public class CompressionWriter extends Thread
 	{
 		return isWriting;
 	}
-	
+
+	public long getDroppedRecords()
+	{
+		return droppedRecords;
+	}
+
+	/**
+	 * Stops the writer once everything queued so far is on disk (waits up to SHUTDOWN_WAIT)
+	 */
+	public void shutdown()
+	{
+		if (!isAlive()) return;
+		try
+		{
+			writeQueue.put(END_OF_QUEUE);
+			join(SHUTDOWN_WAIT);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+	}
+
 	public void run()
 	{
-		while (true) {
-			PrintWriter out = null;
-			try
-			{
-				out = new PrintWriter(new BufferedWriter(new FileWriter(DATA_FILE, true)));
-			}
-			catch (IOException e)
-			{
-				e.printStackTrace();
-			}
-			while (!writeQueue.isEmpty()) {
-				isWriting = true;
-				String data = writeQueue.poll();
-				if (data != null) {
-					out.write(data);
-				}	
+		ArrayList<long[]> batch = new ArrayList<>(BATCH_SIZE);
+		ByteBuffer buffer = ByteBuffer.allocateDirect(BATCH_SIZE * RECORD_BYTES);
+		try (FileChannel channel = FileChannel.open(Paths.get(DATA_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))
+		{
+			long lastSync = System.currentTimeMillis();
+			boolean unsynced = false;
+			while (true) {
+				//Sleep until there is something to write (or until the next sync is due)
+				long[] first = unsynced ? writeQueue.poll(SYNC_INTERVAL, TimeUnit.MILLISECONDS) : writeQueue.take();
+				if (first != null) {
+					isWriting = true;
+					batch.add(first);
+					writeQueue.drainTo(batch, BATCH_SIZE - 1);
+					boolean done = batch.remove(END_OF_QUEUE);
+					writeRecords(channel, buffer, batch);
+					writtenRecords += batch.size();
+					unsynced = unsynced || !batch.isEmpty();
+					batch.clear();
+					if (done) break;
+				}
+
+				//Group commit: one sync for everything written since the last one
+				if (unsynced && System.currentTimeMillis() - lastSync >= SYNC_INTERVAL) {
+					channel.force(false);
+					lastSync = System.currentTimeMillis();
+					unsynced = false;
+				}
+				isWriting = false;
 			}
-			out.flush();
-			out.close();
-			
-			isWriting = false;
+			channel.force(false);
+		}
+		catch (IOException e)
+		{
+			e.printStackTrace();
 		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+		}
+		isWriting = false;
+		System.out.println("Data file writer stopped | Written: " + writtenRecords + " | Dropped: " + droppedRecords);
 	}
 }
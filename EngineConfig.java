@@ -0,0 +1,93 @@
+import java.awt.Color;
+import java.io.IOException;
+
+/**
+ * Stores the search budget and settings of an engine run outside of the GUI (self-play, batch
+ * analysis), parsed from a comma-separated list such as "nodes=20000,futility=off"
+ *
+ * Keys: name, depth, nodes, time (milliseconds per move), futility (on/off), nmp (on/off), skill (0 for
+ * full strength, or 1 to SkillLevel.MAX_LEVEL), lazy1 and lazy2 (lazy evaluation margins in centipawns)
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class EngineConfig
+{
+	public String name = "Engine";
+	public int depth = SmartPlayerNegamax.MAX_SEARCH_DEPTH;
+	public long nodes = 0; //0 - no limit
+	public long moveTime = 0; //0 - no limit
+	public boolean futility = true;
+	public boolean nullMove = false;
+	public int skill = 0; //0 - full strength
+	public int lazyMaterialMargin = Evaluation.LAZY_MATERIAL_MARGIN;
+	public int lazyPawnMargin = Evaluation.LAZY_PAWN_MARGIN;
+
+	/**
+	 * Parses an engine configuration
+	 * @param spec The comma-separated key=value settings
+	 * @return The configuration
+	 */
+	public static EngineConfig parse(String spec)
+	{
+		EngineConfig config = new EngineConfig();
+		for (String setting: spec.split(","))
+		{
+			if (setting.trim().isEmpty()) continue;
+			String[] pair = setting.split("=", 2);
+			if (pair.length != 2) throw new IllegalArgumentException("Invalid engine setting: " + setting);
+			String key = pair[0].trim();
+			String value = pair[1].trim();
+			if (key.equals("name")) config.name = value;
+			else if (key.equals("depth")) config.depth = Integer.parseInt(value);
+			else if (key.equals("nodes")) config.nodes = Long.parseLong(value);
+			else if (key.equals("time")) config.moveTime = Long.parseLong(value);
+			else if (key.equals("futility")) config.futility = value.equals("on");
+			else if (key.equals("nmp")) config.nullMove = value.equals("on");
+			else if (key.equals("skill")) config.skill = Integer.parseInt(value);
+			else if (key.equals("lazy1")) config.lazyMaterialMargin = Integer.parseInt(value);
+			else if (key.equals("lazy2")) config.lazyPawnMargin = Integer.parseInt(value);
+			else throw new IllegalArgumentException("Unknown engine setting: " + key);
+		}
+		if (config.skill != 0) SkillLevel.of(config.skill); //Checks the level
+		if (config.depth >= SmartPlayerNegamax.MAX_SEARCH_DEPTH && config.nodes == 0 && config.moveTime == 0 && config.skill == 0) {
+			throw new IllegalArgumentException("Engine needs a depth, node or time limit: " + spec);
+		}
+		return config;
+	}
+
+	/**
+	 * Creates a player with these settings that searches with the state table of an engine context
+	 * @param board The board
+	 * @param color The color of the player
+	 * @param context The engine context
+	 * @return The player
+	 * @throws IOException
+	 */
+	public SmartPlayerNegamax createPlayer(Board board, Color color, EngineContext context) throws IOException
+	{
+		SmartPlayerNegamax player = new SmartPlayerNegamax(board, name, color, 1, false, 0, context);
+		player.setPruning(futility, nullMove);
+		player.setLazyMargins(lazyMaterialMargin, lazyPawnMargin);
+		if (skill != 0) player.setSkillLevel(SkillLevel.of(skill));
+		return player;
+	}
+
+	/**
+	 * Searches the current position of a player with these limits
+	 * @param player The player
+	 * @return The best move
+	 */
+	public Move search(SmartPlayerNegamax player)
+	{
+		return player.searchWithLimits(depth, moveTime, nodes, null);
+	}
+
+	//Converts the configuration into its settings string
+	public String toString()
+	{
+		return "name=" + name + ",depth=" + depth + ",nodes=" + nodes + ",time=" + moveTime
+				+ ",futility=" + (futility ? "on" : "off") + ",nmp=" + (nullMove ? "on" : "off") + ",skill=" + skill
+				+ ",lazy1=" + lazyMaterialMargin + ",lazy2=" + lazyPawnMargin;
+	}
+}
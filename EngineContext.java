@@ -0,0 +1,204 @@
+import java.awt.Color;
+import java.io.IOException;
+import java.text.DecimalFormat;
+
+/**
+ * The mutable state of one engine: its state table (transposition table) and the settings it plays
+ * with. Players search through their context, so independent engines in one program (e.g. one per
+ * game of a server) don't see or clear each other's tables
+ *
+ * What contexts share is read-only once loaded: the Zobrist keys, the attack tables, the opening
+ * book and leaf cache. The data file and the position store are shared appenders. The board
+ * orientation is one per program, not per context: the board geometry, keys, piece square tables
+ * and FEN squares all read Game.getNearColor(). Creating the first context fixes it, so no engine
+ * can flip it under another (see Game.setNearColor); programs without a GUI keep it at White
+ *
+ * The default context (getDefault) is the context of the GUI game only, created on first use: the
+ * command line tools and servers create their own
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class EngineContext
+{
+	public static final int BYTES_PER_STATE = StateTable.ENTRY_BYTES; //Memory of a state table entry
+	public static final int DEFAULT_CAPACITY = 8000000;
+	private static final int STATE_DEPTH_CUTOFF = 2; //Only tracks states with depth >= than this (for quie, >= than -this)
+
+	private static EngineContext defaultContext = null; //Created on first use (after the GUI sets the orientation)
+
+	private final StateTable states; //Shared by the searches of this context
+	private final EngineConfig config;
+	private final boolean useBook;
+	private volatile int capacity; //Maximum states that the table can hold
+	private volatile boolean tableLocked = false; //Locks the state table on true
+
+	/**
+	 * @param config The settings of the engine (null for the GUI players, which bring their own)
+	 * @param capacity The maximum number of states in the state table
+	 * @param useBook True if the players play from the opening book and leaf cache
+	 */
+	public EngineContext(EngineConfig config, int capacity, boolean useBook)
+	{
+		Game.fixNearColor();
+		this.config = config;
+		this.capacity = Math.max(1, capacity);
+		this.states = new StateTable(this.capacity);
+		this.useBook = useBook;
+	}
+
+	/**
+	 * Gets the context of the GUI game, creating it on first use
+	 * @return The default context
+	 */
+	public static synchronized EngineContext getDefault()
+	{
+		if (defaultContext == null) defaultContext = new EngineContext(null, DEFAULT_CAPACITY, true);
+		return defaultContext;
+	}
+
+	/**
+	 * Converts a hash size into a state table capacity
+	 * @param megabytes The hash size in MB
+	 * @return The capacity
+	 */
+	public static int capacityOf(long megabytes)
+	{
+		return (int) Math.min(Integer.MAX_VALUE, megabytes * 1024L * 1024L / BYTES_PER_STATE);
+	}
+
+	/**
+	 * Creates a player of this context with its settings
+	 * @precondition The context has a configuration
+	 * @param board The board
+	 * @param color The color of the player
+	 * @return The player
+	 * @throws IOException
+	 */
+	public SmartPlayerNegamax createPlayer(Board board, Color color) throws IOException
+	{
+		return config.createPlayer(board, color, this);
+	}
+
+	public EngineConfig getConfig()
+	{
+		return config;
+	}
+
+	public boolean usesBook()
+	{
+		return useBook;
+	}
+
+	/**
+	 * Adds a state with a processed depth to the state table
+	 *
+	 * @param key            The Zobrist key of the state
+	 * @param occupied       The occupied squares of the state (see StateTable.occupiedSquares)
+	 * @param nodeType		 The type of node
+	 * @param depth			 The depth of the search
+	 * @param value          The evaluation value of the state
+	 * @param PVMove         The encoded best move of the state (see OpeningBook.encodeMove), 0 if none
+	 */
+	public void addToTable(long key, long occupied, int nodeType, int depth, int value, int PVMove) throws IOException
+	{
+		//Don't enter entry in TT if search depth smaller than cutoff
+		if ((depth > 0 && depth < STATE_DEPTH_CUTOFF)) return;
+		if ((depth <= 0 && depth < -STATE_DEPTH_CUTOFF)) return;
+
+		//Don't enter entry in TT if checkmate (unreliable)
+		if (Math.abs(value) >= 99999999) return;
+
+		//Keep deep results in the persistent position store, which grows past a locked table (and keeps
+		//the deeper result of a position itself)
+		long data = CompressionWriter.encodeState(nodeType, depth, value, PVMove);
+		if (depth >= STATE_DEPTH_CUTOFF) PositionStore.add(key, data, occupied);
+
+		//The table keeps the deeper search of a state and never replaces a PV node
+		if (tableLocked || !states.store(key, occupied, data)) return;
+
+		//Append the state to the data file if the writer is running
+		Compression.recordState(key, data);
+	}
+
+	/**
+	 * Retrieves a state from the state table
+	 *
+	 * @param key The Zobrist key of the state
+	 * @param occupied The occupied squares of the state (see StateTable.occupiedSquares)
+	 * @return The state (see CompressionWriter.encodeState), or 0 if it isn't in the table
+	 */
+	public long retrieveFromTable(long key, long occupied)
+	{
+		return states.probe(key, occupied);
+	}
+
+	public void lockTable()
+	{
+		tableLocked = true;
+	}
+
+	/**
+	 * Sets the maximum number of states the table can hold (past it, new states replace shallow ones)
+	 * @param maxStates The capacity
+	 */
+	public void setTableCapacity(int maxStates)
+	{
+		capacity = Math.max(1, maxStates);
+		states.setCapacity(capacity);
+	}
+
+	public int getTableSize()
+	{
+		return states.size();
+	}
+
+	/**
+	 * Gets how full the state table is
+	 * @return The used fraction of the capacity, in permille
+	 */
+	public int getTableUsage()
+	{
+		return (int) Math.min(1000, states.size() * 1000L / capacity);
+	}
+
+	/**
+	 * Empties the state table (the data file is untouched)
+	 */
+	public void clearTable()
+	{
+		states.clear();
+	}
+
+	/**
+	 * Saves the state table to a snapshot file, to be restored by the next session
+	 * @param fileName The snapshot file
+	 * @return The number of saved states
+	 * @throws IOException
+	 */
+	public int saveTable(String fileName) throws IOException
+	{
+		return TableSnapshot.save(states, fileName);
+	}
+
+	/**
+	 * Restores the states of a snapshot file into the state table
+	 * @param fileName The snapshot file
+	 * @return The number of restored states
+	 * @throws IOException
+	 */
+	public int loadTable(String fileName) throws IOException
+	{
+		return TableSnapshot.load(fileName, states);
+	}
+
+	public void printDataDetails()
+	{
+		DecimalFormat df = new DecimalFormat("###,###,###,###.#");
+		System.out.println("----- Compression Settings -----");
+		System.out.println("CURRENT MEMORY USAGE: " + df.format(Runtime.getRuntime().totalMemory()/1024.0/1024.0) + " MB");
+		System.out.println("MAX HEAP MEMORY: " + df.format(Runtime.getRuntime().maxMemory()/1024.0/1024.0) + " MB");
+		System.out.println("TOTAL STATES IN TABLE: " + df.format(states.size()));
+		System.out.println("% TABLE SPACE USED: " + df.format(states.size()/(double)capacity*100) + "%");
+	}
+}
@@ -0,0 +1,219 @@
+import java.awt.Color;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A headless server that plays many games at once in one program, one session per connection on a
+ * local TCP port (java EngineServer [port] [searches at once] [engine settings (see EngineConfig)] [hash MB per game])
+ *
+ * Sessions only read commands and write replies, so each one gets a cheap thread of its own (a
+ * virtual thread where the JVM has them). Searches run on a fixed pool of SEARCH_THREADS_PER_CORE
+ * threads per core, and a SearchScheduler lets only one search per core run at a time: a new search
+ * runs to MINIMUM_DEPTH first, then the games with the least time on their clocks go first, trading
+ * cores at node checkpoints (a search that gave its core up keeps its thread). Searches that don't
+ * have a thread yet wait in the pool's queue in the same order. Every session has its own
+ * EngineContext; the attack tables, Zobrist keys, opening book and leaf cache are shared
+ *
+ * The protocol of a session is line-based (see EngineSession), and "stats" reports the sessions per
+ * core and the move latencies (from go to bestmove) of the whole server
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class EngineServer
+{
+	public static final int DEFAULT_PORT = 7420;
+	public static final int DEFAULT_HASH_MB = 16;
+	public static final int MINIMUM_DEPTH = 3; //Depth every move gets before the scheduler trades its core
+	public static final int SEARCH_THREADS_PER_CORE = 4; //Searches under way at once per core (the scheduler trades cores between them)
+	private static final int LATENCY_WINDOW = 10000; //Latest move latencies kept for the percentiles
+
+	private final int port;
+	private final int searchThreads;
+	private final EngineConfig config;
+	private final int hashMB;
+	private final ExecutorService searchPool;
+	private final SearchScheduler scheduler;
+	private final AtomicInteger activeSessions = new AtomicInteger();
+	private final AtomicInteger peakSessions = new AtomicInteger();
+	private final AtomicLong totalSessions = new AtomicLong();
+	private final long[] latencies = new long[LATENCY_WINDOW]; //Ring of move latencies in milliseconds
+	private long moveCount = 0;
+
+	public EngineServer(int port, int searchThreads, EngineConfig config, int hashMB)
+	{
+		this.port = port;
+		this.searchThreads = searchThreads;
+		this.config = config;
+		this.hashMB = hashMB;
+		this.scheduler = new SearchScheduler(searchThreads);
+		int poolSize = Math.max(1, searchThreads) * SEARCH_THREADS_PER_CORE;
+		this.searchPool = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<>(), r -> {
+			Thread thread = new Thread(r, "Search");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Creates the executor of the sessions: a virtual thread per session on JVMs that have them
+	 * (looked up by name, so the server still runs on older JVMs), otherwise a platform thread per
+	 * session
+	 * @return The executor
+	 */
+	private static ExecutorService createSessionExecutor()
+	{
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		}
+		catch (ReflectiveOperationException e) {
+			return Executors.newCachedThreadPool(r -> {
+				Thread thread = new Thread(r, "Session");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/**
+	 * Accepts connections until the program ends
+	 * @throws IOException
+	 */
+	public void run() throws IOException
+	{
+		ExecutorService sessions = createSessionExecutor();
+		ServerSocket server = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+		System.out.println("Engine server on port " + server.getLocalPort() + " | Searches at once: " + searchThreads
+				+ " | Engine: " + config + " | Hash: " + hashMB + " MB per game");
+		while (true)
+		{
+			Socket socket = server.accept();
+			socket.setTcpNoDelay(true);
+			sessions.execute(new EngineSession(this, socket));
+		}
+	}
+
+	/**
+	 * Creates the engine context of a new game
+	 * @param settings Engine settings replacing the server's (see EngineConfig), or null for the server's
+	 * @return The context
+	 */
+	public EngineContext createContext(EngineConfig settings)
+	{
+		return new EngineContext(settings == null ? config : settings, EngineContext.capacityOf(hashMB), true);
+	}
+
+	/**
+	 * Makes the next search of a player go through the scheduler
+	 * @param player The player
+	 * @param urgency The time the game's clock runs out (Long.MAX_VALUE without a clock)
+	 * @return The ticket of the search
+	 */
+	public SearchTicket scheduleSearch(SmartPlayerNegamax player, long urgency)
+	{
+		SearchTicket ticket = scheduler.register(urgency, MINIMUM_DEPTH);
+		player.setScheduling(scheduler, ticket);
+		return ticket;
+	}
+
+	/**
+	 * Runs a search on a thread of the search pool once the scheduler gives it a core
+	 * @param ticket The ticket of the search
+	 * @param search The search
+	 */
+	public void submitSearch(SearchTicket ticket, Runnable search)
+	{
+		searchPool.execute(new ScheduledSearch(ticket, () -> {
+			try {
+				scheduler.acquire(ticket);
+				search.run();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				scheduler.release(ticket);
+			}
+		}));
+	}
+
+	public void sessionOpened()
+	{
+		int active = activeSessions.incrementAndGet();
+		peakSessions.accumulateAndGet(active, Math::max);
+		totalSessions.incrementAndGet();
+	}
+
+	public void sessionClosed()
+	{
+		activeSessions.decrementAndGet();
+	}
+
+	/**
+	 * Records the latency of a move
+	 * @param millis Milliseconds from the go command to the reply
+	 */
+	public synchronized void recordLatency(long millis)
+	{
+		latencies[(int) (moveCount++ % LATENCY_WINDOW)] = millis;
+	}
+
+	/**
+	 * Reports the load of the server
+	 * @return The statistics as one line
+	 */
+	public String getStatistics()
+	{
+		long[] window;
+		long moves;
+		synchronized (this) {
+			moves = moveCount;
+			window = Arrays.copyOf(latencies, (int) Math.min(moveCount, LATENCY_WINDOW));
+		}
+		Arrays.sort(window);
+		int cores = Runtime.getRuntime().availableProcessors();
+		return "sessions " + activeSessions.get() + " peak " + peakSessions.get() + " total " + totalSessions.get()
+				+ " cores " + cores + " sessionspercore " + String.format("%.2f", peakSessions.get() / (double) cores)
+				+ " moves " + moves + " p50 " + percentile(window, 50) + " p99 " + percentile(window, 99)
+				+ " max " + (window.length == 0 ? 0 : window[window.length-1]) + " yields " + scheduler.getYields();
+	}
+
+	/**
+	 * Gets a percentile of sorted values (nearest rank)
+	 * @param sorted The values, sorted
+	 * @param percent The percentile
+	 * @return The value, or 0 if there are none
+	 */
+	private static long percentile(long[] sorted, int percent)
+	{
+		if (sorted.length == 0) return 0;
+		int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+		return sorted[Math.max(0, rank - 1)];
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		EngineConfig config = EngineConfig.parse(args.length > 2 ? args[2] : "time=1000");
+		int hashMB = args.length > 3 ? Integer.parseInt(args[3]) : DEFAULT_HASH_MB;
+
+		Game.setNearColor(Color.WHITE);
+		OpeningBook.load(OpeningBook.BOOK_FILE);
+		LeafCache.load(LeafCache.CACHE_FILE);
+
+		EngineServer server = new EngineServer(port, threads, config, hashMB);
+		Runtime.getRuntime().addShutdownHook(new Thread(() -> System.out.println(server.getStatistics())));
+		server.run();
+	}
+}
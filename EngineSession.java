@@ -0,0 +1,208 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One game of the engine server, driven over its connection with a line protocol:
+ *    newgame [engine settings]           - starts a game with a fresh state table -> ok
+ *    position startpos|fen (fields) [moves (moves)] - as in UCI -> ok
+ *    go [depth|nodes|movetime|wtime|btime|winc|binc|movestogo (value)] - searches -> bestmove (move) score
+ *                                          (cp) depth (depth) nodes (nodes) time (ms), without limits
+ *                                          the engine settings apply
+ *    stop                                - ends the search early (its bestmove still follows)
+ *    stats                               - the server's statistics
+ *    quit                                - closes the session
+ * Errors are answered with "error (message)"
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class EngineSession implements Runnable, SearchListener
+{
+	private static final long MOVE_OVERHEAD = 10; //Milliseconds kept in reserve for communication
+
+	private final EngineServer server;
+	private final Socket socket;
+	private PrintWriter out;
+	private EngineContext context;
+	private Board board;
+	private Color colorToMove;
+	private volatile SmartPlayerNegamax searcher = null; //The running or queued search
+	private volatile boolean stopPending = false; //Stop asked for, kept until the search has started
+	private volatile int searchedDepth = 0;
+	private volatile long searchedNodes = 0;
+
+	public EngineSession(EngineServer server, Socket socket)
+	{
+		this.server = server;
+		this.socket = socket;
+	}
+
+	/**
+	 * Sends a reply (the search threads reply too)
+	 * @param line The reply
+	 */
+	private synchronized void reply(String line)
+	{
+		out.println(line);
+	}
+
+	public void run()
+	{
+		server.sessionOpened();
+		try (Socket connection = socket)
+		{
+			BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.US_ASCII));
+			out = new PrintWriter(connection.getOutputStream(), true);
+			newGame(null);
+			String nextLine;
+			while ((nextLine = in.readLine()) != null)
+			{
+				String[] tokens = nextLine.trim().split("\\s+");
+				if (tokens[0].isEmpty()) continue;
+				String command = tokens[0];
+				try {
+					if (command.equals("quit")) break;
+					else if (command.equals("stop")) stop();
+					else if (command.equals("stats")) reply("stats " + server.getStatistics());
+					else if (searcher != null) reply("error Search running");
+					else if (command.equals("newgame")) {
+						newGame(tokens.length > 1 ? EngineConfig.parse(tokens[1]) : null);
+						reply("ok");
+					}
+					else if (command.equals("position")) {
+						Board newBoard = new Board();
+						colorToMove = UCI.loadPosition(newBoard, tokens);
+						board = newBoard;
+						reply("ok");
+					}
+					else if (command.equals("go")) go(tokens);
+					else reply("error Unknown command " + command);
+				}
+				catch (IllegalArgumentException e) {
+					reply("error " + e.getMessage());
+				}
+			}
+		}
+		catch (IOException e) {
+			//Connection lost, the game ends with it
+		}
+		finally {
+			stop();
+			server.sessionClosed();
+		}
+	}
+
+	/**
+	 * Starts a new game from the starting position
+	 * @param settings The engine settings of the game, or null for the server's
+	 */
+	private void newGame(EngineConfig settings)
+	{
+		context = server.createContext(settings);
+		board = new Board();
+		colorToMove = FEN.load(board, FEN.START_FEN).colorToMove;
+	}
+
+	/**
+	 * Answers from the opening book, or schedules a search of the position
+	 * @param tokens The command tokens
+	 */
+	private void go(String[] tokens)
+	{
+		long received = System.currentTimeMillis();
+		if (board.allMoves(colorToMove).isEmpty()) {
+			reply("bestmove 0000");
+			return;
+		}
+		if (context.usesBook()) {
+			Move bookMove = OpeningBook.probe(board, colorToMove);
+			if (bookMove != null) {
+				reply("bestmove " + bookMove.toLongAlgebraic() + " book");
+				server.recordLatency(System.currentTimeMillis() - received);
+				return;
+			}
+			if (context.getConfig().skill == 0) seedFromLeafCache(); //A weakened engine searches on its own budget
+		}
+
+		SearchLimits limits = SearchLimits.parse(tokens, colorToMove.equals(Color.WHITE));
+		EngineConfig config = context.getConfig();
+		final int depth = limits.isLimited() ? limits.depth : config.depth;
+		final long nodes = limits.isLimited() ? limits.nodes : config.nodes;
+		final long time = limits.isLimited() ? limits.allocateTime(MOVE_OVERHEAD) : config.moveTime;
+		final SmartPlayerNegamax player;
+		try {
+			player = context.createPlayer(board, colorToMove);
+		}
+		catch (IOException e) {
+			reply("error " + e.getMessage());
+			return;
+		}
+		final Board searchBoard = board;
+		final Color color = colorToMove;
+		SearchTicket ticket = server.scheduleSearch(player, limits.timeLeft >= 0 ? received + limits.timeLeft : time > 0 ? received + time : Long.MAX_VALUE);
+		stopPending = false;
+		searcher = player;
+		searchedDepth = 0;
+		searchedNodes = 0;
+
+		server.submitSearch(ticket, () -> {
+			//A failed search still frees the session and answers the go
+			String result = "error Search failed";
+			try {
+				//The time spent waiting for a core counts against the move's time
+				long waited = System.currentTimeMillis() - received;
+				long remaining = time == 0 ? 0 : Math.max(1, time - waited);
+				Move best = player.searchWithLimits(depth, remaining, nodes, this);
+				if (best == null) best = searchBoard.allMoves(color).get(0);
+				long elapsed = System.currentTimeMillis() - received;
+				result = "bestmove " + best.toLongAlgebraic() + " score " + player.getLastScore() + " depth " + searchedDepth
+						+ " nodes " + searchedNodes + " time " + elapsed;
+				server.recordLatency(elapsed);
+			}
+			catch (RuntimeException e) {
+				result = "error Search failed: " + e;
+			}
+			finally {
+				searcher = null;
+				reply(result);
+			}
+		});
+	}
+
+	/**
+	 * Seeds the state table with the precomputed search of the position, if it's a book leaf
+	 */
+	private void seedFromLeafCache()
+	{
+		CompressionInfo leaf = LeafCache.probe(board, colorToMove);
+		if (leaf == null) return;
+		try {
+			context.addToTable(Compression.compressState(board, colorToMove.equals(Color.WHITE) ? 1 : -1), StateTable.occupiedSquares(board),
+					leaf.nodeType, leaf.depth, leaf.score, OpeningBook.encodeMove(leaf.PVMove));
+		}
+		catch (IOException e) {
+		}
+	}
+
+	/**
+	 * Stops the current search, if any
+	 */
+	private void stop()
+	{
+		stopPending = true;
+		SmartPlayerNegamax player = searcher;
+		if (player != null) player.requestStop();
+	}
+
+	public void iterationComplete(SmartPlayerNegamax player, int depth, long nodes, long elapsed)
+	{
+		searchedDepth = depth;
+		searchedNodes = nodes;
+		if (stopPending) player.requestStop(); //A search still queued when stopped clears the request when it starts
+	}
+}
@@ -17,6 +17,59 @@ public class Evaluation
 	private static final double[] DEF_MULT = {1, 0.5, 1, 0.9, 0.8, 0.8, 100/35};
 	private static final double[] EQ_MULT = {1.4, 0.5, 1, 0.8, 0.6, 0.8, 100/35};
 	private static final double[] EVAL_MULT = EQ_MULT;
+
+	//Material values (Pawn through King)
+	private static final int[] mg_value = { 82, 317, 335, 487, 1025,  9999};
+	private static final int[] eg_value = { 94, 288, 297, 512,  936,  9999};
+
+	//Mobility weights per safe square (index 1-6 by pieceEnum), packed midgame/endgame
+	private static final int[] MOBILITY_WEIGHT = {0, 0, packScore(2, 2), packScore(2, 2), packScore(1, 2), packScore(1, 1), 0};
+
+	//King zone attack units per attacked square (index 1-6 by pieceEnum)
+	private static final int[] KING_ATTACK_UNITS = {0, 0, 2, 2, 3, 5, 0};
+
+	//King safety penalty by accumulated attack units
+	private static final int[] KING_SAFETY_TABLE = {
+		  0,   0,   1,   2,   3,   5,   7,   9,  12,  15,
+		 18,  22,  26,  30,  35,  39,  44,  50,  56,  62,
+		 68,  75,  82,  85,  89,  97, 105, 113, 122, 131,
+		140, 150, 169, 180, 191, 202, 213, 225, 237, 248,
+		260, 272, 283, 295, 307, 319, 330, 342, 354, 366,
+		377, 389, 401, 412, 424, 436, 448, 459, 471, 483,
+		494, 500, 500, 500, 500, 500, 500, 500, 500, 500
+	};
+
+	//Pawn shield squares in front of the king (1 and 2 rows ahead, king file +-1)
+	//[Direction (0 - Up, 1 - Down)][Bitboard index]
+	private static final long[][] KING_SHIELD_NEAR = new long[2][64];
+	private static final long[][] KING_SHIELD_FAR = new long[2][64];
+	static {
+		for (int dir=0;dir<2;dir++) {
+			for (int index=0;index<64;index++) {
+				int r = Bitboard.toRow(index); int c = Bitboard.toCol(index);
+				int step = dir == 0 ? -1 : 1;
+				for (int dc=-1;dc<=1;dc++) {
+					if (c+dc < 0 || c+dc > 7) continue;
+					if (r+step >= 0 && r+step <= 7) KING_SHIELD_NEAR[dir][index] = Bitboard.setBit(KING_SHIELD_NEAR[dir][index], Bitboard.toBBIndex(r+step, c+dc));
+					if (r+2*step >= 0 && r+2*step <= 7) KING_SHIELD_FAR[dir][index] = Bitboard.setBit(KING_SHIELD_FAR[dir][index], Bitboard.toBBIndex(r+2*step, c+dc));
+				}
+			}
+		}
+	}
+
+	//Development bonus per piece off its starting square (index 1-6 by pieceEnum)
+	private static final int[] DEVELOPMENT_SCORES_MG = {0, 0, 20, 20, 15, 20, 15};
+	private static final int[] DEVELOPMENT_SCORES_EG = {0, 10, 25, 25, 20, 25, 25};
+
+	//Default lazy evaluation margins after tier 1 (material/position) and tier 2 (pawns/development);
+	//each engine passes its own margins to lazyEvaluate
+	public static final int LAZY_MATERIAL_MARGIN = 400;
+	public static final int LAZY_PAWN_MARGIN = 250;
+
+	//Phase weights (index 1-6 by pieceEnum) and the total phase of the starting position
+	private static final int[] PHASE_WEIGHT = {0, 0, 1, 1, 2, 4, 0};
+	private static final int TOTAL_PHASE = 24;
+
 	/**
 	 * Gets the material of singular piece from the pieceEnum
 	 * @param pieceEnum The piece enum
@@ -25,8 +78,6 @@ public class Evaluation
 	 */
 	public static int getMaterial(int pieceEnum, boolean isEndgame)
 	{
-		int[] mg_value = { 82, 317, 335, 487, 1025,  9999};
-		int[] eg_value = { 94, 288, 297, 512,  936,  9999};
 		return isEndgame ? eg_value[pieceEnum-1] : mg_value[pieceEnum-1];
 	}
 
@@ -57,7 +108,49 @@ public class Evaluation
 
 	private static int calculateMaterialWithoutPawns(Board board, Color color)
 	{
-		return board.getMaterialOfSide(color, false) - getMaterial(1, false) * board.getPiecesOfType(1, color).size();
+		return board.getNonPawnMaterialOfSide(color);
+	}
+
+	/**
+	 * Gets the phase weight of a single piece (pawns and kings weigh nothing)
+	 * @param pieceEnum The piece enum
+	 * @return The phase weight of the piece
+	 */
+	public static int getPhaseWeight(int pieceEnum)
+	{
+		return PHASE_WEIGHT[pieceEnum];
+	}
+
+	/**
+	 * Packs a midgame and endgame score into a single int (endgame in the upper 16 bits)
+	 * so that both can be accumulated with one addition
+	 * @param mg The midgame score
+	 * @param eg The endgame score
+	 * @return The packed score
+	 */
+	public static int packScore(int mg, int eg)
+	{
+		return (eg << 16) + mg;
+	}
+
+	/**
+	 * Retrieves the midgame half of a packed score
+	 * @param packed The packed score
+	 * @return The midgame score
+	 */
+	public static int unpackMG(int packed)
+	{
+		return (short) packed;
+	}
+
+	/**
+	 * Retrieves the endgame half of a packed score
+	 * @param packed The packed score
+	 * @return The endgame score
+	 */
+	public static int unpackEG(int packed)
+	{
+		return (packed + 0x8000) >> 16;
 	}
 	
 	/**
@@ -76,92 +169,184 @@ public class Evaluation
 	}
 	
 	/**
-	 * Counts pawn islands with standard floodfill
-	 * @param board The current board
-	 * @param loc The current location
-	 * @param color The color
-	 * @return
+	 * Expands a set of squares by one square in every direction (including diagonals)
+	 * @param squares The bitboard of squares
+	 * @return The expanded bitboard
 	 */
-	private static void findPawnIsland(Board board, Location loc, Color color, boolean[][] mark)
+	private static long expandSquares(long squares)
 	{
-		int i = loc.getRow(); int j = loc.getCol();
-		mark[i][j] = true;
-		
-		int[] dx = {-1,0,1,0,-1,1,-1,1};
-		int[] dy = {0,-1,0,1,-1,-1,1,1};
-		for (int k=0;k<8;k++) {
-			int new_i = i+dx[k]; int new_j = j+dy[k];
-			Location newLoc = new Location(new_i, new_j);
-			if (board.isValid(newLoc) && !mark[new_i][new_j] && board.get(newLoc) instanceof Pawn && board.get(newLoc).getColor().equals(color)) {
-				findPawnIsland(board, newLoc, color, mark);
-			}
-		}
+		//Shifting left moves a square one column toward the a-file, wrapping onto the h-file of the row above
+		long row = squares | ((squares << 1) & ~Bitboard.FILE_MASKS[7]) | ((squares >>> 1) & ~Bitboard.FILE_MASKS[0]);
+		return row | (row << 8) | (row >>> 8);
 	}
 
 	/**
-	 * Calculates the pawn structure for a certain color by evaluating how many columns filled with
-	 * pawns
+	 * Calculates the pawn structure for a set of pawns by evaluating how many columns are filled
+	 * with pawns and how many pawn islands (8-connected groups) there are
 	 * 
-	 * @param board The board
-	 * @param col   The color
+	 * @param pawns The pawn bitboard of one side
+	 * @param isEndgame A boolean describing if the game is in the endgame phase
 	 * @return The pawn structure score
 	 */
-	private static int calculatePawnStructure(Board board, Color color, boolean isEndgame)
+	private static int calculatePawnStructure(long pawns, boolean isEndgame)
 	{
 		//Columns/Doubled-Pawns
-		int score = 0;
-		ArrayList<Piece> pawns = board.getPiecesOfType(Pawn.ENUM, color);
-		
-		boolean[] hasPawn = new boolean[board.getNumCols()];
-		for (Piece p: pawns) {
-			hasPawn[p.getLocation().getCol()] = true;
-		}
-		for (boolean has: hasPawn)
+		int files = 0;
+		for (int col=0;col<8;col++)
 		{
-			if (has)
-			{
-				score += isEndgame ? 25 : 15;
-			}
+			if ((pawns & Bitboard.FILE_MASKS[col]) != 0) files++;
 		}
-		//Pawn Islands
-		boolean[][] mark = new boolean[board.getNumRows()][board.getNumCols()];
+		//Pawn Islands (grow each island from its lowest pawn until it stops changing)
 		int islands = 0;
-		for (Piece p: pawns) {
-			Location loc = p.getLocation();
-			if (mark[loc.getRow()][loc.getCol()]) continue;
-			islands++; findPawnIsland(board, loc, color, mark);
+		long remaining = pawns;
+		while (remaining != 0)
+		{
+			long island = remaining & -remaining;
+			long grown;
+			while ((grown = expandSquares(island) & pawns) != island) island = grown;
+			remaining &= ~island;
+			islands++;
 		}
-		score += (8-islands)*(isEndgame ? 25 : 15);
+		return (files + 8 - islands) * (isEndgame ? 25 : 15);
+	}
 
+	/**
+	 * Retrieves the pawn structure difference (White - Black) from the pawn hash table of the
+	 * board, calculating and storing it on a miss
+	 * 
+	 * @param board The board
+	 * @return The packed midgame/endgame pawn structure difference (without multiplier)
+	 */
+	private static int probePawnStructure(Board board)
+	{
+		Bitboard bb = board.getBitboard();
+		PawnHashTable table = board.getPawnHashTable();
+		long white = bb.getPieceBB(Pawn.ENUM, 0);
+		long black = bb.getPieceBB(Pawn.ENUM, 1);
+		if (table.contains(white, black)) return table.get(white, black);
+
+		int score = packScore(calculatePawnStructure(white, false) - calculatePawnStructure(black, false),
+				calculatePawnStructure(white, true) - calculatePawnStructure(black, true));
+		table.put(white, black, score);
 		return score;
 	}
 
 	/**
-	 * Calculates the king safety of a certain color
+	 * Calculates the king safety of a certain color from the attack maps, using attack units on the
+	 * king zone, pawn shield, and open files around the king
+	 * @precondition calculateAttacks has been run for both colors on the current board
 	 * 
 	 * @param board The board
 	 * @param col   The color
-	 * @return The king safety score
+	 * @return The packed midgame/endgame king safety score
 	 */
-	private static int calculateKingSafety(Board board, Color color, boolean isEndgame)
+	private static int calculateKingSafety(Board board, Color color)
 	{
-		int score = 0;
-		King king = board.getKing(color);
+		Bitboard bb = board.getBitboard();
+		int c = color.equals(Color.WHITE) ? 0 : 1;
+		int dir = color.equals(Game.getNearColor()) ? 0 : 1;
+		long kingBB = bb.getPieceBB(King.ENUM, c);
+		if (kingBB == 0) return 0;
+		int kingIndex = Bitboard.getLS1F(kingBB);
+		int kingCol = Bitboard.toCol(kingIndex);
+		int mg = 0; int eg = 0;
+
+		// Check
+		if ((bb.attackedBy[1-c][0] & kingBB) != 0)
+		{
+			mg -= 40; eg -= 25;
+		}
 
-		if (king.inCheck())
+		// Attack units on the king zone (only counts once two pieces join the attack)
+		if (bb.kingAttackers[1-c] >= 2)
 		{
-			score -= isEndgame ? 25 : 40; // Check
+			int penalty = KING_SAFETY_TABLE[Math.min(bb.kingAttackUnits[1-c], KING_SAFETY_TABLE.length-1)];
+			mg -= penalty; eg -= penalty/4;
 		}
-		for (Location loc : board.getOccupiedAdjacentLocations(king.getLocation()))
+
+		// Pawn shield
+		long ownPawns = bb.getPieceBB(Pawn.ENUM, c);
+		mg += 10 * Long.bitCount(ownPawns & KING_SHIELD_NEAR[dir][kingIndex]);
+		mg += 5 * Long.bitCount(ownPawns & KING_SHIELD_FAR[dir][kingIndex]);
+
+		// Open and half-open files around the king
+		long enemyPawns = bb.getPieceBB(Pawn.ENUM, 1-c);
+		for (int col=Math.max(0, kingCol-1);col<=Math.min(7, kingCol+1);col++)
+		{
+			if ((ownPawns & Bitboard.FILE_MASKS[col]) == 0)
+			{
+				mg -= 15;
+				if ((enemyPawns & Bitboard.FILE_MASKS[col]) == 0) mg -= 10;
+			}
+		}
+		return packScore(mg, eg);
+	}
+
+	/**
+	 * Calculates the attack maps of a certain color from the attack sets of its pieces, along with
+	 * its attacks on the enemy king zone and its mobility (squares not occupied by own pieces and
+	 * not attacked by enemy pawns)
+	 * @precondition Pawn attacks (attackedBy[color][1]) are filled in for both colors
+	 * 
+	 * @param board The board
+	 * @param color The color
+	 * @return The packed midgame/endgame mobility score
+	 */
+	private static int calculateAttacks(Board board, Color color)
+	{
+		Bitboard bb = board.getBitboard();
+		int c = color.equals(Color.WHITE) ? 0 : 1;
+		long occupied = bb.colorBB[0] | bb.colorBB[1];
+		long safe = ~bb.colorBB[c] & ~bb.attackedBy[1-c][1];
+
+		long enemyKingBB = bb.getPieceBB(King.ENUM, 1-c);
+		long kingZone = enemyKingBB == 0 ? 0L : Bitboard.kingAttackSet[Bitboard.getLS1F(enemyKingBB)] | enemyKingBB;
+		bb.kingAttackers[c] = 0;
+		bb.kingAttackUnits[c] = 0;
+
+		int score = 0;
+		long all = bb.attackedBy[c][1];
+		for (int pieceEnum=2;pieceEnum<=6;pieceEnum++)
 		{
-			if (board.isAttacked(loc, Board.oppositeColor(color)))
+			long pieces = bb.getPieceBB(pieceEnum, c);
+			long attackedByType = 0L;
+			while (pieces != 0)
 			{
-				score -= isEndgame ? 5 : 10; // Adjacent Squares attacked
+				int index = Bitboard.getLS1F(pieces); pieces &= pieces - 1;
+				long attacks = bb.getPieceAttacks(pieceEnum, index, occupied);
+				attackedByType |= attacks;
+				score += MOBILITY_WEIGHT[pieceEnum] * Long.bitCount(attacks & safe);
+
+				long zoneAttacks = attacks & kingZone;
+				if (zoneAttacks != 0 && pieceEnum != King.ENUM)
+				{
+					bb.kingAttackers[c]++;
+					bb.kingAttackUnits[c] += KING_ATTACK_UNITS[pieceEnum] * Long.bitCount(zoneAttacks);
+				}
 			}
+			bb.attackedBy[c][pieceEnum] = attackedByType;
+			all |= attackedByType;
 		}
+		bb.attackedBy[c][0] = all;
+
+		//Same as the total attack set (reused by isAttacked until the board changes)
+		bb.totalAttackSet[c] = all;
 		return score;
 	}
 
+	/**
+	 * Calculates the mobility difference (White - Black) by counting legal moves
+	 * (slow, uses the full legal move generation; kept for benchmarking against calculateAttacks)
+	 * 
+	 * @param board The board
+	 * @return The legal move count difference
+	 */
+	public static int calculateLegalMoveMobility(Board board)
+	{
+		Bitboard bb = board.getBitboard();
+		return bb.countLegalMoves(Color.WHITE) - bb.countLegalMoves(Color.BLACK);
+	}
+
 	/**
 	 * Calculates development through the getMoved feature of pieces
 	 * @param board The current board
@@ -170,15 +355,15 @@ public class Evaluation
 	 */
 	private static int calculateDevelopment(Board board, Color color, boolean isEndgame)
 	{
-		int[] developmentScoresMG = {0,0,20,20,15,20,15};
-		int[] developmentScoresEG = {0,10,25,25,20,25,25};
+		int[] developmentScores = isEndgame ? DEVELOPMENT_SCORES_EG : DEVELOPMENT_SCORES_MG;
 
 		int score = 0;
 		for (int pieceEnum=1;pieceEnum<=6;pieceEnum++)
 		{
-			for (Piece p: board.getPiecesOfType(pieceEnum, color))
+			ArrayList<Piece> pieces = board.getPiecesOfType(pieceEnum, color);
+			for (int i=0;i<pieces.size();i++)
 			{
-				if (!p.inStartingSquare()) score += !isEndgame ? developmentScoresMG[pieceEnum] : developmentScoresEG[pieceEnum];
+				if (!pieces.get(i).inStartingSquare()) score += developmentScores[pieceEnum];
 			}
 		}
 		return score;
@@ -192,35 +377,9 @@ public class Evaluation
 	 */
 	private static int calculatePhase(Board board)
 	{
-		//Calculate number of every piece
-		int[][] numPieces = new int[2][6];
-		
-		for (int pieceEnum=1;pieceEnum<=6;pieceEnum++)
-		{
-			for (int color=0;color<=1;color++)
-			{
-				numPieces[color][pieceEnum-1] = board.getPiecesOfType(pieceEnum, color==0?Color.WHITE:Color.BLACK).size();
-			}
-		}
-		
-		int[] pieceP = {0,1,1,2,4};
-		int pawnP = pieceP[0];
-		int knightP = pieceP[1];
-		int bishopP = pieceP[2];
-		int rookP = pieceP[3];
-		int queenP = pieceP[4];
-		int totP = pawnP*16 + knightP*4 + bishopP*4 + rookP*4 + queenP*2;
-
-		//Calculate current phase
-		int curP = totP;
-		for (int color=0;color<2;color++)
-		{
-			for (int piece=0;piece<5;piece++)
-			{
-				curP -= numPieces[color][piece] * pieceP[piece];
-			}
-		}
-		return (curP * 256 + (totP/2))/totP;
+		//Phase material is kept up to date by the board as pieces are added/removed
+		int curP = TOTAL_PHASE - board.getPhaseMaterial();
+		return (curP * 256 + (TOTAL_PHASE/2))/TOTAL_PHASE;
 	}
 	
 	/**
@@ -393,41 +552,140 @@ public class Evaluation
 		eg_queen_table,
 		eg_king_table
 	};
+
+	/*
+	 * Packed midgame/endgame piece-square tables in absolute bitboard coordinates
+	 * [Near color (0 - White, 1 - Black)][Color (0 - White, 1 - Black)][pieceEnum][Bitboard index]
+	 */
+	private static final int[][][][] packed_piece_table = new int[2][2][7][64];
+	static {
+		for (int near=0;near<2;near++) {
+			for (int color=0;color<2;color++) {
+				for (int pieceEnum=1;pieceEnum<=6;pieceEnum++) {
+					for (int index=0;index<64;index++) {
+						int r = Bitboard.toRow(index);
+						int c = Bitboard.toCol(index);
+
+						//If on far side, (r,c) --> (7-r, 7-c)
+						if (near != color)
+						{
+							r = 7 - r; c = 7 - c;
+						}
+						//If Black, everything reflected on y-axis, so (r,c) --> (r, 7-c)
+						if (color == 1) c = 7 - c;
+
+						//Get position as 1D coordinate
+						int pos = 8*r + c;
+						packed_piece_table[near][color][pieceEnum][index] = packScore(mg_piece_table[pieceEnum-1][pos], eg_piece_table[pieceEnum-1][pos]);
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the packed piece-square score of a piece on a location
+	 * @param pieceEnum The piece enum
+	 * @param color The color of the piece
+	 * @param loc The location of the piece
+	 * @return The packed midgame/endgame score
+	 */
+	public static int getPieceSquareScore(int pieceEnum, Color color, Location loc)
+	{
+		int near = Game.getNearColor().equals(Color.WHITE) ? 0 : 1;
+		return packed_piece_table[near][color.equals(Color.WHITE) ? 0 : 1][pieceEnum][Bitboard.toBBIndex(loc.getRow(), loc.getCol())];
+	}
+
 	public static int calculatePiecePosition(Board board, Color col, boolean isEndgame)
 	{
-		
-		int rating = 0;
+		//Piece-square score is accumulated by the board as pieces are added/moved/removed
+		int packed = board.getPositionOfSide(col);
+		return isEndgame ? unpackEG(packed) : unpackMG(packed);
+	}
+	
+	/**
+	 * Scales both halves of a packed score by a multiplier (each half truncated separately)
+	 * @param packed The packed score
+	 * @param mult The multiplier
+	 * @return The scaled packed score
+	 */
+	private static int scaleScore(int packed, double mult)
+	{
+		int mg = unpackMG(packed); mg *= mult;
+		int eg = unpackEG(packed); eg *= mult;
+		return packScore(mg, eg);
+	}
 
-		for (int pieceEnum=1;pieceEnum<=6;pieceEnum++)
-		{
-			for (Piece p: board.getPiecesOfType(pieceEnum, col))
-			{
-				Location l = p.getLocation();
-				int r = l.getRow();
-				int c = l.getCol();
+	// Material Balance - O(1), incremental - A
+	private static int calculateMaterialTerm(Board board)
+	{
+		int mg = calculateMaterial(board, Color.WHITE, false) - calculateMaterial(board, Color.BLACK, false);
+		int eg = calculateMaterial(board, Color.WHITE, true) - calculateMaterial(board, Color.BLACK, true);
+		return scaleScore(packScore(mg, eg), EVAL_MULT[0]);
+	}
 
-				//If on far side, (r,c) --> (7-r, 7-c)
-				if (!p.getColor().equals(Game.NEAR_COLOR))
-				{
-					r = 7 - r; c = 7 - c;
-				}
-				//If Black, everything reflected on y-axis, so (r,c) --> (r, 7-c)
-				if (p.getColor().equals(Color.BLACK)) c = 7 - c;
+	// Position - O(1), incremental (x0.5 multiplier) - D
+	private static int calculatePositionTerm(Board board)
+	{
+		int mg = calculatePiecePosition(board, Color.WHITE, false) - calculatePiecePosition(board, Color.BLACK, false);
+		int eg = calculatePiecePosition(board, Color.WHITE, true) - calculatePiecePosition(board, Color.BLACK, true);
+		return scaleScore(packScore(mg, eg), EVAL_MULT[1]);
+	}
 
-				//Get position as 1D coordinate
-				int pos = 8*r + c;
-				
-				if (isEndgame)
-				{
-					rating += eg_piece_table[p.getEnum()-1][pos];
-				}
-				else
-				{
-					rating += mg_piece_table[p.getEnum()-1][pos];
-				}
-			}
-		}
-		return rating;
+	//Bishop Pair - O(1) - D
+	private static int calculateBishopPairTerm(Board board)
+	{
+		int mg = calculateBishopPair(board, Color.WHITE, false) - calculateBishopPair(board, Color.BLACK, false);
+		int eg = calculateBishopPair(board, Color.WHITE, true) - calculateBishopPair(board, Color.BLACK, true);
+		return scaleScore(packScore(mg, eg), EVAL_MULT[2]);
+	}
+
+	// Pawn Structure (x0.6 multiplier) - O(1) on a pawn hash hit - D
+	private static int calculateStructureTerm(Board board)
+	{
+		return scaleScore(probePawnStructure(board), EVAL_MULT[4]);
+	}
+
+	// Development (x0.8 multiplier) - O(pieces) - A
+	private static int calculateDevelopmentTerm(Board board)
+	{
+		int mg = calculateDevelopment(board, Color.WHITE, false) - calculateDevelopment(board, Color.BLACK, false);
+		int eg = calculateDevelopment(board, Color.WHITE, true) - calculateDevelopment(board, Color.BLACK, true);
+		return scaleScore(packScore(mg, eg), EVAL_MULT[5]);
+	}
+
+	// Attack Maps - O(pieces) per side, shared by king safety and mobility
+	// Mobility (attack set popcounts, x100/35 multiplier) - A
+	private static int calculateMobilityTerm(Board board)
+	{
+		Bitboard bb = board.getBitboard();
+		bb.attackedBy[0][1] = bb.getPawnAttackBB(Color.WHITE);
+		bb.attackedBy[1][1] = bb.getPawnAttackBB(Color.BLACK);
+		int whiteMobility = calculateAttacks(board, Color.WHITE);
+		int blackMobility = calculateAttacks(board, Color.BLACK);
+		return scaleScore(packScore(unpackMG(whiteMobility) - unpackMG(blackMobility),
+				unpackEG(whiteMobility) - unpackEG(blackMobility)), EVAL_MULT[6]);
+	}
+
+	// King Safety (x0.8 multiplier) - O(1) per side - D
+	// @precondition calculateMobilityTerm has been run on the current board
+	private static int calculateSafetyTerm(Board board)
+	{
+		int whiteKingSafety = calculateKingSafety(board, Color.WHITE);
+		int blackKingSafety = calculateKingSafety(board, Color.BLACK);
+		return scaleScore(packScore(unpackMG(whiteKingSafety) - unpackMG(blackKingSafety),
+				unpackEG(whiteKingSafety) - unpackEG(blackKingSafety)), EVAL_MULT[3]);
+	}
+
+	/**
+	 * Tapers a packed midgame/endgame score by the game phase
+	 * @param phase The phase value
+	 * @param packed The packed score
+	 * @return The tapered score
+	 */
+	private static int calculateTapered(int phase, int packed)
+	{
+		return calculateTapered(phase, unpackMG(packed), unpackEG(packed));
 	}
 	
 	/**
@@ -438,97 +696,112 @@ public class Evaluation
 	 * @return An integer describing the board, more negative favoring black and vice versa
 	 *         (utilizes units of centipawns)
 	 */
-	public static EvaluationInfo evaluate(Board board)
+	public static int evaluate(Board board)
 	{
-		Bitboard bb = board.getBitboard();
-		int score = 0;
-
-		// Material Balance - O(16) per side - A
-		int whiteMaterialMG = calculateMaterial(board, Color.WHITE, false);
-		int blackMaterialMG = calculateMaterial(board, Color.BLACK, false);
-		int whiteMaterialEG = calculateMaterial(board, Color.WHITE, true);
-		int blackMaterialEG = calculateMaterial(board, Color.BLACK, true);
-		
-		int deltaMaterialMG = whiteMaterialMG - blackMaterialMG; deltaMaterialMG *= EVAL_MULT[0];
-		int deltaMaterialEG = whiteMaterialEG - blackMaterialEG; deltaMaterialEG *= EVAL_MULT[0];
-
-
-		// Position - O(16) per side (x0.5 multiplier) - D
-		int whitePositionMG = calculatePiecePosition(board, Color.WHITE, false);
-		int blackPositionMG = calculatePiecePosition(board, Color.BLACK, false);
-		int whitePositionEG = calculatePiecePosition(board, Color.WHITE, true);
-		int blackPositionEG = calculatePiecePosition(board, Color.BLACK, true);
-		
-		int deltaPositionMG = whitePositionMG - blackPositionMG; deltaPositionMG *= EVAL_MULT[1];
-		int deltaPositionEG = whitePositionEG - blackPositionEG; deltaPositionEG *= EVAL_MULT[1];
-		
-		//Bishop Pair - O(1) - D
-		int whiteBishopPairMG = calculateBishopPair(board, Color.WHITE, false);
-		int blackBishopPairMG = calculateBishopPair(board, Color.BLACK, false);
-		int whiteBishopPairEG = calculateBishopPair(board, Color.WHITE, true);
-		int blackBishopPairEG = calculateBishopPair(board, Color.BLACK, true);
-		
-		int deltaBishopPairMG = whiteBishopPairMG - blackBishopPairMG; deltaBishopPairMG *= EVAL_MULT[2];
-		int deltaBishopPairEG = whiteBishopPairEG - blackBishopPairEG; deltaBishopPairEG *= EVAL_MULT[2];
-		
-		// King Safety (x0.9) - O(16) per side - D
-		int whiteKingSafetyMG = calculateKingSafety(board, Color.WHITE, false);
-		int blackKingSafetyMG = calculateKingSafety(board, Color.BLACK, false);
-		int whiteKingSafetyEG = calculateKingSafety(board, Color.WHITE, true);
-		int blackKingSafetyEG = calculateKingSafety(board, Color.BLACK, true);
-		int deltaSafetyMG = whiteKingSafetyMG - blackKingSafetyMG; deltaSafetyMG *= EVAL_MULT[3];
-		int deltaSafetyEG = whiteKingSafetyEG - blackKingSafetyEG; deltaSafetyEG *= EVAL_MULT[3];
+		return evaluate(board, null);
+	}
 
-		
-		// Pawn Structure (x0.8 multiplier) - O(7)+O(64) per side - D
-		int whiteStructureMG = calculatePawnStructure(board, Color.WHITE, false);
-		int blackStructureMG = calculatePawnStructure(board, Color.BLACK, false);
-		int whiteStructureEG = calculatePawnStructure(board, Color.WHITE, true);
-		int blackStructureEG = calculatePawnStructure(board, Color.BLACK, true);
-		int deltaStructureMG = whiteStructureMG - blackStructureMG; deltaStructureMG *= EVAL_MULT[4];
-		int deltaStructureEG = whiteStructureEG - blackStructureEG; deltaStructureEG *= EVAL_MULT[4];
+	/**
+	 * Evaluation function that also breaks the score down by factor (for debug output, not search)
+	 * 
+	 * @param board The board
+	 * @return The evaluation along with its splits (material, position, bishop pair, king safety,
+	 *         pawn structure, development, mobility)
+	 */
+	public static EvaluationInfo evaluateDetailed(Board board)
+	{
+		int[] splits = new int[7];
+		EvaluationInfo ret = new EvaluationInfo(evaluate(board, splits));
+		for (int split: splits) ret.splits.add(split);
+		return ret;
+	}
 
-		
-		// Development (x0.8 multiplier) - O(1) - A
-		int whiteDevelopmentMG = calculateDevelopment(board, Color.WHITE, false);
-		int blackDevelopmentMG = calculateDevelopment(board, Color.BLACK, false);
-		int whiteDevelopmentEG = calculateDevelopment(board, Color.WHITE, true);
-		int blackDevelopmentEG = calculateDevelopment(board, Color.BLACK, true);
-		int deltaDevelopmentMG = whiteDevelopmentMG - blackDevelopmentMG; deltaDevelopmentMG *= EVAL_MULT[5];
-		int deltaDevelopmentEG = whiteDevelopmentEG - blackDevelopmentEG; deltaDevelopmentEG *= EVAL_MULT[5];
+	/**
+	 * Evaluates the board, filling in the tapered score of each factor if requested
+	 * @param board The board
+	 * @param splits The array to store the factor scores in (null if not needed)
+	 * @return The evaluation
+	 */
+	private static int evaluate(Board board, int[] splits)
+	{
+		int material = calculateMaterialTerm(board);
+		int position = calculatePositionTerm(board);
+		int bishopPair = calculateBishopPairTerm(board);
+		int mobility = calculateMobilityTerm(board);
+		int safety = calculateSafetyTerm(board);
+		int structure = calculateStructureTerm(board);
+		int development = calculateDevelopmentTerm(board);
 
-		
 		//Tapered Evaluation with material-position hybrid
 		int gamePhase = calculatePhase(board);
+		int score = calculateTapered(gamePhase, material + position + bishopPair + safety + structure + development);
 
-		int deltaMatPosMG = deltaMaterialMG + deltaPositionMG + deltaBishopPairMG + deltaSafetyMG + deltaStructureMG + deltaDevelopmentMG;
-		int deltaMatPosEG = deltaMaterialEG + deltaPositionEG + deltaBishopPairEG + deltaSafetyEG + deltaStructureEG + deltaDevelopmentEG;
-		score += calculateTapered(gamePhase, deltaMatPosMG, deltaMatPosEG);	
-		
-		
-		// Mobility (100 centipawns per 35 moves) - O(128ish) - A
 		int deltaMoves = 0;
 		if (!APPROXIMATE_EVALUATION) {
-			int whiteMoves = bb.countLegalMoves(Color.WHITE);
-			int blackMoves = bb.countLegalMoves(Color.BLACK);
-			deltaMoves = whiteMoves - blackMoves; deltaMoves *= EVAL_MULT[6];
+			deltaMoves = calculateTapered(gamePhase, mobility);
 			score += deltaMoves;
 		}
 
-		EvaluationInfo ret = new EvaluationInfo(score);
+		if (splits != null) {
+			splits[0] = calculateTapered(gamePhase, material);
+			splits[1] = calculateTapered(gamePhase, position);
+			splits[2] = calculateTapered(gamePhase, bishopPair);
+			splits[3] = calculateTapered(gamePhase, safety);
+			splits[4] = calculateTapered(gamePhase, structure);
+			splits[5] = calculateTapered(gamePhase, development);
+			splits[6] = deltaMoves;
+		}
+		return score;
+	}
+
+	/**
+	 * Evaluates the board in tiers, stopping once the score so far is outside the (alpha, beta)
+	 * window by more than the remaining tiers are expected to move it
+	 * Tier 1: material, position, bishop pair (incremental)
+	 * Tier 2: pawn structure (pawn hash), development
+	 * Tier 3: mobility, king safety (attack maps)
+	 * The full tier returns the same score as evaluate()
+	 * 
+	 * @param board The board
+	 * @param color The side to evaluate for (1 - White, -1 - Black)
+	 * @param alpha The lower bound of the window
+	 * @param beta The upper bound of the window
+	 * @param materialMargin Margin for exiting after tier 1
+	 * @param pawnMargin Margin for exiting after tier 2
+	 * @param tierCounts Incremented at the index of the tier exited after (0, 1, or 2)
+	 * @return The (possibly approximate) evaluation from the perspective of color
+	 */
+	public static int lazyEvaluate(Board board, int color, int alpha, int beta, int materialMargin, int pawnMargin, long[] tierCounts)
+	{
+		int gamePhase = calculatePhase(board);
+
+		//Tier 1
+		int packed = calculateMaterialTerm(board) + calculatePositionTerm(board) + calculateBishopPairTerm(board);
+		int score = calculateTapered(gamePhase, packed) * color;
+		if (score - materialMargin >= beta || score + materialMargin <= alpha)
+		{
+			tierCounts[0]++;
+			return score;
+		}
 
-		ret.splits.add(calculateTapered(gamePhase, deltaMaterialMG, deltaMaterialEG));
-		ret.splits.add(calculateTapered(gamePhase, deltaPositionMG, deltaPositionEG));
-		ret.splits.add(calculateTapered(gamePhase, deltaBishopPairMG, deltaBishopPairEG));
-		ret.splits.add(calculateTapered(gamePhase, deltaSafetyMG, deltaSafetyEG));
-		ret.splits.add(calculateTapered(gamePhase, deltaStructureMG, deltaStructureEG));
-		ret.splits.add(calculateTapered(gamePhase, deltaDevelopmentMG, deltaDevelopmentEG));
-		ret.splits.add(deltaMoves);
+		//Tier 2
+		packed += calculateStructureTerm(board) + calculateDevelopmentTerm(board);
+		score = calculateTapered(gamePhase, packed) * color;
+		if (score - pawnMargin >= beta || score + pawnMargin <= alpha)
+		{
+			tierCounts[1]++;
+			return score;
+		}
 
-		return ret;
-		
+		//Tier 3
+		int mobility = calculateMobilityTerm(board);
+		packed += calculateSafetyTerm(board);
+		score = calculateTapered(gamePhase, packed);
+		if (!APPROXIMATE_EVALUATION) score += calculateTapered(gamePhase, mobility);
+		tierCounts[2]++;
+		return score * color;
 	}
-	
+
 	/**
 	 * Checks if the current state is in endgame
 	 * @param board The current board
@@ -0,0 +1,270 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN) and Extended Position Description
+ * (EPD), placing the pieces straight into a board so test suites and analysis queues can be loaded
+ * in bulk
+ *
+ * Castling rights are kept through the moved flags of the kings and rooks. The en passant square is
+ * read and written but not applied to the board, since the engine doesn't play en passant
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public final class FEN
+{
+	public static final String START_FEN = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+	//FEN letter of each piece enum (index 1-6)
+	private static final String PIECE_LETTERS = ".pnbrqk";
+
+	//Back rank FEN columns of each piece enum (index 2-6)
+	private static final int[][] HOME_COLUMNS = {{}, {}, {1, 6}, {2, 5}, {0, 7}, {3}, {4}};
+
+	/**
+	 * Converts a FEN square (row 0 is rank 8, column 0 is the a-file) into a board location
+	 * @param row The FEN row
+	 * @param col The FEN column
+	 * @return The board location
+	 */
+	private static Location toLocation(int row, int col)
+	{
+		return Game.getNearColor().equals(Color.WHITE) ? new Location(row, col) : new Location(7-row, 7-col);
+	}
+
+	/**
+	 * Finds the home square of a piece standing on a FEN square, used as its starting location so
+	 * the development term sees a loaded position the same way as the game that reached it. A piece
+	 * on one of its home squares starts there, any other piece starts on the first home square of
+	 * its type
+	 * @param pieceEnum The piece enum (1-6)
+	 * @param white If the piece is White
+	 * @param row The FEN row of the piece
+	 * @param col The FEN column of the piece
+	 * @return The home square as a board location
+	 */
+	private static Location homeSquare(int pieceEnum, boolean white, int row, int col)
+	{
+		if (pieceEnum == Pawn.ENUM) return toLocation(white ? 6 : 1, col);
+		int backRank = white ? 7 : 0;
+		int[] homeCols = HOME_COLUMNS[pieceEnum];
+		for (int homeCol: homeCols)
+		{
+			if (row == backRank && col == homeCol) return toLocation(row, col);
+		}
+		return toLocation(backRank, homeCols[0]);
+	}
+
+	/**
+	 * Parses the fields of a FEN string (the move counters may be left out)
+	 * @param fen The FEN string
+	 * @return The position fields
+	 */
+	public static PositionInfo parse(String fen)
+	{
+		String[] fields = fen.trim().split("\\s+");
+		if (fields.length < 4) throw new IllegalArgumentException("Incomplete FEN: " + fen);
+		PositionInfo info = parseFields(fields, fen);
+		if (fields.length > 4) info.halfmoveClock = Integer.parseInt(fields[4]);
+		if (fields.length > 5) info.fullmoveNumber = Integer.parseInt(fields[5]);
+		return info;
+	}
+
+	/**
+	 * Parses the first four fields shared by FEN and EPD (placement, side, castling, en passant)
+	 * @param fields The whitespace-separated fields
+	 * @param record The full record (for error messages)
+	 * @return The position fields, with the move counters at 0 and 1
+	 */
+	private static PositionInfo parseFields(String[] fields, String record)
+	{
+		if (fields[0].split("/").length != 8) throw new IllegalArgumentException("Piece placement needs 8 ranks: " + record);
+		Color colorToMove;
+		if (fields[1].equals("w")) colorToMove = Color.WHITE;
+		else if (fields[1].equals("b")) colorToMove = Color.BLACK;
+		else throw new IllegalArgumentException("Invalid side to move: " + record);
+		return new PositionInfo(fields[0], colorToMove, fields[2], fields[3], 0, 1);
+	}
+
+	/**
+	 * Sets up a position on an empty board
+	 * @param board The empty board
+	 * @param info The position fields
+	 */
+	public static void setup(Board board, PositionInfo info)
+	{
+		String[] ranks = info.placement.split("/");
+		for (int r=0;r<8;r++)
+		{
+			int c = 0;
+			for (int i=0;i<ranks[r].length();i++)
+			{
+				char ch = ranks[r].charAt(i);
+				if (ch >= '1' && ch <= '8') {
+					c += ch - '0';
+					continue;
+				}
+				int pieceEnum = PIECE_LETTERS.indexOf(Character.toLowerCase(ch));
+				if (pieceEnum <= 0 || c >= 8) throw new IllegalArgumentException("Invalid piece placement: " + info.placement);
+				boolean white = Character.isUpperCase(ch);
+				Piece p = Piece.create(pieceEnum, white ? Color.WHITE : Color.BLACK);
+				p.setStartingLocation(homeSquare(pieceEnum, white, r, c));
+				p.putSelfInGrid(board, toLocation(r, c));
+				c++;
+			}
+		}
+		if (board.getKing(Color.WHITE) == null || board.getKing(Color.BLACK) == null) {
+			throw new IllegalArgumentException("Both kings must be on the board: " + info.placement);
+		}
+
+		//Castling rights through the moved flags of the kings and rooks
+		for (Color color: new Color[] {Color.WHITE, Color.BLACK})
+		{
+			boolean white = color.equals(Color.WHITE);
+			boolean canShort = info.castling.indexOf(white ? 'K' : 'k') >= 0;
+			boolean canLong = info.castling.indexOf(white ? 'Q' : 'q') >= 0;
+			if (!canShort && !canLong) board.getKing(color).setMoved(true);
+			Piece shortRook = board.get(toLocation(white ? 7 : 0, 7));
+			Piece longRook = board.get(toLocation(white ? 7 : 0, 0));
+			if (!canShort && shortRook instanceof Rook) shortRook.setMoved(true);
+			if (!canLong && longRook instanceof Rook) longRook.setMoved(true);
+		}
+	}
+
+	/**
+	 * Sets up a FEN position on an empty board
+	 * @param board The empty board
+	 * @param fen The FEN string
+	 * @return The position fields (side to move, move counters..etc)
+	 */
+	public static PositionInfo load(Board board, String fen)
+	{
+		PositionInfo info = parse(fen);
+		setup(board, info);
+		return info;
+	}
+
+	/**
+	 * Converts a board into a FEN string
+	 * @param board The board
+	 * @param colorToMove The color to move
+	 * @param halfmoveClock The halfmove clock
+	 * @param fullmoveNumber The fullmove number
+	 * @return The FEN string
+	 */
+	public static String toFEN(Board board, Color colorToMove, int halfmoveClock, int fullmoveNumber)
+	{
+		StringBuilder fen = new StringBuilder();
+		for (int r=0;r<8;r++)
+		{
+			int empty = 0;
+			for (int c=0;c<8;c++)
+			{
+				Piece p = board.get(toLocation(r, c));
+				if (p == null) {
+					empty++;
+					continue;
+				}
+				if (empty > 0) fen.append(empty);
+				empty = 0;
+				char letter = PIECE_LETTERS.charAt(p.getEnum());
+				fen.append(p.getColor().equals(Color.WHITE) ? Character.toUpperCase(letter) : letter);
+			}
+			if (empty > 0) fen.append(empty);
+			if (r < 7) fen.append('/');
+		}
+
+		fen.append(colorToMove.equals(Color.WHITE) ? " w " : " b ");
+
+		int whiteRights = board.getCastlingRights(Color.WHITE);
+		int blackRights = board.getCastlingRights(Color.BLACK);
+		String castling = ((whiteRights & 1) != 0 ? "K" : "") + ((whiteRights & 2) != 0 ? "Q" : "")
+				+ ((blackRights & 1) != 0 ? "k" : "") + ((blackRights & 2) != 0 ? "q" : "");
+		fen.append(castling.isEmpty() ? "-" : castling);
+
+		fen.append(" - ").append(halfmoveClock).append(' ').append(fullmoveNumber);
+		return fen.toString();
+	}
+
+	/**
+	 * Converts a board into a FEN string (with the move counters at 0 and 1)
+	 * @param board The board
+	 * @param colorToMove The color to move
+	 * @return The FEN string
+	 */
+	public static String toFEN(Board board, Color colorToMove)
+	{
+		return toFEN(board, colorToMove, 0, 1);
+	}
+
+	/**
+	 * Parses an EPD record: the first four FEN fields followed by semicolon-terminated opcodes
+	 * (e.g. bm Nf3; id "WAC.001";), with hmvc and fmvn setting the move counters
+	 * @param record The EPD record
+	 * @return The position fields with the opcodes
+	 */
+	public static PositionInfo parseEPD(String record)
+	{
+		String[] fields = record.trim().split("\\s+", 5);
+		if (fields.length < 4) throw new IllegalArgumentException("Incomplete EPD: " + record);
+		PositionInfo info = parseFields(fields, record);
+		if (fields.length < 5) return info;
+
+		//Split the operations at semicolons outside of quoted strings
+		String operations = fields[4];
+		boolean quoted = false;
+		int start = 0;
+		for (int i=0;i<=operations.length();i++)
+		{
+			if (i < operations.length()) {
+				char ch = operations.charAt(i);
+				if (ch == '"') quoted = !quoted;
+				if (ch != ';' || quoted) continue;
+			}
+			String operation = operations.substring(start, i).trim();
+			start = i+1;
+			if (operation.isEmpty()) continue;
+
+			int split = operation.indexOf(' ');
+			String opcode = split < 0 ? operation : operation.substring(0, split);
+			String operand = split < 0 ? "" : operation.substring(split+1).trim();
+			if (operand.length() >= 2 && operand.startsWith("\"") && operand.endsWith("\"")) {
+				operand = operand.substring(1, operand.length()-1);
+			}
+			info.opcodes.put(opcode, operand);
+		}
+
+		if (info.opcodes.containsKey("hmvc")) info.halfmoveClock = Integer.parseInt(info.getOpcode("hmvc"));
+		if (info.opcodes.containsKey("fmvn")) info.fullmoveNumber = Integer.parseInt(info.getOpcode("fmvn"));
+		return info;
+	}
+
+	/**
+	 * Reads every record of an EPD file (blank lines and lines starting with # are skipped)
+	 * @param fileName The EPD file
+	 * @return The records, in file order
+	 * @throws IOException
+	 */
+	public static ArrayList<PositionInfo> readEPD(String fileName) throws IOException
+	{
+		ArrayList<PositionInfo> records = new ArrayList<>();
+		BufferedReader br = new BufferedReader(new FileReader(fileName));
+		try {
+			String nextLine;
+			while ((nextLine = br.readLine()) != null)
+			{
+				nextLine = nextLine.trim();
+				if (nextLine.isEmpty() || nextLine.startsWith("#")) continue;
+				records.add(parseEPD(nextLine));
+			}
+		}
+		finally {
+			br.close();
+		}
+		return records;
+	}
+}
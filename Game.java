@@ -26,12 +26,45 @@ public class Game
 	public static ArrayList<Move> moveLog = new ArrayList<>();
 	public static String gameTitle = "Unnamed";
 	
-	public static Color NEAR_COLOR = Color.WHITE;
+	private static Color NEAR_COLOR = Color.WHITE; //Color on the near side of the board
+	private static boolean nearColorFixed = false; //Fixed once the first engine context is created
 	public static Color START_COLOR = Color.WHITE;
 	public static final boolean LOOP_GAME = false;
 
 	public static SmartPlayerNegamax whiteAI, blackAI;
 
+	/**
+	 * Gets the board orientation (the color on the near side), which the board geometry, keys, piece
+	 * square tables and FEN squares are all computed in
+	 * @return The near color
+	 */
+	public static Color getNearColor()
+	{
+		return NEAR_COLOR;
+	}
+
+	/**
+	 * Sets the board orientation, before any engine context is created
+	 * @param color The near color
+	 * @throws IllegalStateException If an engine context already plays in the other orientation
+	 */
+	public static synchronized void setNearColor(Color color)
+	{
+		if (nearColorFixed && !color.equals(NEAR_COLOR)) {
+			throw new IllegalStateException("The board orientation is fixed once an engine context exists");
+		}
+		NEAR_COLOR = color;
+	}
+
+	/**
+	 * Fixes the board orientation for the rest of the program (called by every engine context, whose
+	 * table keys and evaluations are only valid in the orientation they were computed in)
+	 */
+	static synchronized void fixNearColor()
+	{
+		nearColorFixed = true;
+	}
+
 	private static boolean nextTurn(Board board, BoardDisplay display, Player player)
 	{
 		display.setTitle(player.getName());
@@ -213,14 +246,49 @@ public class Game
 		 * 
 		 */
 
+		//Bench mode: fixed-depth search of the bench positions (java Game bench [depth])
+		if (args.length > 0 && args[0].equals("bench"))
+		{
+			setNearColor(Color.WHITE);
+			Bench.run(args.length > 1 ? Integer.parseInt(args[1]) : Bench.DEFAULT_DEPTH);
+			return;
+		}
+
+		//UCI mode: headless engine driven through standard input/output (java Game uci)
+		if (args.length > 0 && args[0].equals("uci"))
+		{
+			setNearColor(Color.WHITE);
+			new UCI().run();
+			return;
+		}
+
+		//Server mode: many games over local connections (java Game server [port] [searches at once] [engine] [hash MB])
+		if (args.length > 0 && args[0].equals("server"))
+		{
+			EngineServer.main(Arrays.copyOfRange(args, 1, args.length));
+			return;
+		}
+
 		//Game Configurations
 		boolean botWhite = false;
-		NEAR_COLOR = Color.BLACK;
+		setNearColor(Color.BLACK);
 		
 		gameTitle = "Classical";
 
-		//Setup hashing scheme
-		Compression.generateZobristKeys();
+		//Warm the state table with the previous session's searches
+		long snapshotStart = System.currentTimeMillis();
+		int restored = EngineContext.getDefault().loadTable(TableSnapshot.SNAPSHOT_FILE);
+		if (restored > 0) System.out.println("Restored " + restored + " states in " + (System.currentTimeMillis() - snapshotStart) + "ms");
+
+		//Map the opening book (compiled from the opening lines on the first run)
+		OpeningBook.load(OpeningBook.BOOK_FILE);
+		LeafCache.load(LeafCache.CACHE_FILE); //Optional, built offline with java LeafCache
+
+		//Open the store of deep results from earlier games
+		PositionStore.open(PositionStore.STORE_DIRECTORY);
+
+		//Append searched states to the data file in the background
+		Compression.startWriter();
 
 		//Load shut down hook
 		Runtime.getRuntime().addShutdownHook(new CompressionShutdownHook());
@@ -252,15 +320,14 @@ public class Game
 			
 			BoardDisplay display = new BoardDisplay(board);
 
-			//Load opening tree
-			Opening.makeOpeningTree(board);
 
 			moveLog.clear();
 
 			/**
-			 * Low Depth Player for gauging SmartPlayer skill
+			 * Weak Player for gauging SmartPlayer skill (node-budgeted skill level, see SkillLevel)
 			 */
 			SmartPlayerNegamax bad = new SmartPlayerNegamax(board, "Jessie Pinkman", Color.WHITE, 3, false, 3500);
+			bad.setSkillLevel(SkillLevel.of(3));
 
 			/**
 			 * Smart Player constructor
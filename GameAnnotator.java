@@ -0,0 +1,240 @@
+import java.awt.Color;
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * Re-analyzes the games of the move log on a pool of worker threads: every position of a game is
+ * searched with the same budget, and moves that lose a lot of evaluation compared to the position
+ * before them are flagged as mistakes or blunders
+ *
+ * Games are streamed from the log through a bounded queue (see WorkerPool, one game per task, so consecutive
+ * positions of a game share the state table while it's analyzed), and every finished game is
+ * written to the report as its own block. Every worker has its own EngineContext, cleared before
+ * each game
+ *
+ * Usage: java GameAnnotator [move log] [report] [engine settings (see EngineConfig)] [threads]
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class GameAnnotator
+{
+	public static final int MISTAKE_LOSS = 100; //Centipawns lost for a mistake (?)
+	public static final int BLUNDER_LOSS = 300; //Centipawns lost for a blunder (??)
+	private static final int SCORE_CAP = 2000; //Scores (and mate scores) are capped so a missed mate isn't a loss of thousands
+	private static final int MATED_SCORE = -(Integer.MAX_VALUE - 1); //Score of a checkmated position (shown as mate in 1)
+	private static final int QUEUE_PER_WORKER = 2;
+
+	private final EngineConfig config;
+	private final BufferedWriter out;
+
+	//Totals over all games
+	private int gamesAnnotated = 0;
+	private int gamesSkipped = 0;
+	private int positions = 0;
+	private int mistakes = 0;
+	private int blunders = 0;
+
+	public GameAnnotator(EngineConfig config, BufferedWriter out)
+	{
+		this.config = config;
+		this.out = out;
+	}
+
+	/**
+	 * Caps a score, turning mate scores into the cap
+	 * @param score The score
+	 * @return The capped score
+	 */
+	private static int capScore(int score)
+	{
+		if (SmartPlayerNegamax.getMateDistance(score) != 0) return score > 0 ? SCORE_CAP : -SCORE_CAP;
+		return Math.max(-SCORE_CAP, Math.min(SCORE_CAP, score));
+	}
+
+	/**
+	 * Formats a score from White's perspective
+	 * @param score The score
+	 * @return The score in pawns, or the moves to mate
+	 */
+	private static String formatScore(int score)
+	{
+		int mate = SmartPlayerNegamax.getMateDistance(score);
+		if (mate != 0) return "#" + mate;
+		return String.format("%+.2f", score / 100.0);
+	}
+
+	/**
+	 * Replays a game and searches every position of it
+	 * @param game The game
+	 * @param context The engine context of the worker
+	 * @return The annotated block of the report, or null if the game can't be replayed
+	 * @throws IOException
+	 */
+	private String annotate(LoggedGame game, EngineContext context) throws IOException
+	{
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		SmartPlayerNegamax whitePlayer = config.createPlayer(board, Color.WHITE, context);
+		SmartPlayerNegamax blackPlayer = config.createPlayer(board, Color.BLACK, context);
+
+		//Search every position (the one after the last move included), scores from the perspective of the color to move
+		int plies = game.moves.size();
+		int[] scores = new int[plies + 1];
+		Move[] bestMoves = new Move[plies + 1];
+		String[] fens = new String[plies + 1];
+		Move[] played = new Move[plies];
+		Color color = Color.WHITE;
+		int ply = 0;
+		for (;ply<=plies;ply++)
+		{
+			fens[ply] = FEN.toFEN(board, color, 0, ply / 2 + 1);
+			if (board.allMoves(color).isEmpty()) {
+				scores[ply] = board.getKing(color).inCheck() ? MATED_SCORE : 0;
+			}
+			else {
+				SmartPlayerNegamax player = color.equals(Color.WHITE) ? whitePlayer : blackPlayer;
+				bestMoves[ply] = config.search(player);
+				scores[ply] = player.getLastScore();
+			}
+			if (ply == plies) break;
+
+			played[ply] = MoveLogParser.findMove(board, color, game, ply);
+			if (played[ply] == null) break; //Custom start position or corrupt log
+			board.executeMove(played[ply]);
+			color = Board.oppositeColor(color);
+		}
+		if (ply == 0 && plies > 0) return null;
+		int replayed = Math.min(ply, plies);
+
+		//Loss of every move: score before it minus the score after it (both from the mover's perspective)
+		StringBuilder moves = new StringBuilder();
+		StringBuilder flagged = new StringBuilder();
+		int gameMistakes = 0, gameBlunders = 0;
+		long totalLoss = 0;
+		for (int i=0;i<replayed;i++)
+		{
+			int colorInt = i % 2 == 0 ? 1 : -1;
+			int loss = played[i].equals(bestMoves[i]) ? 0 : Math.max(0, capScore(scores[i]) + capScore(scores[i+1]));
+			totalLoss += loss;
+			String mark = loss >= BLUNDER_LOSS ? "??" : loss >= MISTAKE_LOSS ? "?" : "";
+			if (mark.equals("??")) gameBlunders++;
+			else if (mark.equals("?")) gameMistakes++;
+
+			if (i % 2 == 0) moves.append(i / 2 + 1).append(". ");
+			moves.append(game.moves.get(i)).append(mark).append(" {").append(formatScore(-scores[i+1] * colorInt)).append("} ");
+			if (i % 2 == 1 || i == replayed - 1) moves.append('\n');
+
+			if (mark.length() > 0) {
+				flagged.append("   ").append(i / 2 + 1).append(colorInt == 1 ? ". " : "... ").append(game.moves.get(i)).append(mark)
+						.append(" | Loss: ").append(loss).append(" | Eval: ").append(formatScore(scores[i] * colorInt))
+						.append(" -> ").append(formatScore(-scores[i+1] * colorInt))
+						.append(" | Best: ").append(bestMoves[i] == null ? "-" : bestMoves[i].toStandardNotation())
+						.append(" | FEN: ").append(fens[i]).append('\n');
+			}
+		}
+
+		synchronized (this) {
+			gamesAnnotated++;
+			positions += replayed + 1;
+			mistakes += gameMistakes;
+			blunders += gameBlunders;
+		}
+
+		StringBuilder block = new StringBuilder();
+		block.append("===== ").append(game).append(replayed < plies ? " (replayed " + replayed + ")" : "").append(" =====\n");
+		block.append("Mistakes: ").append(gameMistakes).append(" | Blunders: ").append(gameBlunders)
+				.append(" | Average loss: ").append(replayed == 0 ? 0 : totalLoss / replayed).append(" cp\n");
+		if (!game.ambiguousCastles.isEmpty()) {
+			block.append("Warning: castles that may be mislabelled (replayed as logged) at");
+			for (int castlePly: game.ambiguousCastles) block.append(' ').append(castlePly / 2 + 1).append(castlePly % 2 == 0 ? "." : "...");
+			block.append('\n');
+		}
+		block.append(flagged);
+		block.append(moves).append('\n');
+		return block.toString();
+	}
+
+	/**
+	 * Writes the block of a game and flushes it
+	 * @param block The annotated game
+	 * @throws IOException
+	 */
+	private synchronized void writeResult(String block) throws IOException
+	{
+		out.write(block);
+		out.flush();
+		if (gamesAnnotated % 10 == 0) System.out.println("Annotated " + gamesAnnotated + " games (" + positions + " positions)");
+	}
+
+	/**
+	 * Creates the worker of one thread, with an engine context of its own
+	 * @return The worker
+	 */
+	private TaskWorker<LoggedGame> createWorker()
+	{
+		EngineContext context = new EngineContext(config, EngineContext.DEFAULT_CAPACITY, false);
+		return game -> {
+			context.clearTable();
+			String block = annotate(game, context);
+			if (block == null) {
+				synchronized (this) {
+					gamesSkipped++;
+				}
+			}
+			else writeResult(block);
+		};
+	}
+
+	/**
+	 * Streams the games of a move log to the workers and waits for them to finish
+	 * @param logFile The move log
+	 * @param threads The number of worker threads
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public void run(String logFile, int threads) throws IOException, InterruptedException
+	{
+		WorkerPool<LoggedGame> pool = new WorkerPool<>("Annotator", threads, QUEUE_PER_WORKER, this::createWorker,
+				(game, e) -> System.out.println("Game at line " + game.lineNumber + " failed: " + e));
+
+		MoveLogParser parser = new MoveLogParser(logFile);
+		LoggedGame game;
+		while ((game = parser.nextGame()) != null)
+		{
+			if (game.moves.isEmpty()) continue;
+			pool.submit(game); //Blocks while the workers are busy
+		}
+		parser.close();
+
+		pool.finish();
+	}
+
+	//Summarizes the run
+	public synchronized String toString()
+	{
+		return "Games: " + gamesAnnotated + " | Skipped (not replayable): " + gamesSkipped + " | Positions: " + positions
+				+ " | Mistakes: " + mistakes + " | Blunders: " + blunders;
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		String logFile = args.length > 0 ? args[0] : CompressionWriter.MOVE_LOG_FILE;
+		String reportFile = args.length > 1 ? args[1] : "annotated.txt";
+		EngineConfig config = EngineConfig.parse(args.length > 2 ? args[2] : "nodes=20000");
+		int threads = args.length > 3 ? Integer.parseInt(args[3]) : Runtime.getRuntime().availableProcessors();
+
+		Game.setNearColor(Color.WHITE);
+
+		System.out.println("Game Annotation | Log: " + logFile + " | Report: " + reportFile + " | Threads: " + threads);
+		System.out.println("Engine: " + config);
+		long start = System.currentTimeMillis();
+		BufferedWriter out = new BufferedWriter(new FileWriter(reportFile));
+		GameAnnotator annotator = new GameAnnotator(config, out);
+		annotator.run(logFile, threads);
+		out.write("===== Summary =====\n" + annotator + "\n");
+		out.close();
+		System.out.println("Done | " + annotator + " | Time: " + (System.currentTimeMillis() - start) / 1000.0 + "s");
+	}
+}
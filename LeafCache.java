@@ -0,0 +1,222 @@
+import java.awt.Color;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A precomputed cache of deep searches of the opening book's leaves (the positions reached by a
+ * book move that have no book move themselves), so the first move out of the book doesn't need a
+ * full search
+ *
+ * The cache is built offline (java LeafCache [engine settings (see EngineConfig)] [threads] [cache]):
+ * the leaves are found by walking the book, then searched in parallel. At runtime the file is
+ * memory-mapped and binary-searched like the opening book
+ *
+ * File layout (big-endian):
+ *    Header - magic (int), version (int), entry count (int), Zobrist key of the starting position (long)
+ *    Entries - key (long), move (short), depth (short), score (int), sorted by key
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public final class LeafCache
+{
+	public static final String CACHE_FILE = "leaves.bin";
+	private static final int MAGIC = 0x434C4331; //"CLC1"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 20;
+	private static final int ENTRY_BYTES = 16;
+
+	private static MappedByteBuffer cache;
+	private static int entryCount = 0;
+
+	/**
+	 * Walks the opening book from the starting position and collects its leaves
+	 * @param board A board with the starting position
+	 * @param color The color to move
+	 * @param visited The keys of the positions already walked (the book has transpositions)
+	 * @param leaves Filled with the FEN of every leaf
+	 */
+	private static void collectLeaves(Board board, Color color, HashSet<Long> visited, ArrayList<String> leaves)
+	{
+		if (!visited.add(Compression.compressState(board, color.equals(Color.WHITE) ? 1 : -1))) return;
+		ArrayList<Move> bookMoves = OpeningBook.getMoves(board, color, null);
+		if (bookMoves.isEmpty()) {
+			if (!board.allMoves(color).isEmpty()) leaves.add(FEN.toFEN(board, color));
+			return;
+		}
+		for (Move m: bookMoves)
+		{
+			board.executeMove(m);
+			collectLeaves(board, Board.oppositeColor(color), visited, leaves);
+			board.undoMove(m);
+		}
+	}
+
+	/**
+	 * Searches every leaf of the opening book in parallel and writes the results into a cache file
+	 * @param config The search budget of every leaf
+	 * @param threads The number of threads
+	 * @param cacheFile The cache file to write
+	 * @return The number of entries
+	 * @throws IOException
+	 * @throws InterruptedException
+	 */
+	public static int build(EngineConfig config, int threads, String cacheFile) throws IOException, InterruptedException
+	{
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		long startKey = Compression.compressState(board, 1);
+		ArrayList<String> leaves = new ArrayList<>();
+		collectLeaves(board, Color.WHITE, new HashSet<>(), leaves);
+		System.out.println("Book leaves: " + leaves.size() + " | Engine: " + config + " | Threads: " + threads);
+
+		//Every leaf on its own board, player and state table, the results are {key, move, depth, score}
+		ArrayList<long[]> entries = new ArrayList<>();
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		long start = System.currentTimeMillis();
+		for (String fen: leaves)
+		{
+			pool.execute(() -> {
+				try {
+					Board leaf = new Board();
+					PositionInfo info = FEN.load(leaf, fen);
+					SmartPlayerNegamax player = config.createPlayer(leaf, info.colorToMove, new EngineContext(config, EngineContext.DEFAULT_CAPACITY, false));
+					final int[] reached = {0};
+					Move best = player.searchWithLimits(config.depth, config.moveTime, config.nodes, (searcher, depth, nodes, elapsed) -> reached[0] = depth);
+					if (best == null) return;
+					long key = Compression.compressState(leaf, info.getColorInt());
+					synchronized (entries) {
+						entries.add(new long[] {key, OpeningBook.encodeMove(best), reached[0], player.getLastScore()});
+						if (entries.size() % 50 == 0) {
+							System.out.println("Searched " + entries.size() + "/" + leaves.size() + " leaves ("
+									+ (System.currentTimeMillis() - start) / 1000 + "s)");
+						}
+					}
+				}
+				catch (Exception e) {
+					System.out.println("Leaf failed: " + fen + " | " + e);
+				}
+			});
+		}
+		pool.shutdown();
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+
+		long[][] sorted = entries.toArray(new long[0][]);
+		Arrays.sort(sorted, (a, b) -> Long.compare(a[0], b[0]));
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(cacheFile)));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(sorted.length);
+		out.writeLong(startKey);
+		for (long[] entry: sorted)
+		{
+			out.writeLong(entry[0]);
+			out.writeShort((int) entry[1]);
+			out.writeShort((int) entry[2]);
+			out.writeInt((int) entry[3]);
+		}
+		out.close();
+		return sorted.length;
+	}
+
+	/**
+	 * Maps a cache file into memory
+	 * @param cacheFile The cache file
+	 * @return True if the cache is usable (it exists, its keys match the current Zobrist keys and its
+	 *         size matches its entry count)
+	 * @throws IOException
+	 */
+	public static boolean load(String cacheFile) throws IOException
+	{
+		cache = null;
+		entryCount = 0;
+		if (!new File(cacheFile).exists()) return false;
+
+		RandomAccessFile file = new RandomAccessFile(cacheFile, "r");
+		FileChannel channel = file.getChannel();
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		channel.close();
+		file.close();
+
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(12) != Compression.compressState(board, 1)) {
+			System.out.println("Leaf cache " + cacheFile + " doesn't match this engine, rebuild it");
+			return false;
+		}
+		int count = buffer.getInt(8);
+		if (count < 0 || buffer.capacity() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+			System.out.println("Leaf cache " + cacheFile + " is truncated or corrupt, rebuild it");
+			return false;
+		}
+		entryCount = count;
+		cache = buffer;
+		return true;
+	}
+
+	public static int size()
+	{
+		return entryCount;
+	}
+
+	/**
+	 * Looks up the cached search of a position
+	 * @param board The board
+	 * @param color The color to move
+	 * @return The search as an exact state table entry (score from the perspective of the color to
+	 *         move), or null if the position isn't cached
+	 */
+	public static CompressionInfo probe(Board board, Color color)
+	{
+		if (cache == null) return null;
+		long key = Compression.compressState(board, color.equals(Color.WHITE) ? 1 : -1);
+
+		//Binary search for the key
+		int lo = 0, hi = entryCount - 1;
+		while (lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			long midKey = cache.getLong(HEADER_BYTES + mid * ENTRY_BYTES);
+			if (midKey < key) lo = mid + 1;
+			else if (midKey > key) hi = mid - 1;
+			else {
+				int code = cache.getShort(HEADER_BYTES + mid * ENTRY_BYTES + 8) & 0xFFFF;
+				for (Move m: board.allMoves(color))
+				{
+					if (OpeningBook.encodeMove(m) == code) {
+						return new CompressionInfo(1, cache.getShort(HEADER_BYTES + mid * ENTRY_BYTES + 10),
+								cache.getInt(HEADER_BYTES + mid * ENTRY_BYTES + 12), m);
+					}
+				}
+				return null; //Key collision
+			}
+		}
+		return null;
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		EngineConfig config = EngineConfig.parse(args.length > 0 ? args[0] : "depth=8");
+		int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+		String cacheFile = args.length > 2 ? args[2] : CACHE_FILE;
+
+		Game.setNearColor(Color.WHITE);
+		if (!OpeningBook.load(OpeningBook.BOOK_FILE)) return;
+
+		long start = System.currentTimeMillis();
+		int entries = build(config, threads, cacheFile);
+		System.out.println("Built " + cacheFile + " | Entries: " + entries + " | Time: " + (System.currentTimeMillis() - start) / 1000.0 + "s");
+	}
+}
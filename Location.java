@@ -263,12 +263,12 @@ public class Location implements Comparable
     {
     	String[] rowsW = {"8","7","6","5","4","3","2","1"};
 		String[] rowsB = {"1","2","3","4","5","6","7","8"};
-		String[] rows = Game.NEAR_COLOR.equals(Color.WHITE) ? rowsW : rowsB;
+		String[] rows = Game.getNearColor().equals(Color.WHITE) ? rowsW : rowsB;
 		
 		
 		String[] colsW = {"a","b","c","d","e","f","g","h"};
 		String[] colsB = {"h","g","f","e","d","c","b","a"};
-		String[] cols = Game.NEAR_COLOR.equals(Color.WHITE) ? colsW : colsB;
+		String[] cols = Game.getNearColor().equals(Color.WHITE) ? colsW : colsB;
 		
 		return cols[col] + rows[row];
     }
@@ -0,0 +1,31 @@
+import java.util.ArrayList;
+
+/**
+ * Stores a game read back from the move log: its title, timestamp and moves in the log's notation
+ * (e.g. "(e2)e4", "(g1)Nf3", "(d5)xe4", "(g7)g8=Q", "O-O")
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class LoggedGame
+{
+	public String title;
+	public String timestamp;
+	public ArrayList<String> moves;
+	public int lineNumber; //Line of the move log where the game starts
+	public ArrayList<Integer> ambiguousCastles; //Plies of castles replayed by their logged label alone (see MoveLogParser.findMove)
+
+	public LoggedGame(String title, String timestamp, int lineNumber)
+	{
+		this.title = title;
+		this.timestamp = timestamp;
+		this.lineNumber = lineNumber;
+		this.moves = new ArrayList<>();
+		this.ambiguousCastles = new ArrayList<>();
+	}
+
+	//Returns a short description of the game
+	public String toString()
+	{
+		return title + " | " + timestamp + " | Line " + lineNumber + " | " + moves.size() + " plies";
+	}
+}
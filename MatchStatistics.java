@@ -0,0 +1,173 @@
+/**
+ * Keeps the results of a match between two engines (from the first engine's point of view) and
+ * derives the Elo difference with its error bars, the likelihood of superiority and a sequential
+ * probability ratio test (SPRT) between two Elo hypotheses
+ *
+ * Results may be added from several threads at once
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class MatchStatistics
+{
+	private int wins = 0;
+	private int draws = 0;
+	private int losses = 0;
+
+	//SPRT hypotheses (Elo of H0 and H1) with their error rates
+	private final double elo0;
+	private final double elo1;
+	private final double lowerBound;
+	private final double upperBound;
+
+	/**
+	 * @param elo0 The Elo difference of the null hypothesis
+	 * @param elo1 The Elo difference of the alternative hypothesis
+	 * @param alpha The false positive rate (accepting H1 when H0 is true)
+	 * @param beta The false negative rate (accepting H0 when H1 is true)
+	 */
+	public MatchStatistics(double elo0, double elo1, double alpha, double beta)
+	{
+		this.elo0 = elo0;
+		this.elo1 = elo1;
+		this.lowerBound = Math.log(beta / (1 - alpha));
+		this.upperBound = Math.log((1 - beta) / alpha);
+	}
+
+	/**
+	 * Adds the result of a game
+	 * @param score The score of the first engine (1 - win, 0.5 - draw, 0 - loss)
+	 */
+	public synchronized void addResult(double score)
+	{
+		if (score > 0.5) wins++;
+		else if (score < 0.5) losses++;
+		else draws++;
+	}
+
+	public synchronized int getGames()
+	{
+		return wins + draws + losses;
+	}
+
+	/**
+	 * Gets the average score of the first engine
+	 * @return The score between 0 and 1
+	 */
+	public synchronized double getScore()
+	{
+		int games = getGames();
+		return games == 0 ? 0.5 : (wins + draws / 2.0) / games;
+	}
+
+	/**
+	 * Gets the variance of a single game's score
+	 * @return The variance
+	 */
+	private synchronized double getVariance()
+	{
+		int games = getGames();
+		if (games == 0) return 0;
+		double s = getScore();
+		return (wins * (1 - s) * (1 - s) + draws * (0.5 - s) * (0.5 - s) + losses * s * s) / games;
+	}
+
+	/**
+	 * Converts an expected score into an Elo difference (logistic model)
+	 * @param score The expected score
+	 * @return The Elo difference
+	 */
+	public static double scoreToElo(double score)
+	{
+		score = Math.max(1e-6, Math.min(1 - 1e-6, score));
+		return -400 * Math.log10(1 / score - 1);
+	}
+
+	/**
+	 * Converts an Elo difference into an expected score (logistic model)
+	 * @param elo The Elo difference
+	 * @return The expected score
+	 */
+	public static double eloToScore(double elo)
+	{
+		return 1 / (1 + Math.pow(10, -elo / 400));
+	}
+
+	/**
+	 * Gets the Elo difference of the first engine
+	 * @return The Elo difference
+	 */
+	public synchronized double getElo()
+	{
+		return scoreToElo(getScore());
+	}
+
+	/**
+	 * Gets the half-width of the 95% confidence interval of the Elo difference
+	 * @return The error margin in Elo
+	 */
+	public synchronized double getEloError()
+	{
+		int games = getGames();
+		if (games == 0) return 0;
+		double margin = 1.959964 * Math.sqrt(getVariance() / games);
+		return (scoreToElo(getScore() + margin) - scoreToElo(getScore() - margin)) / 2;
+	}
+
+	/**
+	 * Gets the likelihood of superiority (the probability that the first engine is stronger)
+	 * @return The probability between 0 and 1
+	 */
+	public synchronized double getLOS()
+	{
+		if (wins + losses == 0) return 0.5;
+		return 0.5 * (1 + erf((wins - losses) / Math.sqrt(2.0 * (wins + losses))));
+	}
+
+	/**
+	 * Gets the log-likelihood ratio of H1 against H0 (normal approximation of the game scores)
+	 * @return The log-likelihood ratio
+	 */
+	public synchronized double getLLR()
+	{
+		double variance = getVariance();
+		if (variance == 0) return 0;
+		double s0 = eloToScore(elo0);
+		double s1 = eloToScore(elo1);
+		return getGames() * (s1 - s0) * (2 * getScore() - s0 - s1) / (2 * variance);
+	}
+
+	/**
+	 * Checks the SPRT
+	 * @return 1 if H1 is accepted, -1 if H0 is accepted, 0 if undecided
+	 */
+	public synchronized int getSPRTResult()
+	{
+		double llr = getLLR();
+		if (llr >= upperBound) return 1;
+		if (llr <= lowerBound) return -1;
+		return 0;
+	}
+
+	/**
+	 * The error function (Abramowitz and Stegun 7.1.26, accurate to 1.5e-7)
+	 * @param x The input
+	 * @return erf(x)
+	 */
+	private static double erf(double x)
+	{
+		double t = 1 / (1 + 0.3275911 * Math.abs(x));
+		double y = 1 - t * (0.254829592 + t * (-0.284496736 + t * (1.421413741 + t * (-1.453152027 + t * 1.061405429))))
+				* Math.exp(-x * x);
+		return x >= 0 ? y : -y;
+	}
+
+	//Summarizes the match so far
+	public synchronized String toString()
+	{
+		int sprt = getSPRTResult();
+		return String.format("Games: %d | W: %d L: %d D: %d | Score: %.1f%% | Elo: %+.1f +/- %.1f | LOS: %.1f%% | LLR: %.2f (%.2f, %.2f) [%.0f, %.0f]%s",
+				getGames(), wins, losses, draws, getScore() * 100, getElo(), getEloError(), getLOS() * 100,
+				getLLR(), lowerBound, upperBound, elo0, elo1, sprt == 1 ? " H1 accepted" : sprt == -1 ? " H0 accepted" : "");
+	}
+}
@@ -32,6 +32,17 @@ public class Move
 			throw new IllegalArgumentException("Both source and dest are " + source);
 	}
 
+	// Constructs a move that isn't tied to a board (e.g. read back from a file), only meant to be
+	// compared with equals
+	public Move(Piece piece, Location source, Location destination, Piece victim)
+	{
+		this.piece = piece;
+		this.source = source;
+		this.destination = destination;
+		this.victim = victim;
+		this.movedBefore = false;
+	}
+
 	// Returns the piece being moved
 	public Piece getPiece()
 	{
@@ -86,6 +97,12 @@ public class Move
 		}
 	}
 	
+	// Returns the long algebraic (coordinate) notation of the move, e.g. e2e4
+	public String toLongAlgebraic()
+	{
+		return source.toStandardNotation() + destination.toStandardNotation();
+	}
+
 	// Returns true if this move is equivalent to the given one.
 	public boolean equals(Object x)
 	{
@@ -94,7 +111,15 @@ public class Move
 		}
 		Move other = (Move) x;
 		return piece.getClass().equals(other.getPiece().getClass()) && source.equals(other.getSource()) && destination.equals(
-				other.getDestination()) && (victim == null && other.getVictim() == null || victim != null && other.getVictim() != null && victim.getClass().equals(other.getVictim().getClass()));
+				other.getDestination()) && (victim == null && other.getVictim() == null || victim != null && other.getVictim() != null && victim.getClass().equals(other.getVictim().getClass()))
+				&& promotionClass(this) == promotionClass(other);
+	}
+
+	// Returns the class of the piece a move promotes to (null if it isn't a promotion)
+	private static Class<?> promotionClass(Move m)
+	{
+		if (!(m instanceof PromotionMove) || ((PromotionMove) m).getUpgradePiece() == null) return null;
+		return ((PromotionMove) m).getUpgradePiece().getClass();
 	}
 
 	// Returns a hash code for this move, such that equivalent moves have the same hash code.
@@ -0,0 +1,187 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+
+/**
+ * Reads the games written by CompressionWriter.recordMoveLog back out of the move log, one game at
+ * a time (so the whole log never has to be in memory), and replays them on a board
+ *
+ * A logged game looks like:
+ *    Classical
+ *    Timestamp: 2023-04-27 | 23:06:50.061676900
+ *    -----------------------
+ *
+ *    1.(d2)d4 (d7)d5
+ *    2.(e2)e3
+ *    ~End of Log~
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class MoveLogParser
+{
+	private static final String TIMESTAMP_PREFIX = "Timestamp: ";
+	private static final String END_OF_GAME = "~End of Log~";
+	private static final int CASTLE_LOOKAHEAD = 4; //Logged plies after an ambiguous castle replayed to tell the castles apart
+
+	private final BufferedReader br;
+	private int lineNumber = 0;
+	private String previousLine = null;
+
+	public MoveLogParser(String fileName) throws IOException
+	{
+		br = new BufferedReader(new FileReader(fileName));
+	}
+
+	/**
+	 * Reads the next game of the log
+	 * @return The game, or null at the end of the log
+	 * @throws IOException
+	 */
+	public LoggedGame nextGame() throws IOException
+	{
+		LoggedGame game = null;
+		String nextLine;
+		while ((nextLine = br.readLine()) != null)
+		{
+			lineNumber++;
+			String line = nextLine.trim();
+			if (line.startsWith(TIMESTAMP_PREFIX)) {
+				//The title is the line right above the timestamp
+				game = new LoggedGame(previousLine == null ? "Unnamed" : previousLine, line.substring(TIMESTAMP_PREFIX.length()), lineNumber - 1);
+			}
+			else if (game != null && line.length() > 0 && Character.isDigit(line.charAt(0))) {
+				//Move line: "12.(d1)Qd2 O-O", the black move may be missing
+				String moves = line.substring(line.indexOf('.') + 1);
+				for (String token: moves.trim().split("\\s+"))
+				{
+					int end = token.indexOf(END_OF_GAME);
+					if (end >= 0) token = token.substring(0, end);
+					if (token.length() > 0) game.moves.add(token);
+				}
+				if (line.contains(END_OF_GAME)) return game;
+			}
+			else if (game != null && line.startsWith(END_OF_GAME)) {
+				return game;
+			}
+			if (line.length() > 0) previousLine = line;
+		}
+		return game; //Last game without an end marker (interrupted write)
+	}
+
+	/**
+	 * Finds the legal move written in the log's notation, taking any legal castle for a logged castle
+	 * @param board The board
+	 * @param color The color to move
+	 * @param notation The move in the log's notation
+	 * @return The move, or null if no legal move matches
+	 */
+	private static Move matchMove(Board board, Color color, String notation)
+	{
+		Move castle = null;
+		for (Move m: board.allMoves(color))
+		{
+			if (m.toStandardNotation().equals(notation)) return m;
+			if (m instanceof CastleMove) castle = m;
+		}
+		return notation.startsWith("O-O") ? castle : null;
+	}
+
+	/**
+	 * Checks if the logged moves after a castle can be played once it's made (the board is left as it was)
+	 * @param board The board
+	 * @param color The color castling
+	 * @param castle The castle
+	 * @param game The game
+	 * @param ply The ply of the castle
+	 * @param lookahead The number of logged moves after the castle to play
+	 * @return True if all of them can be played
+	 */
+	private static boolean replaysAfter(Board board, Color color, Move castle, LoggedGame game, int ply, int lookahead)
+	{
+		Move[] line = new Move[lookahead + 1];
+		line[0] = castle;
+		board.executeMove(castle);
+		int made = 1;
+		for (;made<=lookahead;made++)
+		{
+			color = Board.oppositeColor(color);
+			line[made] = matchMove(board, color, game.moves.get(ply + made));
+			if (line[made] == null) break;
+			board.executeMove(line[made]);
+		}
+		for (int i=made-1;i>=0;i--) board.undoMove(line[i]);
+		return made > lookahead;
+	}
+
+	/**
+	 * Finds the legal move of a ply of a logged game. The log sometimes labels a castle as the other
+	 * side's (O-O-O for O-O), so when both castles are legal, each is tried and the one under which
+	 * the next logged moves replay is kept. A castle that stays ambiguous (both fit, or the game ends
+	 * there) keeps its logged label and is recorded in the game's ambiguous castles
+	 * @param board The board
+	 * @param color The color to move
+	 * @param game The game
+	 * @param ply The ply of the move
+	 * @return The move, or null if no legal move matches
+	 */
+	public static Move findMove(Board board, Color color, LoggedGame game, int ply)
+	{
+		String notation = game.moves.get(ply);
+		if (!notation.startsWith("O-O")) return matchMove(board, color, notation);
+
+		ArrayList<Move> castles = new ArrayList<>();
+		Move labelled = null;
+		for (Move m: board.allMoves(color))
+		{
+			if (!(m instanceof CastleMove)) continue;
+			castles.add(m);
+			if (m.toStandardNotation().equals(notation)) labelled = m;
+		}
+		if (castles.size() <= 1) return castles.isEmpty() ? null : castles.get(0);
+
+		//Both castles are legal: keep the one the next moves can be played after
+		Move fit = null;
+		int fits = 0;
+		int lookahead = Math.min(CASTLE_LOOKAHEAD, game.moves.size() - ply - 1);
+		for (Move castle: castles)
+		{
+			if (replaysAfter(board, color, castle, game, ply, lookahead)) {
+				fit = castle;
+				fits++;
+			}
+		}
+		if (lookahead > 0 && fits == 1) return fit;
+		game.ambiguousCastles.add(ply);
+		return labelled != null ? labelled : castles.get(0);
+	}
+
+	/**
+	 * Replays a game from the starting position, stopping at the first move that can't be played
+	 * (games that were set up from a custom position can't be replayed)
+	 * @param game The game
+	 * @param board A board with the starting position, left at the end of the replayed moves
+	 * @return The replayed moves
+	 */
+	public static ArrayList<Move> replay(LoggedGame game, Board board)
+	{
+		ArrayList<Move> played = new ArrayList<>();
+		Color color = Color.WHITE;
+		for (int ply=0;ply<game.moves.size();ply++)
+		{
+			Move m = findMove(board, color, game, ply);
+			if (m == null) break;
+			board.executeMove(m);
+			played.add(m);
+			color = Board.oppositeColor(color);
+		}
+		return played;
+	}
+
+	public void close() throws IOException
+	{
+		br.close();
+	}
+}
@@ -1,11 +1,7 @@
 import java.util.*;
 import java.awt.Color;
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
 public final class Opening {
-    private static OpeningNode openingTree;
-    private static final String OPENING_CSV_FILE = "reducedopenings.tsv";
+    public static final String OPENING_CSV_FILE = "reducedopenings.tsv";
 
     public static Move convertNotationToMove(Board board, int color, String notation)
     {
@@ -61,71 +57,4 @@ public final class Opening {
         }
         return null;
     }
-    private static void addLine(OpeningNode node, Board board, int color, Vector<String> moves, int index, String rawLine)
-    {
-        if (index >= moves.size()) return;
-
-        Move currentMove = convertNotationToMove(board, color, moves.get(index));
-        if (currentMove == null) {System.out.println("Could not do: " + moves.get(index) + " | " + rawLine + " | " + color); return;}
-        //System.out.println(index + " " + moves.get(index) + " " + currentMove + " " + color);
-        board.executeMove(currentMove);
-
-        CompressedBoard compressedState = new CompressedBoard(board, -color);
-        if (node.childrenContains(compressedState))
-        {
-            addLine(node.getChild(compressedState), board, -color, moves, index+1, rawLine);
-        }
-        else
-        {
-            OpeningNode child = new OpeningNode(currentMove);
-            node.addChild(child, compressedState);
-            addLine(child, board, -color, moves, index+1, rawLine);
-        }
-
-        board.undoMove(currentMove);
-    }
-    public static void makeOpeningTree(Board board) throws IOException
-    {
-
-        //Add initial dummy root --null--> starting board node
-        openingTree = new OpeningNode(null);
-        OpeningNode root = new OpeningNode(null);
-        openingTree.addChild(root, new CompressedBoard(board, 1));
-
-        //Read from the CSV file
-        //Read in the state table from data file
-		BufferedReader br = new BufferedReader(new FileReader(OPENING_CSV_FILE));
-		StringTokenizer s;
-		String nextLine;
-		while ((nextLine = br.readLine()) != null)
-		{
-            String moves = nextLine.split("\t")[2];
-            s = new StringTokenizer(moves);
-
-            Vector<String> moveList = new Vector<>();
-            while (s.hasMoreTokens())
-            {
-                String abbrev = s.nextToken();
-                if (abbrev.substring(abbrev.length()-1).equals(".")) continue;
-                moveList.add(abbrev);
-            }
-            if (nextLine.contains("Gambit")) continue; //Don't include any gambits (risky)
-            addLine(root, board, 1, moveList, 0, nextLine);
-		}
-		br.close();
-    }
-
-    //Clarification: Node is the node right before the enemy's last move, so first have to advance the trie, then pick a random move
-    public static OpeningNode getNextNode(Board board, Color color, OpeningNode node)
-    {
-        OpeningNode nxt = node.getChild(new CompressedBoard(board, color.equals(Color.WHITE) ? 1 : -1));
-        if (nxt == null) return null;
-        return nxt.getRandomChild();
-    }
-
-    public static OpeningNode requestTree(Color color)
-    {
-        if (openingTree == null) return null;
-        return color.equals(Color.WHITE) ? openingTree : openingTree.getRandomChild();
-    }
 }
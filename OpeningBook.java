@@ -0,0 +1,288 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.StringTokenizer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A precompiled opening book: a sorted binary file of (Zobrist key, move, weight) entries that is
+ * memory-mapped and binary-searched, so loading it costs nothing and a position is found by its key
+ * no matter which move order reached it
+ *
+ * The book is compiled offline from the opening lines file (java OpeningBook [lines] [book]). Squares
+ * are stored with White on the near side (like the Zobrist keys), so one book works for both board
+ * orientations
+ *
+ * File layout (big-endian):
+ *    Header - magic (int), version (int), entry count (int), Zobrist key of the starting position (long)
+ *    Entries - key (long), move (short), weight (short), sorted by key
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public final class OpeningBook
+{
+	public static final String BOOK_FILE = "book.bin";
+	private static final int MAGIC = 0x43424B31; //"CBK1"
+	private static final int VERSION = 1;
+	private static final int HEADER_BYTES = 20;
+	private static final int ENTRY_BYTES = 12;
+
+	private static MappedByteBuffer book;
+	private static int entryCount = 0;
+
+	/**
+	 * Gets the square index of a location with White on the near side (0-63)
+	 * @param loc The location
+	 * @return The square index
+	 */
+	private static int toSquare(Location loc)
+	{
+		int square = Bitboard.toBBIndex(loc.getRow(), loc.getCol());
+		return Game.getNearColor().equals(Color.BLACK) ? 63 - square : square;
+	}
+
+	/**
+	 * Encodes a move into 15 bits (source square, destination square, promotion piece enum)
+	 * @param m The move
+	 * @return The encoded move
+	 */
+	public static int encodeMove(Move m)
+	{
+		int promotion = m instanceof PromotionMove ? ((PromotionMove) m).getUpgradePiece().getEnum() : 0;
+		return toSquare(m.getSource()) | toSquare(m.getDestination()) << 6 | promotion << 12;
+	}
+
+	/**
+	 * Finds the legal move matching an encoded move (so promotions and castles come back as the moves
+	 * the search generates)
+	 * @param moves The legal moves of the board
+	 * @param code The encoded move (see encodeMove)
+	 * @return The move, or null if no legal move matches
+	 */
+	public static Move decodeMove(ArrayList<Move> moves, int code)
+	{
+		if (code == 0) return null;
+		for (int i=0;i<moves.size();i++)
+		{
+			if (encodeMove(moves.get(i)) == code) return moves.get(i);
+		}
+		return null;
+	}
+
+	/**
+	 * Compiles the opening lines file into a book file (lines with a gambit are left out, as they're risky)
+	 * @param linesFile The tab-separated opening lines, with the moves in standard algebraic notation in the third column
+	 * @param bookFile The book file to write
+	 * @return The number of entries
+	 * @throws IOException
+	 */
+	public static int compile(String linesFile, String bookFile) throws IOException
+	{
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		long startKey = Compression.compressState(board, 1);
+
+		//Every (position, move) edge of every line, the weight is the number of lines through it
+		ArrayList<long[]> edges = new ArrayList<>();
+		BufferedReader br = new BufferedReader(new FileReader(linesFile));
+		String nextLine;
+		while ((nextLine = br.readLine()) != null)
+		{
+			String[] columns = nextLine.split("\t");
+			if (columns.length < 3 || nextLine.contains("Gambit")) continue;
+
+			ArrayList<Move> played = new ArrayList<>();
+			int color = 1;
+			StringTokenizer s = new StringTokenizer(columns[2]);
+			while (s.hasMoreTokens())
+			{
+				String abbrev = s.nextToken();
+				if (abbrev.endsWith(".")) continue;
+				Move m = Opening.convertNotationToMove(board, color, abbrev);
+				if (m == null) {
+					System.out.println("Could not do: " + abbrev + " | " + nextLine + " | " + color);
+					break;
+				}
+				edges.add(new long[] {Compression.compressState(board, color), encodeMove(m)});
+				board.executeMove(m);
+				played.add(m);
+				color = -color;
+			}
+			for (int i=played.size()-1;i>=0;i--) board.undoMove(played.get(i));
+		}
+		br.close();
+
+		//Sort by key (then move) and merge the duplicate edges into weights
+		long[][] sorted = edges.toArray(new long[0][]);
+		Arrays.sort(sorted, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : Long.compare(a[1], b[1]));
+		ArrayList<long[]> entries = new ArrayList<>();
+		for (long[] edge: sorted)
+		{
+			long[] last = entries.isEmpty() ? null : entries.get(entries.size()-1);
+			if (last != null && last[0] == edge[0] && last[1] == edge[1]) last[2] = Math.min(last[2] + 1, 0xFFFF);
+			else entries.add(new long[] {edge[0], edge[1], 1});
+		}
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(bookFile)));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(entries.size());
+		out.writeLong(startKey);
+		for (long[] entry: entries)
+		{
+			out.writeLong(entry[0]);
+			out.writeShort((int) entry[1]);
+			out.writeShort((int) entry[2]);
+		}
+		out.close();
+		return entries.size();
+	}
+
+	/**
+	 * Maps a book file into memory, compiling it from the opening lines file first if it doesn't exist
+	 * @param bookFile The book file
+	 * @return True if the book is usable (its keys match the current Zobrist keys and its size matches its entry count)
+	 * @throws IOException
+	 */
+	public static boolean load(String bookFile) throws IOException
+	{
+		if (!new File(bookFile).exists()) {
+			System.out.println("Compiling opening book: " + compile(Opening.OPENING_CSV_FILE, bookFile) + " entries");
+		}
+
+		RandomAccessFile file = new RandomAccessFile(bookFile, "r");
+		FileChannel channel = file.getChannel();
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		channel.close(); //The mapping stays valid after the channel is closed
+		file.close();
+
+		//Check the header, a book compiled with other Zobrist keys would silently miss every position
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(12) != Compression.compressState(board, 1)) {
+			System.out.println("Opening book " + bookFile + " doesn't match this engine, recompile it");
+			book = null;
+			entryCount = 0;
+			return false;
+		}
+
+		//A truncated book would pass the header and fail in the middle of a game
+		int count = buffer.getInt(8);
+		if (count < 0 || buffer.capacity() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+			System.out.println("Opening book " + bookFile + " is truncated or corrupt, recompile it");
+			book = null;
+			entryCount = 0;
+			return false;
+		}
+		entryCount = count;
+		book = buffer;
+		return true;
+	}
+
+	public static boolean isLoaded()
+	{
+		return book != null;
+	}
+
+	public static int size()
+	{
+		return entryCount;
+	}
+
+	/**
+	 * Finds the first entry with a key (binary search)
+	 * @param key The Zobrist key
+	 * @return The index of the first entry with the key, or -1 if there is none
+	 */
+	private static int findFirst(long key)
+	{
+		int lo = 0, hi = entryCount;
+		while (lo < hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			if (book.getLong(HEADER_BYTES + mid * ENTRY_BYTES) < key) lo = mid + 1;
+			else hi = mid;
+		}
+		return lo < entryCount && book.getLong(HEADER_BYTES + lo * ENTRY_BYTES) == key ? lo : -1;
+	}
+
+	/**
+	 * Finds the legal book moves of a position
+	 * @param board The board
+	 * @param color The color to move
+	 * @param weights Filled with the weight of every move (may be null)
+	 * @return The legal book moves, empty if the position isn't in the book
+	 */
+	public static ArrayList<Move> getMoves(Board board, Color color, ArrayList<Integer> weights)
+	{
+		ArrayList<Move> candidates = new ArrayList<>();
+		if (book == null) return candidates;
+		int colorInt = color.equals(Color.WHITE) ? 1 : -1;
+		long key = Compression.compressState(board, colorInt);
+		int first = findFirst(key);
+		if (first < 0) return candidates;
+
+		//Match the entries with the legal moves (a key collision can't make an illegal move)
+		ArrayList<Move> legalMoves = board.allMoves(color);
+		for (int i=first;i<entryCount && book.getLong(HEADER_BYTES + i * ENTRY_BYTES) == key;i++)
+		{
+			int code = book.getShort(HEADER_BYTES + i * ENTRY_BYTES + 8) & 0xFFFF;
+			for (Move m: legalMoves)
+			{
+				if (encodeMove(m) == code) {
+					candidates.add(m);
+					if (weights != null) weights.add(book.getShort(HEADER_BYTES + i * ENTRY_BYTES + 10) & 0xFFFF);
+					break;
+				}
+			}
+		}
+		return candidates;
+	}
+
+	/**
+	 * Picks a book move for a position, weighted by how many opening lines play it
+	 * @param board The board
+	 * @param color The color to move
+	 * @return A legal book move, or null if the position isn't in the book
+	 */
+	public static Move probe(Board board, Color color)
+	{
+		ArrayList<Integer> weights = new ArrayList<>();
+		ArrayList<Move> candidates = getMoves(board, color, weights);
+		if (candidates.isEmpty()) return null;
+
+		int totalWeight = 0;
+		for (int weight: weights) totalWeight += weight;
+		int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+		for (int i=0;i<candidates.size();i++)
+		{
+			pick -= weights.get(i);
+			if (pick < 0) return candidates.get(i);
+		}
+		return candidates.get(candidates.size()-1);
+	}
+
+	public static void main(String[] args) throws IOException
+	{
+		String linesFile = args.length > 0 ? args[0] : Opening.OPENING_CSV_FILE;
+		String bookFile = args.length > 1 ? args[1] : BOOK_FILE;
+
+		Game.setNearColor(Color.WHITE);
+
+		long start = System.currentTimeMillis();
+		int entries = compile(linesFile, bookFile);
+		System.out.println("Compiled " + linesFile + " into " + bookFile + " | Entries: " + entries
+				+ " | Bytes: " + (HEADER_BYTES + (long) entries * ENTRY_BYTES) + " | Time: " + (System.currentTimeMillis() - start) + "ms");
+	}
+}
@@ -26,7 +26,7 @@ public class Pawn extends Piece
 	public ArrayList<Location> destinations()
 	{
 		ArrayList<Location> locs = new ArrayList<>();
-		int dir = getColor().equals(Game.NEAR_COLOR) ? -1 : 1;
+		int dir = getColor().equals(Game.getNearColor()) ? -1 : 1;
 		
 		Location cur = getLocation();
 		Location up1 = new Location(cur.getRow() + dir, cur.getCol());
@@ -0,0 +1,85 @@
+/**
+ * Caches pawn structure scores by the pawn bitboards of both sides (pawn structure only
+ * changes on pawn moves and captures, so most positions in a search share a handful of entries)
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class PawnHashTable
+{
+	private static final int TABLE_BITS = 14;
+
+	//Entries are replaced on collision; an empty entry (no pawns) correctly holds a score of 0
+	private final long[] whitePawns = new long[1 << TABLE_BITS];
+	private final long[] blackPawns = new long[1 << TABLE_BITS];
+	private final int[] scores = new int[1 << TABLE_BITS];
+
+	public long hits = 0;
+	public long misses = 0;
+
+	/**
+	 * Gets the table slot of a pawn configuration
+	 * @param white The white pawn bitboard
+	 * @param black The black pawn bitboard
+	 * @return The slot index
+	 */
+	private static int getSlot(long white, long black)
+	{
+		long hash = (white * 0x9E3779B97F4A7C15L) ^ (black * 0xC2B2AE3D27D4EB4FL);
+		return (int) (hash >>> (64 - TABLE_BITS));
+	}
+
+	/**
+	 * Checks whether a pawn configuration is stored in the table
+	 * @param white The white pawn bitboard
+	 * @param black The black pawn bitboard
+	 * @return Whether the entry is present
+	 */
+	public boolean contains(long white, long black)
+	{
+		int slot = getSlot(white, black);
+		if (whitePawns[slot] == white && blackPawns[slot] == black) {
+			hits++;
+			return true;
+		}
+		misses++;
+		return false;
+	}
+
+	/**
+	 * Retrieves the score of a pawn configuration
+	 * @precondition contains(white, black) is true
+	 * @param white The white pawn bitboard
+	 * @param black The black pawn bitboard
+	 * @return The packed midgame/endgame score (White - Black)
+	 */
+	public int get(long white, long black)
+	{
+		return scores[getSlot(white, black)];
+	}
+
+	/**
+	 * Stores the score of a pawn configuration
+	 * @param white The white pawn bitboard
+	 * @param black The black pawn bitboard
+	 * @param score The packed midgame/endgame score (White - Black)
+	 */
+	public void put(long white, long black, int score)
+	{
+		int slot = getSlot(white, black);
+		whitePawns[slot] = white;
+		blackPawns[slot] = black;
+		scores[slot] = score;
+	}
+
+	/**
+	 * Empties the table and resets its statistics
+	 */
+	public void clear()
+	{
+		java.util.Arrays.fill(whitePawns, 0L);
+		java.util.Arrays.fill(blackPawns, 0L);
+		java.util.Arrays.fill(scores, 0);
+		hits = 0;
+		misses = 0;
+	}
+}
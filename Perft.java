@@ -0,0 +1,198 @@
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Performance test (perft) for the move generator: counts the leaf nodes of the legal move tree
+ * to a fixed depth, to verify move generation against known node counts and measure its speed
+ *
+ * Usage:
+ *    java Perft [depth] [threads] [hash]          - runs the reference positions
+ *    java Perft divide [position] [depth] [hash]  - node counts per root move of a reference position
+ *                                                  (by index) or of a FEN string
+ *
+ * En passant isn't implemented, so the known counts are only listed up to the depths without it
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class Perft
+{
+	//Reference positions {Name, FEN}
+	private static final String[][] POSITIONS = {
+		{"Start", FEN.START_FEN},
+		{"Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"},
+		{"Endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1"},
+		{"Promotions", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"},
+		{"Middlegame", "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8"},
+	};
+
+	//Known node counts of the reference positions by depth (index 0 is depth 0)
+	private static final long[][] EXPECTED = {
+		{1, 20, 400, 8902, 197281},
+		{1, 48},
+		{1, 14, 191},
+		{1, 6, 264},
+		{1, 44, 1486, 62379, 2103487},
+	};
+
+	//Hashed perft cache (replaced on collision); each key is stored XORed with its count so that
+	//an entry torn by two threads writing at once fails the key check instead of returning garbage
+	private static final int CACHE_BITS = 20;
+	private static long[] cacheKeys = null;
+	private static long[] cacheNodes = null;
+
+	/**
+	 * Empties the hashed perft cache (allocating it on first use)
+	 */
+	public static void clearCache()
+	{
+		if (cacheKeys == null) {
+			cacheKeys = new long[1 << CACHE_BITS];
+			cacheNodes = new long[1 << CACHE_BITS];
+		}
+		Arrays.fill(cacheKeys, 0L);
+		Arrays.fill(cacheNodes, 0L);
+	}
+
+	/**
+	 * Counts the leaf nodes of the legal move tree to a certain depth
+	 * @precondition clearCache has been called if useHash is true
+	 * @param board The board
+	 * @param color The color to move
+	 * @param depth The depth
+	 * @param useHash Whether to use the hashed perft cache
+	 * @return The number of leaf nodes
+	 */
+	public static long perft(Board board, Color color, int depth, boolean useHash)
+	{
+		if (depth == 0) return 1;
+
+		//Bulk counting (the moves at the last ply are counted without being made)
+		if (depth == 1) return board.allMoves(color).size();
+
+		long key = 0L;
+		int slot = 0;
+		if (useHash) {
+			key = Compression.compressState(board, color.equals(Color.WHITE) ? 1 : -1) ^ (depth * 0x9E3779B97F4A7C15L);
+			slot = (int) (key >>> (64 - CACHE_BITS));
+			long cached = cacheNodes[slot];
+			if ((cacheKeys[slot] ^ cached) == key) return cached;
+		}
+
+		long nodes = 0;
+		Color next = Board.oppositeColor(color);
+		for (Move m: board.allMoves(color))
+		{
+			board.executeMove(m);
+			nodes += perft(board, next, depth-1, useHash);
+			board.undoMove(m);
+		}
+
+		if (useHash) {
+			cacheNodes[slot] = nodes;
+			cacheKeys[slot] = key ^ nodes;
+		}
+		return nodes;
+	}
+
+	/**
+	 * Counts the leaf nodes under each root move, splitting the subtrees across a fork-join pool
+	 * @param board The board (not modified)
+	 * @param color The color to move
+	 * @param depth The depth
+	 * @param threads The number of worker threads
+	 * @param useHash Whether to use the hashed perft cache
+	 * @param moves Filled with the root moves
+	 * @return The number of leaf nodes under each root move (same order as moves)
+	 */
+	public static long[] divide(Board board, Color color, int depth, int threads, boolean useHash, ArrayList<Move> moves)
+	{
+		if (useHash) clearCache();
+		ArrayList<PerftTask> tasks = PerftTask.split(board, color, depth, useHash, moves);
+		long[] counts = new long[tasks.size()];
+
+		ForkJoinPool pool = new ForkJoinPool(threads);
+		try {
+			for (PerftTask task: tasks) pool.execute(task);
+			for (int i=0;i<tasks.size();i++) counts[i] = tasks.get(i).join();
+		}
+		finally {
+			pool.shutdown();
+		}
+		return counts;
+	}
+
+	/**
+	 * Counts the leaf nodes of the legal move tree in parallel
+	 * @param board The board (not modified)
+	 * @param color The color to move
+	 * @param depth The depth
+	 * @param threads The number of worker threads
+	 * @param useHash Whether to use the hashed perft cache
+	 * @return The number of leaf nodes
+	 */
+	public static long parallelPerft(Board board, Color color, int depth, int threads, boolean useHash)
+	{
+		if (depth <= 1) return perft(board, color, depth, false);
+		long nodes = 0;
+		for (long count: divide(board, color, depth, threads, useHash, new ArrayList<>())) nodes += count;
+		return nodes;
+	}
+
+	public static void main(String[] args)
+	{
+		Game.setNearColor(Color.WHITE);
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		if (args.length > 0 && args[0].equals("divide"))
+		{
+			//The position is either the index of a reference position or a FEN string
+			String position = args.length > 1 ? args[1] : "0";
+			String fen = position.matches("\\d+") ? POSITIONS[Integer.parseInt(position)][1] : position;
+			int depth = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+			boolean useHash = args.length > 3 && args[3].equals("hash");
+
+			Board board = new Board();
+			PositionInfo info = FEN.load(board, fen);
+			ArrayList<Move> moves = new ArrayList<>();
+			long[] counts = divide(board, info.colorToMove, depth, threads, useHash, moves);
+			long total = 0;
+			for (int i=0;i<counts.length;i++)
+			{
+				System.out.println(moves.get(i).toLongAlgebraic() + ": " + counts[i]);
+				total += counts[i];
+			}
+			System.out.println("\nMoves: " + counts.length + " | Nodes: " + total);
+			return;
+		}
+
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+		if (args.length > 1) threads = Integer.parseInt(args[1]);
+		boolean useHash = args.length > 2 && args[2].equals("hash");
+
+		System.out.println("Perft | Depth: " + depth + " | Threads: " + threads + " | Hash: " + (useHash ? "on" : "off"));
+		long totalNodes = 0; long totalTime = 0; boolean allMatch = true;
+		for (int i=0;i<POSITIONS.length;i++)
+		{
+			Board board = new Board();
+			PositionInfo info = FEN.load(board, POSITIONS[i][1]);
+			long start = System.nanoTime();
+			long nodes = parallelPerft(board, info.colorToMove, depth, threads, useHash);
+			long time = System.nanoTime() - start;
+			totalNodes += nodes; totalTime += time;
+
+			String check = "-";
+			if (depth < EXPECTED[i].length) {
+				boolean match = EXPECTED[i][depth] == nodes;
+				allMatch &= match;
+				check = (match ? "OK " : "MISMATCH ") + EXPECTED[i][depth];
+			}
+			System.out.println(String.format("%-12s Nodes: %12d | Expected: %-18s | Time: %8.3fs | NPS: %,d",
+					POSITIONS[i][0], nodes, check, time / 1e9, (long) (nodes / (time / 1e9))));
+		}
+		System.out.println(String.format("Total        Nodes: %12d | %s | Time: %8.3fs | NPS: %,d",
+				totalNodes, allMatch ? "All known counts match" : "Known counts DIFFER", totalTime / 1e9, (long) (totalNodes / (totalTime / 1e9))));
+	}
+}
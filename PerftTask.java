@@ -0,0 +1,74 @@
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A fork-join task that counts the perft nodes of a subtree, splitting into one subtask per move
+ * (each on its own copy of the board) until the remaining depth is small enough to run directly
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class PerftTask extends RecursiveTask<Long>
+{
+	private static final long serialVersionUID = 1L;
+
+	//Subtrees at or below this depth are counted on the current thread
+	private static final int SPLIT_DEPTH = 3;
+
+	private final Board board;
+	private final Color color;
+	private final int depth;
+	private final boolean useHash;
+
+	/**
+	 * @param board The board of the subtree (owned by this task)
+	 * @param color The color to move
+	 * @param depth The remaining depth
+	 * @param useHash Whether to use the hashed perft cache
+	 */
+	public PerftTask(Board board, Color color, int depth, boolean useHash)
+	{
+		this.board = board;
+		this.color = color;
+		this.depth = depth;
+		this.useHash = useHash;
+	}
+
+	/**
+	 * Creates the subtasks for every move of a board, each playing its move on a new copy of the board
+	 * @param board The board (not modified)
+	 * @param color The color to move
+	 * @param depth The depth of the board (subtasks get depth-1)
+	 * @param useHash Whether to use the hashed perft cache
+	 * @param moves Filled with the move played by each subtask (in the same order), if not null
+	 * @return The subtasks
+	 */
+	public static ArrayList<PerftTask> split(Board board, Color color, int depth, boolean useHash, ArrayList<Move> moves)
+	{
+		ArrayList<PerftTask> tasks = new ArrayList<>();
+		int moveCount = board.allMoves(color).size();
+		for (int i=0;i<moveCount;i++)
+		{
+			//Copies of the same board generate their moves in the same order
+			Board child = board.copy();
+			Move m = child.allMoves(color).get(i);
+			child.executeMove(m);
+			if (moves != null) moves.add(m);
+			tasks.add(new PerftTask(child, Board.oppositeColor(color), depth-1, useHash));
+		}
+		return tasks;
+	}
+
+	protected Long compute()
+	{
+		if (depth <= SPLIT_DEPTH) return Perft.perft(board, color, depth, useHash);
+
+		long nodes = 0;
+		for (PerftTask task: invokeAll(split(board, color, depth, useHash, null)))
+		{
+			nodes += task.join();
+		}
+		return nodes;
+	}
+}
@@ -92,6 +92,41 @@ public abstract class Piece
 	{
 		return pieceEnum;
 	}
+
+    //returns the starting location of this piece
+    public Location getStartingLocation()
+    {
+        return startingLocation;
+    }
+
+    /**
+     * Sets the starting location of the piece (normally the first location it is put in)
+     * @param loc The starting location
+     */
+    public void setStartingLocation(Location loc)
+    {
+        startingLocation = loc;
+    }
+
+    /**
+     * Creates a new piece of a certain type and color (not yet in a board)
+     * @param pieceEnum The piece enum (1-6)
+     * @param color The color
+     * @return The new piece
+     */
+    public static Piece create(int pieceEnum, Color color)
+    {
+        String prefix = color.equals(Color.WHITE) ? "white_" : "black_";
+        switch (pieceEnum) {
+            case Pawn.ENUM: return new Pawn(color, prefix+"pawn.gif");
+            case Knight.ENUM: return new Knight(color, prefix+"knight.gif");
+            case Bishop.ENUM: return new Bishop(color, prefix+"bishop.gif");
+            case Rook.ENUM: return new Rook(color, prefix+"rook.gif");
+            case Queen.ENUM: return new Queen(color, prefix+"queen.gif");
+            case King.ENUM: return new King(color, prefix+"king.gif");
+        }
+        throw new IllegalArgumentException("Invalid piece enum " + pieceEnum);
+    }
 	
 	/**
 	 * Sets 'moved' of the piece
@@ -187,6 +222,9 @@ public abstract class Piece
         //Remove old location from bitboard and add new location
         board.getBitboard().removePiece(pieceEnum, color, location);
         board.getBitboard().addPiece(pieceEnum, color, newLocation);
+
+        //Update piece-square score
+        board.movePiece(this, location, newLocation);
         
         location = newLocation;
         board.put(location, this);
@@ -0,0 +1,56 @@
+import java.awt.Color;
+import java.util.LinkedHashMap;
+
+/**
+ * Stores the fields of a position read from a FEN or EPD record (piece placement, side to move,
+ * castling rights, en passant square, move counters and any EPD opcodes)
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class PositionInfo
+{
+	public String placement;
+	public Color colorToMove;
+	public String castling;
+	public String enPassant;
+	public int halfmoveClock;
+	public int fullmoveNumber;
+	public LinkedHashMap<String, String> opcodes; //EPD opcodes (e.g. bm, am, id) to their operands
+
+	public PositionInfo(String placement, Color colorToMove, String castling, String enPassant, int halfmoveClock, int fullmoveNumber)
+	{
+		this.placement = placement;
+		this.colorToMove = colorToMove;
+		this.castling = castling;
+		this.enPassant = enPassant;
+		this.halfmoveClock = halfmoveClock;
+		this.fullmoveNumber = fullmoveNumber;
+		this.opcodes = new LinkedHashMap<>();
+	}
+
+	/**
+	 * Gets the operand of an EPD opcode
+	 * @param opcode The opcode
+	 * @return The operand (without quotes), or null if the opcode isn't present
+	 */
+	public String getOpcode(String opcode)
+	{
+		return opcodes.get(opcode);
+	}
+
+	/**
+	 * Gets the side to move as an integer
+	 * @return 1 if White, -1 if Black
+	 */
+	public int getColorInt()
+	{
+		return colorToMove.equals(Color.WHITE) ? 1 : -1;
+	}
+
+	//Converts the position into a FEN string
+	public String toString()
+	{
+		return placement + " " + (colorToMove.equals(Color.WHITE) ? "w" : "b") + " " + castling + " " + enPassant
+				+ " " + halfmoveClock + " " + fullmoveNumber;
+	}
+}
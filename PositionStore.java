@@ -0,0 +1,312 @@
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A persistent store of deep search results that keeps growing over many games (a log-structured
+ * merge tree): new results go into an in-memory table, which is written out as an immutable sorted
+ * segment file once it's full, and a background thread merges the segments once there are too many,
+ * keeping the deepest result of every position and dropping the shallowest ones past MAX_ENTRIES
+ *
+ * Every segment has a Bloom filter in memory, so looking up a position that isn't stored almost
+ * never reads a segment. Records also keep the occupied squares of the position, which rejects the
+ * rare Zobrist key collision. Like the keys and moves, they're stored with White on the near side, so
+ * a store works for both board orientations
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public final class PositionStore
+{
+	public static final String STORE_DIRECTORY = "store";
+	public static final int PROBE_MAX_PLY = 2; //Negamax only probes the store this close to the root
+	private static final int MEMTABLE_LIMIT = 1 << 18; //Records in memory before they're written to a segment
+	private static final int MAX_SEGMENTS = 4; //Segments before they're merged
+	private static final int MAX_ENTRIES = 1 << 22; //Records kept by a merge (24 bytes each)
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".seg";
+
+	private static volatile ConcurrentHashMap<Long, long[]> memtable = new ConcurrentHashMap<>(); //Key to {key, state, occupied}
+	private static volatile ConcurrentHashMap<Long, long[]> flushing = null; //Memtable being written (still readable)
+	private static volatile StoreSegment[] segments = new StoreSegment[0]; //Newest first
+	private static ExecutorService background;
+	private static File directory;
+	private static long startKey;
+	private static int nextGeneration = 0;
+	private static volatile boolean open = false;
+
+	/**
+	 * Opens the store, reading the segments of its directory (segments made with other Zobrist keys
+	 * are ignored, and segments a merge replaced but couldn't delete are deleted now)
+	 * @param directoryName The directory of the store
+	 * @throws IOException
+	 */
+	public static synchronized void open(String directoryName) throws IOException
+	{
+		if (open) return;
+		directory = new File(directoryName);
+		if (!directory.isDirectory() && !directory.mkdirs()) throw new IOException("Could not create " + directory);
+
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		startKey = Compression.compressState(board, 1);
+
+		//Find the segment files and the newest generation replaced by a merge
+		ArrayList<File> segmentFiles = new ArrayList<>();
+		ArrayList<Integer> generations = new ArrayList<>();
+		int replaced = -1;
+		File[] files = directory.listFiles();
+		for (File file: files == null ? new File[0] : files)
+		{
+			String name = file.getName();
+			if (name.endsWith(SEGMENT_SUFFIX + ".tmp")) file.delete(); //Left by a crash mid-write
+			if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) continue;
+			int generation;
+			try {
+				generation = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+			}
+			catch (NumberFormatException e) {
+				continue; //Not a segment of the store
+			}
+			nextGeneration = Math.max(nextGeneration, generation + 1);
+			segmentFiles.add(file);
+			generations.add(generation);
+			replaced = Math.max(replaced, StoreSegment.readReplacedGeneration(file));
+		}
+
+		ArrayList<StoreSegment> opened = new ArrayList<>();
+		for (int i=0;i<segmentFiles.size();i++)
+		{
+			File file = segmentFiles.get(i);
+			if (generations.get(i) <= replaced) {
+				if (!file.delete()) System.out.println("Position store segment " + file + " was merged but can't be deleted, ignored");
+				continue;
+			}
+			StoreSegment segment = StoreSegment.open(file, generations.get(i), startKey);
+			if (segment != null) opened.add(segment);
+			else System.out.println("Position store segment " + file + " doesn't match this engine, ignored");
+		}
+		opened.sort((a, b) -> Integer.compare(b.getGeneration(), a.getGeneration()));
+		segments = opened.toArray(new StoreSegment[0]);
+
+		background = Executors.newSingleThreadExecutor(r -> {
+			Thread thread = new Thread(r, "PositionStore");
+			thread.setDaemon(true);
+			return thread;
+		});
+		open = true;
+	}
+
+	public static boolean isOpen()
+	{
+		return open;
+	}
+
+	/**
+	 * Turns the occupied squares of a position into the occupied squares with White on the near side
+	 * @param occupied The occupied squares in the current orientation
+	 * @return The occupied squares
+	 */
+	private static long orient(long occupied)
+	{
+		return Game.getNearColor().equals(Color.BLACK) ? Long.reverse(occupied) : occupied;
+	}
+
+	/**
+	 * Checks if a record holds a better search than another (deeper, or as deep and exact)
+	 * @param state The state of the record
+	 * @param other The state of the other record
+	 * @return True if the record is better
+	 */
+	private static boolean deeper(long state, long other)
+	{
+		int depth = CompressionWriter.recordDepth(state), otherDepth = CompressionWriter.recordDepth(other);
+		if (depth != otherDepth) return depth > otherDepth;
+		return CompressionWriter.recordNodeType(state) == 1 && CompressionWriter.recordNodeType(other) != 1;
+	}
+
+	/**
+	 * Adds a search result to the store
+	 * @param key The Zobrist key of the state
+	 * @param data The search result (see CompressionWriter.encodeState)
+	 * @param occupied The occupied squares of the state (see StateTable.occupiedSquares)
+	 */
+	public static void add(long key, long data, long occupied)
+	{
+		if (!open) return;
+		long[] record = {key, data, orient(occupied)};
+		memtable.merge(record[0], record, (old, added) -> deeper(added[1], old[1]) ? added : old);
+		if (memtable.size() >= MEMTABLE_LIMIT) scheduleFlush();
+	}
+
+	/**
+	 * Hands the full memtable to the background thread to be written as a segment (records added to
+	 * it while it's swapped out may be lost, which is fine for a cache)
+	 */
+	private static synchronized void scheduleFlush()
+	{
+		if (flushing != null || memtable.isEmpty()) return;
+		flushing = memtable;
+		memtable = new ConcurrentHashMap<>();
+		background.execute(PositionStore::flush);
+	}
+
+	/**
+	 * Writes the flushing memtable as the newest segment, then merges the segments if there are too many
+	 */
+	private static void flush()
+	{
+		try {
+			long[][] records = flushing.values().toArray(new long[0][]);
+			Arrays.sort(records, (a, b) -> Long.compare(a[0], b[0]));
+			StoreSegment segment = writeSegment(records, records.length, -1);
+
+			StoreSegment[] updated = new StoreSegment[segments.length + 1];
+			updated[0] = segment;
+			System.arraycopy(segments, 0, updated, 1, segments.length);
+			segments = updated;
+			flushing = null;
+
+			if (segments.length > MAX_SEGMENTS) compact();
+		}
+		catch (IOException e) {
+			System.out.println("Position store flush failed: " + e);
+			flushing = null;
+		}
+	}
+
+	/**
+	 * Writes records into a new segment file and opens it
+	 * @param records The records, sorted by key without duplicates
+	 * @param count The number of records
+	 * @param replacedGeneration The newest generation the segment replaces, or -1 if none
+	 * @return The segment
+	 * @throws IOException
+	 */
+	private static StoreSegment writeSegment(long[][] records, int count, int replacedGeneration) throws IOException
+	{
+		int generation = nextGeneration++;
+		File file = new File(directory, SEGMENT_PREFIX + generation + SEGMENT_SUFFIX);
+		StoreSegment.write(file, records, count, startKey, replacedGeneration);
+		return StoreSegment.open(file, generation, startKey);
+	}
+
+	/**
+	 * Merges all segments into one, keeping the deepest record of every key and at most MAX_ENTRIES
+	 * records (runs on the background thread, the only thread that changes the segments)
+	 * @throws IOException
+	 */
+	private static void compact() throws IOException
+	{
+		StoreSegment[] merging = segments;
+		int total = 0;
+		for (StoreSegment segment: merging) total += segment.size();
+		long[][] records = new long[total][];
+		int n = 0;
+		for (StoreSegment segment: merging)
+		{
+			for (int i=0;i<segment.size();i++) records[n++] = new long[] {segment.getKey(i), segment.getState(i), segment.getOccupied(i)};
+		}
+
+		//Sort by key with the best record first, then keep the first record of every key
+		Arrays.sort(records, (a, b) -> a[0] != b[0] ? Long.compare(a[0], b[0]) : deeper(a[1], b[1]) ? -1 : deeper(b[1], a[1]) ? 1 : 0);
+		int count = 0;
+		for (int i=0;i<total;i++)
+		{
+			if (count == 0 || records[count-1][0] != records[i][0]) records[count++] = records[i];
+		}
+
+		//Over the size bound: keep the deepest records
+		if (count > MAX_ENTRIES) {
+			long[][] kept = Arrays.copyOf(records, count);
+			Arrays.sort(kept, (a, b) -> Integer.compare(CompressionWriter.recordDepth(b[1]), CompressionWriter.recordDepth(a[1])));
+			records = Arrays.copyOf(kept, MAX_ENTRIES);
+			count = MAX_ENTRIES;
+			Arrays.sort(records, (a, b) -> Long.compare(a[0], b[0]));
+		}
+
+		//The merged segment records the generations it replaces, so open() never loads them next to it
+		//(the merging segments are all the segments, newest first)
+		StoreSegment merged = writeSegment(records, count, merging[0].getGeneration());
+		segments = new StoreSegment[] {merged};
+
+		//Readers keep their mapping until they're done; where a mapped file can't be deleted (Windows),
+		//the next open() deletes it
+		for (StoreSegment segment: merging)
+		{
+			if (!segment.getFile().delete()) System.out.println("Position store segment " + segment.getFile() + " is still mapped, deleted on the next start");
+		}
+	}
+
+	/**
+	 * Looks up the best stored search of a position
+	 * @param key The Zobrist key of the state
+	 * @param occupied The occupied squares of the state (see StateTable.occupiedSquares)
+	 * @return The search result (see CompressionWriter.encodeState), or 0 if the position isn't stored
+	 */
+	public static long probe(long key, long occupied)
+	{
+		if (!open) return 0;
+		occupied = orient(occupied);
+		long best = 0;
+		boolean found = false;
+
+		ConcurrentHashMap<Long, long[]> frozen = flushing;
+		long[] record = memtable.get(key);
+		if (record != null && record[2] == occupied) {
+			best = record[1];
+			found = true;
+		}
+		record = frozen == null ? null : frozen.get(key);
+		if (record != null && record[2] == occupied && (!found || deeper(record[1], best))) {
+			best = record[1];
+			found = true;
+		}
+		for (StoreSegment segment: segments)
+		{
+			int index = segment.find(key);
+			if (index >= 0 && segment.getOccupied(index) == occupied && (!found || deeper(segment.getState(index), best))) {
+				best = segment.getState(index);
+				found = true;
+			}
+		}
+		return found ? best : 0;
+	}
+
+	public static int getSegmentCount()
+	{
+		return segments.length;
+	}
+
+	public static long getStoredCount()
+	{
+		long count = memtable.size();
+		for (StoreSegment segment: segments) count += segment.size();
+		return count;
+	}
+
+	/**
+	 * Writes the memtable out and waits for the background thread to finish
+	 */
+	public static synchronized void close()
+	{
+		if (!open) return;
+		try {
+			background.submit(() -> {}).get(); //Wait for a flush that's already running
+			scheduleFlush();
+			background.shutdown();
+			background.awaitTermination(1, TimeUnit.MINUTES);
+		}
+		catch (InterruptedException | ExecutionException e) {
+			Thread.currentThread().interrupt();
+		}
+		open = false;
+	}
+}
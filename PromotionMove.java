@@ -49,4 +49,10 @@ public class PromotionMove extends Move
 	{
 		return super.toStandardNotation() + "=" + upgradePiece.toStandardNotation();
 	}
+
+	// Returns the long algebraic notation of the move, with the promotion piece in lowercase (e.g. e7e8q)
+	public String toLongAlgebraic()
+	{
+		return super.toLongAlgebraic() + upgradePiece.toStandardNotation().toLowerCase();
+	}
 }
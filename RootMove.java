@@ -0,0 +1,41 @@
+/**
+ * A move at the root of a search, kept across the iterations of iterative deepening with what the
+ * last iteration learned about it: its score, whether the score is exact, how many nodes its subtree
+ * took and its line. The root is ordered by these instead of the generic move ordering, so the deeper
+ * iterations (most of the time of a search) find their cutoffs sooner
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class RootMove implements Comparable<RootMove>
+{
+	public final Move move;
+	public int score;
+	public int previousScore; //Score in the iteration before
+	public boolean exact = false; //False if the score is only an upper bound
+	public boolean searched = false; //Searched in the current iteration
+	public long nodes = 0; //Nodes of the move's subtree in its last search
+	public final Move[] line; //Principal variation after the move
+	public int lineLength = 0;
+	public int lineTag = 0;
+
+	public RootMove(Move move, int maxPly)
+	{
+		this.move = move;
+		this.line = new Move[maxPly];
+	}
+
+	/**
+	 * Compares the order two root moves are searched in: exact scores first (best first), then the
+	 * moves whose subtrees took the most nodes to refute, as those are the likeliest to be good
+	 * @param other The other root move
+	 * @return Negative if this move goes first
+	 */
+	public int compareTo(RootMove other)
+	{
+		if (exact != other.exact) return exact ? -1 : 1;
+		if (exact && score != other.score) return Integer.compare(other.score, score);
+		if (nodes != other.nodes) return Long.compare(other.nodes, nodes);
+		return Integer.compare(other.previousScore, previousScore);
+	}
+}
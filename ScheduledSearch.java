@@ -0,0 +1,28 @@
+/**
+ * A search waiting for a thread of the engine server's search pool, ordered like its SearchTicket so
+ * the pool starts the most urgent waiting search first
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class ScheduledSearch implements Runnable, Comparable<ScheduledSearch>
+{
+	public final SearchTicket ticket;
+	private final Runnable search;
+
+	public ScheduledSearch(SearchTicket ticket, Runnable search)
+	{
+		this.ticket = ticket;
+		this.search = search;
+	}
+
+	public void run()
+	{
+		search.run();
+	}
+
+	public int compareTo(ScheduledSearch other)
+	{
+		return ticket.compareTo(other.ticket);
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ * The limits of one search as given by a go command (go depth 8, go wtime 60000 btime 60000 winc 1000,
+ * go infinite, ...), shared by the UCI front-end and the engine server
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class SearchLimits
+{
+	public int depth = SmartPlayerNegamax.MAX_SEARCH_DEPTH;
+	public long nodes = 0; //0 - no limit
+	public long moveTime = 0; //0 - no limit
+	public long timeLeft = -1; //Clock of the side to move, -1 if not given
+	public long increment = 0;
+	public int movesToGo = 0;
+	public boolean infinite = false;
+
+	/**
+	 * Parses the limits of a go command
+	 * @param tokens The command tokens (tokens[0] is go)
+	 * @param white True if White is to move (picks wtime/winc or btime/binc)
+	 * @return The limits
+	 */
+	public static SearchLimits parse(String[] tokens, boolean white)
+	{
+		SearchLimits limits = new SearchLimits();
+		for (int i=1;i<tokens.length;i++)
+		{
+			String limit = tokens[i];
+			if (limit.equals("infinite")) {
+				limits.infinite = true;
+				continue;
+			}
+			if (i+1 >= tokens.length) break;
+			long value;
+			try {
+				value = Long.parseLong(tokens[i+1]);
+			}
+			catch (NumberFormatException e) {
+				continue;
+			}
+			if (limit.equals("depth")) limits.depth = (int) Math.max(1, value);
+			else if (limit.equals("nodes")) limits.nodes = value;
+			else if (limit.equals("movetime")) limits.moveTime = value;
+			else if (limit.equals(white ? "wtime" : "btime")) limits.timeLeft = value;
+			else if (limit.equals(white ? "winc" : "binc")) limits.increment = value;
+			else if (limit.equals("movestogo")) limits.movesToGo = (int) value;
+			else continue;
+			i++;
+		}
+		return limits;
+	}
+
+	/**
+	 * Checks if the go command set any limit (otherwise the engine's own settings apply)
+	 * @return True if there is a depth, node, time or clock limit
+	 */
+	public boolean isLimited()
+	{
+		return infinite || depth < SmartPlayerNegamax.MAX_SEARCH_DEPTH || nodes > 0 || moveTime > 0 || timeLeft >= 0;
+	}
+
+	/**
+	 * Works out the time to think from the clock (time control: an even share of the remaining time
+	 * plus most of the increment) or the fixed move time
+	 * @param overhead Milliseconds kept in reserve for communication
+	 * @return The time limit in milliseconds (0 - no limit)
+	 */
+	public long allocateTime(long overhead)
+	{
+		if (infinite) return 0;
+		if (moveTime == 0 && timeLeft >= 0) {
+			long share = timeLeft / (movesToGo > 0 ? movesToGo + 1 : 30) + increment * 3 / 4;
+			return Math.max(1, Math.min(share, timeLeft - overhead));
+		}
+		return moveTime > overhead ? moveTime - overhead : moveTime;
+	}
+}
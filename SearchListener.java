@@ -0,0 +1,16 @@
+/**
+ * Receives the progress of an iterative deepening search (e.g. to report it to a GUI)
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public interface SearchListener
+{
+	/**
+	 * Called after every completed iteration of the search
+	 * @param player The searching player (for the score and principal variation of the iteration)
+	 * @param depth The depth of the iteration
+	 * @param nodes The nodes searched so far, over all iterations
+	 * @param elapsed The time since the search started in milliseconds
+	 */
+	void iterationComplete(SmartPlayerNegamax player, int depth, long nodes, long elapsed);
+}
@@ -0,0 +1,131 @@
+import java.util.PriorityQueue;
+
+/**
+ * Shares a fixed number of cores between more searches than cores. A search runs only while it holds
+ * a core, and gives its core up at node checkpoints (every CHECKPOINT_NODES nodes) when a more urgent
+ * search is waiting, so the searches interleave in node quotas instead of all running at once
+ *
+ * Priority (see SearchTicket): a search that hasn't finished its minimum depth goes first, so every
+ * game gets a move of at least that depth quickly; after that, the game with the least time left on
+ * its clock goes first. A search keeps its own time limit while it waits, so time spent without a
+ * core shortens its search instead of delaying its move
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class SearchScheduler
+{
+	public static final int CHECKPOINT_NODES = 4096; //Node quota between checkpoints
+
+	private final int cores;
+	private final PriorityQueue<SearchTicket> waiting = new PriorityQueue<>();
+	private volatile int waitingCount = 0;
+	private int runningCount = 0;
+	private long sequence = 0;
+	private long yields = 0;
+
+	/**
+	 * @param cores The number of searches that run at once
+	 */
+	public SearchScheduler(int cores)
+	{
+		this.cores = Math.max(1, cores);
+	}
+
+	/**
+	 * Creates the ticket of a new search
+	 * @param urgency The time the game's clock runs out (milliseconds since the epoch, lower is more urgent)
+	 * @param minimumDepth The depth the search gets before it gives way
+	 * @return The ticket
+	 */
+	public synchronized SearchTicket register(long urgency, int minimumDepth)
+	{
+		return new SearchTicket(urgency, minimumDepth, sequence++);
+	}
+
+	/**
+	 * Waits for a core
+	 * @param ticket The ticket of the search
+	 * @throws InterruptedException
+	 */
+	public synchronized void acquire(SearchTicket ticket) throws InterruptedException
+	{
+		waiting.add(ticket);
+		waitingCount = waiting.size();
+		grant();
+		while (!ticket.running) wait();
+	}
+
+	/**
+	 * Gives the core of a finished search to the next one
+	 * @param ticket The ticket of the search
+	 */
+	public synchronized void release(SearchTicket ticket)
+	{
+		if (ticket.running) {
+			ticket.running = false;
+			runningCount--;
+		}
+		else if (waiting.remove(ticket)) {
+			waitingCount = waiting.size();
+		}
+		grant();
+	}
+
+	/**
+	 * Hands free cores to the most urgent waiting searches
+	 */
+	private void grant()
+	{
+		boolean granted = false;
+		while (runningCount < cores && !waiting.isEmpty())
+		{
+			waiting.poll().running = true;
+			runningCount++;
+			granted = true;
+		}
+		waitingCount = waiting.size();
+		if (granted) notifyAll();
+	}
+
+	/**
+	 * Called by a running search every CHECKPOINT_NODES nodes: gives the core up to a waiting search
+	 * that goes first and waits for it back
+	 * @param ticket The ticket of the search
+	 * @param depth The depth of the current iteration
+	 */
+	public void checkpoint(SearchTicket ticket, int depth)
+	{
+		//The priority queue orders by guaranteed, so it only changes under the lock (once per search)
+		boolean guaranteed = depth <= ticket.minimumDepth;
+		if (guaranteed != ticket.guaranteed) {
+			synchronized (this) {
+				ticket.guaranteed = guaranteed;
+			}
+		}
+		if (guaranteed || waitingCount == 0) return;
+		synchronized (this) {
+			SearchTicket next = waiting.peek();
+			if (next == null || next.compareTo(ticket) > 0) return;
+			yields++;
+			ticket.running = false;
+			runningCount--;
+			waiting.add(ticket);
+			grant();
+			try {
+				while (!ticket.running) wait();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				waiting.remove(ticket);
+				ticket.running = true;
+				runningCount++; //Runs over the core count rather than losing the search
+			}
+		}
+	}
+
+	public synchronized long getYields()
+	{
+		return yields;
+	}
+}
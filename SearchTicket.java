@@ -0,0 +1,34 @@
+/**
+ * The place of one search in a SearchScheduler: how urgent it is and whether it holds a core
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class SearchTicket implements Comparable<SearchTicket>
+{
+	public final long urgency; //Time the game's clock runs out (milliseconds, lower is more urgent)
+	public final int minimumDepth; //Depth searched before the search gives way to others
+	public final long sequence; //Order of arrival, breaks ties
+	public volatile boolean running = false;
+	public volatile boolean guaranteed = true; //Still within the minimum depth (changed under the scheduler's lock)
+
+	public SearchTicket(long urgency, int minimumDepth, long sequence)
+	{
+		this.urgency = urgency;
+		this.minimumDepth = minimumDepth;
+		this.sequence = sequence;
+	}
+
+	/**
+	 * Compares the priority of two tickets: searches within their minimum depth first, then the
+	 * least remaining clock, then the oldest
+	 * @param other The other ticket
+	 * @return Negative if this ticket goes first
+	 */
+	public int compareTo(SearchTicket other)
+	{
+		if (guaranteed != other.guaranteed) return guaranteed ? -1 : 1;
+		if (urgency != other.urgency) return Long.compare(urgency, other.urgency);
+		return Long.compare(sequence, other.sequence);
+	}
+}
@@ -0,0 +1,258 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Plays engine-vs-engine games headlessly across a pool of threads, each game on its own board with
+ * its own players, and reports the Elo difference with a sequential probability ratio test (SPRT)
+ *
+ * Every opening (sampled from the opening book file) is played twice with the colors swapped. Games
+ * end on checkmate, stalemate, threefold repetition, the fifty-move rule, insufficient material,
+ * a length cap, or when both engines agree one side is winning by a large margin
+ *
+ * Each engine of each game searches with its own EngineContext, so neither engine ever sees the
+ * other's state table and concurrent games never clear each other's
+ *
+ * Usage: java SelfPlay [key=value..]
+ *    games, threads, engine1, engine2 (see EngineConfig), book, seed, hash (MB per engine per game), elo0, elo1, alpha, beta
+ *    e.g. java SelfPlay games=400 engine1=name=new,nodes=20000 engine2=name=old,nodes=20000,futility=off
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class SelfPlay
+{
+	private static final int MAX_PLIES = 400;
+	private static final int FIFTY_MOVE_PLIES = 100;
+	private static final int ADJUDICATE_SCORE = 1000; //Centipawns both engines must agree on for a win adjudication
+	private static final int ADJUDICATE_PLIES = 8; //Consecutive plies the score must stay past ADJUDICATE_SCORE
+	private static final int MIN_OPENING_PLIES = 4;
+
+	private final EngineConfig engine1;
+	private final EngineConfig engine2;
+	private final ArrayList<String[]> openings;
+	private final MatchStatistics stats;
+	private final int tableCapacity; //State table capacity of every engine of every game
+	private volatile boolean decided = false;
+
+	public SelfPlay(EngineConfig engine1, EngineConfig engine2, ArrayList<String[]> openings, MatchStatistics stats, int tableCapacity)
+	{
+		this.tableCapacity = tableCapacity;
+		this.engine1 = engine1;
+		this.engine2 = engine2;
+		this.openings = openings;
+		this.stats = stats;
+	}
+
+	/**
+	 * Reads the opening lines of a book file (tab-separated, with the moves in the third column)
+	 * @param fileName The book file
+	 * @param seed The seed of the shuffle
+	 * @return The opening lines in standard algebraic notation, shuffled
+	 * @throws IOException
+	 */
+	public static ArrayList<String[]> loadOpenings(String fileName, long seed) throws IOException
+	{
+		ArrayList<String[]> openings = new ArrayList<>();
+		BufferedReader br = new BufferedReader(new FileReader(fileName));
+		String nextLine;
+		while ((nextLine = br.readLine()) != null)
+		{
+			String[] columns = nextLine.split("\t");
+			if (columns.length < 3) continue;
+			ArrayList<String> moves = new ArrayList<>();
+			for (String token: columns[2].trim().split("\\s+"))
+			{
+				if (!token.endsWith(".")) moves.add(token);
+			}
+			if (moves.size() >= MIN_OPENING_PLIES) openings.add(moves.toArray(new String[0]));
+		}
+		br.close();
+		Collections.shuffle(openings, new Random(seed));
+		return openings;
+	}
+
+	/**
+	 * Checks if neither side has enough material to checkmate (lone kings, or a single minor piece)
+	 * @param board The board
+	 * @return True if the position is a dead draw
+	 */
+	private static boolean insufficientMaterial(Board board)
+	{
+		int minors = 0;
+		for (Color color: new Color[] {Color.WHITE, Color.BLACK})
+		{
+			if (!board.getPiecesOfType(Pawn.ENUM, color).isEmpty() || !board.getPiecesOfType(Rook.ENUM, color).isEmpty()
+					|| !board.getPiecesOfType(Queen.ENUM, color).isEmpty()) return false;
+			minors += board.getPiecesOfType(Knight.ENUM, color).size() + board.getPiecesOfType(Bishop.ENUM, color).size();
+		}
+		return minors <= 1;
+	}
+
+	/**
+	 * Plays a game between two engines
+	 * @param opening The opening moves (standard algebraic notation), played before the engines take over
+	 * @param white The white engine
+	 * @param black The black engine
+	 * @param tableCapacity The state table capacity of each engine
+	 * @param reason Filled with how the game ended
+	 * @return The score of White (1 - win, 0.5 - draw, 0 - loss)
+	 * @throws IOException
+	 */
+	public static double playGame(String[] opening, EngineConfig white, EngineConfig black, int tableCapacity, StringBuilder reason) throws IOException
+	{
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		Color color = Color.WHITE;
+		int halfmoveClock = 0;
+		HashMap<Long, Integer> repetitions = new HashMap<>();
+
+		for (String notation: opening)
+		{
+			Move m = Opening.convertNotationToMove(board, color.equals(Color.WHITE) ? 1 : -1, notation);
+			if (m == null) break; //Rest of the line can't be played by the engine (e.g. en passant)
+			board.executeMove(m);
+			color = Board.oppositeColor(color);
+		}
+
+		SmartPlayerNegamax whitePlayer = white.createPlayer(board, Color.WHITE, new EngineContext(white, tableCapacity, false));
+		SmartPlayerNegamax blackPlayer = black.createPlayer(board, Color.BLACK, new EngineContext(black, tableCapacity, false));
+		int adjudicateSign = 0;
+		int adjudicatePlies = 0;
+
+		for (int ply=0;;ply++)
+		{
+			int colorInt = color.equals(Color.WHITE) ? 1 : -1;
+			ArrayList<Move> moves = board.allMoves(color);
+			if (moves.isEmpty()) {
+				if (board.getKing(color).inCheck()) {
+					reason.append("checkmate");
+					return colorInt == 1 ? 0 : 1;
+				}
+				reason.append("stalemate");
+				return 0.5;
+			}
+
+			long hash = Compression.compressState(board, colorInt);
+			int seen = repetitions.merge(hash, 1, Integer::sum);
+			if (seen >= 3) {
+				reason.append("repetition");
+				return 0.5;
+			}
+			if (halfmoveClock >= FIFTY_MOVE_PLIES) {
+				reason.append("fifty moves");
+				return 0.5;
+			}
+			if (insufficientMaterial(board)) {
+				reason.append("insufficient material");
+				return 0.5;
+			}
+			if (ply >= MAX_PLIES) {
+				reason.append("length cap");
+				return 0.5;
+			}
+
+			SmartPlayerNegamax player = colorInt == 1 ? whitePlayer : blackPlayer;
+			Move move = (colorInt == 1 ? white : black).search(player);
+			if (move == null) move = moves.get(0);
+
+			//Win adjudication once both engines keep agreeing on a decisive score
+			int score = player.getLastScore() * colorInt;
+			int sign = Math.abs(score) >= ADJUDICATE_SCORE ? Integer.signum(score) : 0;
+			adjudicatePlies = sign != 0 && sign == adjudicateSign ? adjudicatePlies + 1 : (sign != 0 ? 1 : 0);
+			adjudicateSign = sign;
+			if (adjudicatePlies >= ADJUDICATE_PLIES) {
+				reason.append("adjudication");
+				return sign > 0 ? 1 : 0;
+			}
+
+			halfmoveClock = move.getPiece() instanceof Pawn || move.getVictim() != null ? 0 : halfmoveClock + 1;
+			board.executeMove(move);
+			color = Board.oppositeColor(color);
+		}
+	}
+
+	/**
+	 * Plays one game of the match (even games give engine 1 White, odd games give it Black)
+	 * @param index The index of the game
+	 */
+	private void playMatchGame(int index)
+	{
+		if (decided) return;
+		String[] opening = openings.get((index / 2) % openings.size());
+		boolean engine1White = index % 2 == 0;
+		StringBuilder reason = new StringBuilder();
+		double whiteScore;
+		try {
+			whiteScore = playGame(opening, engine1White ? engine1 : engine2, engine1White ? engine2 : engine1, tableCapacity, reason);
+		}
+		catch (Exception e) {
+			System.out.println("Game " + (index+1) + " failed: " + e);
+			return;
+		}
+		stats.addResult(engine1White ? whiteScore : 1 - whiteScore);
+
+		String result = whiteScore == 1 ? "1-0" : whiteScore == 0 ? "0-1" : "1/2-1/2";
+		synchronized (this) {
+			System.out.println("Game " + (index+1) + ": " + (engine1White ? engine1.name + " vs " + engine2.name : engine2.name + " vs " + engine1.name)
+					+ " " + result + " (" + reason + ")");
+			System.out.println(stats);
+		}
+		if (stats.getSPRTResult() != 0) decided = true;
+	}
+
+	/**
+	 * Plays the match on a pool of threads, stopping early once the SPRT is decided
+	 * @param games The maximum number of games
+	 * @param threads The number of threads
+	 * @throws InterruptedException
+	 */
+	public void run(int games, int threads) throws InterruptedException
+	{
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		for (int i=0;i<games;i++)
+		{
+			final int index = i;
+			pool.execute(() -> playMatchGame(index));
+		}
+		pool.shutdown();
+		pool.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+	}
+
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		HashMap<String, String> options = new HashMap<>();
+		for (String arg: args)
+		{
+			int split = arg.indexOf('=');
+			if (split > 0) options.put(arg.substring(0, split), arg.substring(split+1));
+		}
+		int games = Integer.parseInt(options.getOrDefault("games", "100"));
+		int threads = Integer.parseInt(options.getOrDefault("threads", "" + Runtime.getRuntime().availableProcessors()));
+		EngineConfig engine1 = EngineConfig.parse(options.getOrDefault("engine1", "name=Engine1,nodes=20000"));
+		EngineConfig engine2 = EngineConfig.parse(options.getOrDefault("engine2", "name=Engine2,nodes=20000"));
+		long seed = Long.parseLong(options.getOrDefault("seed", "1"));
+		int hashMB = Integer.parseInt(options.getOrDefault("hash", "64"));
+		MatchStatistics stats = new MatchStatistics(
+				Double.parseDouble(options.getOrDefault("elo0", "0")), Double.parseDouble(options.getOrDefault("elo1", "10")),
+				Double.parseDouble(options.getOrDefault("alpha", "0.05")), Double.parseDouble(options.getOrDefault("beta", "0.05")));
+
+		Game.setNearColor(Color.WHITE);
+		ArrayList<String[]> openings = loadOpenings(options.getOrDefault("book", "openings.tsv"), seed);
+
+		System.out.println("Self-Play | Games: " + games + " | Threads: " + threads + " | Openings: " + openings.size());
+		System.out.println("Engine 1: " + engine1);
+		System.out.println("Engine 2: " + engine2);
+		long start = System.currentTimeMillis();
+		new SelfPlay(engine1, engine2, openings, stats, EngineContext.capacityOf(hashMB)).run(games, threads);
+		System.out.println("\nFinal | " + stats + " | Time: " + (System.currentTimeMillis() - start) / 1000.0 + "s");
+	}
+}
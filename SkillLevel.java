@@ -0,0 +1,84 @@
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A playing strength below full strength, for cheap opponents. A level searches a fixed node budget
+ * (so every move costs about the same, whatever the position), then picks at random among the root
+ * moves scoring within the level's margin of the best one, nearer moves being likelier (the weight of
+ * a move is the square of how far inside the margin it is)
+ *
+ * The root moves within the margin get exact scores (the root searches them with its alpha lowered by
+ * the margin), so a pick is never a move that only looked close because it was cut off
+ *
+ * Levels go from 1 (250 nodes, picks within 2.7 pawns) to MAX_LEVEL (128000 nodes, always the best move)
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class SkillLevel
+{
+	public static final int MAX_LEVEL = 10;
+	private static final int BASE_NODES = 250; //Node budget of level 1, doubled every level
+	private static final int MARGIN_STEP = 30; //Centipawns of margin per level below MAX_LEVEL
+
+	public final int level;
+	public final long nodes; //Node budget of a move
+	public final int margin; //Centipawns from the best move a pick may lose
+
+	private SkillLevel(int level, long nodes, int margin)
+	{
+		this.level = level;
+		this.nodes = nodes;
+		this.margin = margin;
+	}
+
+	/**
+	 * Gets a skill level
+	 * @param level The level (1 to MAX_LEVEL)
+	 * @return The skill level
+	 */
+	public static SkillLevel of(int level)
+	{
+		if (level < 1 || level > MAX_LEVEL) throw new IllegalArgumentException("Skill level must be 1 to " + MAX_LEVEL + ": " + level);
+		return new SkillLevel(level, (long) BASE_NODES << (level - 1), (MAX_LEVEL - level) * MARGIN_STEP);
+	}
+
+	/**
+	 * Picks the move to play from the root moves of a search, weighting every move within the margin
+	 * by how close it is to the best score
+	 * @param moves The root moves
+	 * @param scores The scores of the root moves
+	 * @param exact True for the scores that are exact (the others are upper bounds)
+	 * @param count The number of root moves
+	 * @param bestScore The score of the best move
+	 * @param best The best move
+	 * @return The move to play
+	 */
+	public Move pickMove(Move[] moves, int[] scores, boolean[] exact, int count, int bestScore, Move best)
+	{
+		if (margin == 0) return best;
+		long totalWeight = 0;
+		long[] weights = new long[count];
+		for (int i=0;i<count;i++)
+		{
+			long loss = (long) bestScore - scores[i];
+			if (exact[i] && loss < margin) {
+				long closeness = margin - Math.max(0, loss);
+				weights[i] = closeness * closeness;
+				totalWeight += weights[i];
+			}
+		}
+		if (totalWeight == 0) return best;
+		long pick = ThreadLocalRandom.current().nextLong(totalWeight);
+		for (int i=0;i<count;i++)
+		{
+			pick -= weights[i];
+			if (pick < 0) return moves[i];
+		}
+		return best;
+	}
+
+	public String toString()
+	{
+		return "Skill " + level + " (" + nodes + " nodes, " + margin / 100.0 + " pawn margin)";
+	}
+}
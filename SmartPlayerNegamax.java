@@ -1,6 +1,8 @@
 import java.awt.Color;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.Queue;
@@ -41,6 +43,7 @@ public class SmartPlayerNegamax extends Player
 {
 	
 	private int PLAY_DEPTH;
+	private final EngineContext context; //State table and settings of this engine
 	
 	//Constants
 	
@@ -49,6 +52,13 @@ public class SmartPlayerNegamax extends Player
 	
 	private static final int NEGAMAX_FUTILITY_FRONTIER_MARGIN = 325;
 	private static final int NEGAMAX_FUTILITY_PREFRONTIER_MARGIN = 525;
+
+	private static final int NMP_MIN_PLYS = 3; //Plys left for a null move to be tried
+	private static final int NMP_BASE_R = 2; //Reduction of the null move search, grows with the depth and the eval margin
+	private static final int NMP_DEPTH_DIVISOR = 6; //+1 reduction per this many plys left
+	private static final int NMP_EVAL_STEP = 200; //+1 reduction per this many centipawns of eval above beta
+	private static final int NMP_MAX_EVAL_R = 2;
+	private static final int NMP_VERIFY_PLYS = 6; //Plys left from which a null move cutoff is verified (zugzwang)
 	
 	private static final int INF = Integer.MAX_VALUE;
 
@@ -57,21 +67,57 @@ public class SmartPlayerNegamax extends Player
 	private int PLAY_TIME;
 	private boolean time_break = false;
 	private int baseline_depth;
+
+	//Search limits (set by searchWithLimits): an absolute deadline replacing the per-iteration play time,
+	//a node budget over all iterations and an external stop request
+	public static final int MAX_SEARCH_DEPTH = 30;
+	private long searchDeadline = 0; //0 - no deadline
+	private long nodeLimit = 0; //0 - no limit
+	private SearchScheduler scheduler = null; //Shares the cores with other searches, null if it has them to itself
+	private SearchTicket ticket = null;
+	private int checkpointNodes = 0;
+	private SkillLevel skill = null; //Weakened play, null for full strength
+	private int rootMargin = 0; //Root moves within this of the best move get exact scores (see SkillLevel)
+	private int multiPV = 1; //Best root moves that get exact scores and lines
+	private int[] rootBestScores = new int[1]; //Best exact scores of the root moves searched in this pass of the root, best first
+	private boolean buildReport = true; //Builds the search report of runNegamax (off for searches with limits)
+	private long searchedNodes = 0; //Nodes of the completed iterations
+	private volatile boolean stopRequested = false;
+	private int lastScore = 0;
 	
 	//General structures
-	private OpeningNode currentOpening;
 	private Move bestMove = null;
 	private Move[] prevMoves;
 
+	//Principal variation (triangular table, one row per ply) and the tag ending each row's line
+	private static final int MAX_PLY = 64;
+	private static final String[] LINE_TAGS = {"", "PV ", "UB ", "LB ", "NMP ", "RFP "};
+	private final Move[][] pvTable = new Move[MAX_PLY][MAX_PLY];
+	private final int[] pvLength = new int[MAX_PLY];
+	private final int[] pvTag = new int[MAX_PLY]; //0 - None, 1 - PV, 2 - UB, 3 - LB, 4 - NMP, 5 - RFP
+
 	//Debug & Performance
 	private long inner_nodes = 0;
 	private long leafs = 0;
 	private long q_nodes = 0;
 	private long total_nodes = 0;
 	private long nodesProcessedByTT = 0;
+	private long nullMoveCutoffs = 0;
+	private long[] lazyTierCount = new long[3]; //Evaluations exited after tier 1, tier 2, full
+	private int lazyMaterialMargin = Evaluation.LAZY_MATERIAL_MARGIN; //Lazy evaluation margins of this engine
+	private int lazyPawnMargin = Evaluation.LAZY_PAWN_MARGIN;
 	private long timeStart = 0;
 	private int moveCount = 1;
-	private String detailedLines = "";
+	private static final int MAX_ROOT_MOVES = 256;
+	private final ArrayList<RootMove> rootTable = new ArrayList<>(); //Root moves kept across iterations, in search order
+	private long rootTableKey = 0; //Zobrist key of the position the root table belongs to (0 - none)
+	private long rootKey = 0; //Zobrist key of the position being searched
+	private final Move[] completedRootMoves = new Move[MAX_ROOT_MOVES]; //Root moves of the last completed iteration
+	private final int[] completedRootScores = new int[MAX_ROOT_MOVES];
+	private final boolean[] completedRootExact = new boolean[MAX_ROOT_MOVES];
+	private final Move[][] completedRootLines = new Move[MAX_ROOT_MOVES][]; //Root move followed by its line
+	private int completedRootCount = 0;
+	private int[] multiPVOrder = new int[0]; //Completed root moves with exact scores, best first (at most multiPV)
 	private final boolean SHOW_LINES = true;
 	private final boolean SHOW_DETAILED_LINES = true;
 	
@@ -79,8 +125,8 @@ public class SmartPlayerNegamax extends Player
 	private final boolean USE_TT_NEGAMAX = true;
 	private final boolean USE_TT_QUIESCENCE = false;
 	private final boolean QUIESCENCE_SEARCHES_CHECKS = true;
-	private final boolean USE_FUTILITY_PRUNING = true;
-	private final boolean USE_NMP = false;
+	private boolean USE_FUTILITY_PRUNING = true;
+	private boolean USE_NMP = false;
 
 	//Heuristics Data Structures
 	private Move[][][][] counterMove = new Move[8][8][8][8]; //Counter-move for ordering
@@ -89,23 +135,28 @@ public class SmartPlayerNegamax extends Player
 	public SmartPlayerNegamax(Board board, String name, Color color, int baselineDepth) throws IOException
 	{
 		super(board, name, color);
+		this.context = EngineContext.getDefault();
 		this.prevMoves = new Move[4];
 		this.PLAY_DEPTH = baselineDepth;
 		this.ITERATIVE_DEEPENING = true;
 		this.PLAY_TIME = 3500;
 		this.baseline_depth = baselineDepth;
-		this.currentOpening = Opening.requestTree(color);
 	}
 	
 	public SmartPlayerNegamax(Board board, String name, Color color, int playDepth, boolean deepening, int playTime) throws IOException
+	{
+		this(board, name, color, playDepth, deepening, playTime, EngineContext.getDefault());
+	}
+
+	public SmartPlayerNegamax(Board board, String name, Color color, int playDepth, boolean deepening, int playTime, EngineContext context) throws IOException
 	{
 		super(board, name, color);
+		this.context = context;
 		this.prevMoves = new Move[4];
 		this.PLAY_DEPTH = playDepth;
 		this.ITERATIVE_DEEPENING = deepening;
 		this.PLAY_TIME = playTime;
 		this.baseline_depth = playDepth;
-		this.currentOpening = Opening.requestTree(color);
 	}
 
 	/**
@@ -143,6 +194,28 @@ public class SmartPlayerNegamax extends Player
 		}
 	}
 	
+	/**
+	 * Turns the optional pruning techniques on or off (e.g. to measure what they're worth in self-play)
+	 * @param futility Whether to use futility, reverse futility and delta pruning
+	 * @param nullMove Whether to use null move pruning
+	 */
+	public void setPruning(boolean futility, boolean nullMove)
+	{
+		USE_FUTILITY_PRUNING = futility;
+		USE_NMP = nullMove;
+	}
+
+	/**
+	 * Sets the lazy evaluation margins of this engine
+	 * @param materialMargin Margin for exiting after material, position, and bishop pair
+	 * @param pawnMargin Margin for exiting after pawn structure and development
+	 */
+	public void setLazyMargins(int materialMargin, int pawnMargin)
+	{
+		lazyMaterialMargin = materialMargin;
+		lazyPawnMargin = pawnMargin;
+	}
+
 	/**
 	 * Sorts hopeless non-captures with some speculative measures
 	 * @param m1 The first move
@@ -243,8 +316,11 @@ public class SmartPlayerNegamax extends Player
 
 			//Check for PV moves (from TT)
 			if (PVMove != null) {
-				if (m1.equals(PVMove)) return -1;
-				if (m2.equals(PVMove)) return 1;
+				//The PV move goes first (when a move is compared with itself, neither does)
+				boolean m1PV = m1.equals(PVMove);
+				boolean m2PV = m2.equals(PVMove);
+				if (m1PV && !m2PV) return -1;
+				if (m2PV && !m1PV) return 1;
 			}
 			//Check for captures/promotions
 			if (m1.getVictim() != null || m1 instanceof PromotionMove) {
@@ -294,6 +370,20 @@ public class SmartPlayerNegamax extends Player
 		});
 	}
 	
+	/**
+	 * Checks if a side has pieces other than pawns and its king (without them, passing is often the
+	 * best move, so null moves can't be trusted)
+	 * @param board The board
+	 * @param color The side (1 - White, -1 - Black)
+	 * @return True if the side has a knight, bishop, rook or queen
+	 */
+	private static boolean hasNonPawnMaterial(Board board, int color)
+	{
+		Bitboard bb = board.getBitboard();
+		long pieces = bb.getPieceBB(Knight.ENUM) | bb.getPieceBB(Bishop.ENUM) | bb.getPieceBB(Rook.ENUM) | bb.getPieceBB(Queen.ENUM);
+		return (pieces & bb.colorBB[color == 1 ? 0 : 1]) != 0;
+	}
+
 	/**
 	 * Updates the counter table to the current move that produced a beta-cutoff
 	 * @param m The current move
@@ -343,18 +433,25 @@ public class SmartPlayerNegamax extends Player
 
 	/**
 	 * Helps retrieve an evaluation score, either from calculation or data file
-	 * @param compressedState The compressed version of the board
-	 * @return The ABSOLUTE evaluation (not relative)
+	 * @param zobristHash The Zobrist key of the board
+	 * @param occupied The occupied squares of the board
+	 * @return The state (see CompressionWriter.encodeState), or 0 if none
 	 * @throws IOException 
 	 */
-	private CompressionInfo retrieveEvaluation(CompressedBoard compressedState) throws IOException
+	private long retrieveEvaluation(long zobristHash, long occupied) throws IOException
 	{
-		CompressionInfo table_info = null;
 		//Check if leaf calculation already done
-		if (Compression.tableHasState(compressedState)) {
-			table_info = Compression.retrieveFromTable(compressedState);
-		}
-		return table_info;
+		return context.retrieveFromTable(zobristHash, occupied);
+	}
+
+	/**
+	 * Encodes a move for the state table
+	 * @param m The move (null if none)
+	 * @return The encoded move, 0 if none
+	 */
+	private static int encodeMove(Move m)
+	{
+		return m == null ? 0 : OpeningBook.encodeMove(m);
 	}
 
 
@@ -367,7 +464,7 @@ public class SmartPlayerNegamax extends Player
 	 * @return The evaluational value
 	 * @throws IOException
 	 */
-	private EvaluationInfo quiescence(int alpha, int beta, int color, int depth, int maxDepth, Move previousMove, boolean nullMoveSearch) throws IOException
+	private int quiescence(int alpha, int beta, int color, int depth, int maxDepth, Move previousMove) throws IOException
 	{
 		Board board = getBoard();
 		int plysLeft = maxDepth - depth;
@@ -376,9 +473,9 @@ public class SmartPlayerNegamax extends Player
 		
 		q_nodes++;
 
-		//Stand pat
-		EvaluationInfo absoluteEval = Evaluation.evaluate(board);
-		int evalScore = absoluteEval.value * color;
+		//Stand pat (lazy unless in check, where the score is not used as a bound)
+		int evalScore = inCheck ? Evaluation.lazyEvaluate(board, color, -INF, INF, lazyMaterialMargin, lazyPawnMargin, lazyTierCount)
+				: Evaluation.lazyEvaluate(board, color, alpha, beta, lazyMaterialMargin, lazyPawnMargin, lazyTierCount);
 		
 		boolean ableDeltaPrune = !inCheck && !Evaluation.isEndgame(board);
 
@@ -390,7 +487,7 @@ public class SmartPlayerNegamax extends Player
 			 */
 			
 			if (evalScore >= beta) {
-				return new EvaluationInfo(evalScore, absoluteEval.splits);
+				return evalScore;
 			}
 		
 			if (alpha < evalScore) {
@@ -412,25 +509,25 @@ public class SmartPlayerNegamax extends Player
 		{
 			if (inCheck)
 			{
-				return new EvaluationInfo(-INF + depth);
+				return -INF + depth;
 			}
 		}
 
 		//Check time break for iterative deepening
 		if (time_break) {
-			return new EvaluationInfo(10000);
+			return 10000;
 		}
 
 		//Delta Pruning
 		if (ableDeltaPrune && evalScore + QUIESCENCE_PRUNING_BIG_DELTA < alpha && USE_FUTILITY_PRUNING)
 		{
-			return new EvaluationInfo(evalScore, absoluteEval.splits);
+			return evalScore;
 		}
 		
 		//Sort the moves
 		sortMoves(moves, previousMove, plysLeft, null);
 		
-		EvaluationInfo value = new EvaluationInfo(evalScore, absoluteEval.splits);
+		int value = evalScore;
 		int alphaRaisedCount = 0;
 
 		//Searches through all captures (and promotions) (or all moves if in check)
@@ -450,15 +547,14 @@ public class SmartPlayerNegamax extends Player
 			board.executeMove(m);
 
 			if (board.getKing(pieceColor).inCheck()) throw new Error();
-			EvaluationInfo absoluteResult = quiescence(-beta, -alpha, -color, depth+1, maxDepth, m, nullMoveSearch);
-			int evalResult = -absoluteResult.value;
-			if (evalResult > value.value) value = new EvaluationInfo(evalResult, absoluteResult.splits);
+			int evalResult = -quiescence(-beta, -alpha, -color, depth+1, maxDepth, m);
+			if (evalResult > value) value = evalResult;
 
 			board.undoMove(m);
 			
-			if (value.value > alpha)
+			if (value > alpha)
 			{
-				alpha = value.value; alphaRaisedCount++;
+				alpha = value; alphaRaisedCount++;
 				
 				//Beta cutoff
 				if (alpha >= beta) {
@@ -477,15 +573,14 @@ public class SmartPlayerNegamax extends Player
 			for (Move m: checks) {
 				board.executeMove(m);
 
-				EvaluationInfo absoluteResult = quiescence(-beta, -alpha, -color, depth+1, maxDepth, m, nullMoveSearch);
-				int evalResult = -absoluteResult.value;
-				if (evalResult > value.value) value = new EvaluationInfo(evalResult, absoluteResult.splits);
+				int evalResult = -quiescence(-beta, -alpha, -color, depth+1, maxDepth, m);
+				if (evalResult > value) value = evalResult;
 
 				board.undoMove(m);
 				
-				if (value.value > alpha)
+				if (value > alpha)
 				{
-					alpha = value.value;
+					alpha = value;
 					
 					//Beta cutoff
 					if (alpha >= beta) {
@@ -516,24 +611,35 @@ public class SmartPlayerNegamax extends Player
 	 * @return The best score in the subtree
 	 * @throws IOException
 	 */
-	public EvaluationInfo negamax(int depth, int maxDepth, int alpha, int beta, int color, Move previousMove, long previousZobristHash, EvaluationLine currentLine, boolean nullMoveSearch, boolean allowNull) throws IOException
+	public int negamax(int depth, int maxDepth, int alpha, int beta, int color, Move previousMove, long previousZobristHash, boolean allowNull) throws IOException
 	{
 		int plysLeft = maxDepth - depth;
 		Color pieceColor = color == 1 ? Color.WHITE : Color.BLACK;
 		
 		Board board = getBoard();
 
+		//Start with an empty principal variation at this ply
+		pvLength[depth] = 0;
+		pvTag[depth] = 0;
+
 		//Check if kings eaten (for pseudo-move generation)
-		if (board.getPiecesOfType(6, pieceColor).isEmpty()) return new EvaluationInfo(-INF);
-		if (board.getPiecesOfType(6, Board.oppositeColor(pieceColor)).isEmpty()) return new EvaluationInfo(INF);
+		if (board.getPiecesOfType(6, pieceColor).isEmpty()) return -INF;
+		if (board.getPiecesOfType(6, Board.oppositeColor(pieceColor)).isEmpty()) return INF;
+
+		//Scheduled search: give the core to a more urgent search at every node checkpoint
+		if (scheduler != null && ++checkpointNodes >= SearchScheduler.CHECKPOINT_NODES)
+		{
+			checkpointNodes = 0;
+			scheduler.checkpoint(ticket, maxDepth);
+		}
 
 		//Iterative Deepening: If search runs over the play time limit, flag time_break and exit
 		//Don't cut time if haven't reached baseline depth
 		if (ITERATIVE_DEEPENING && maxDepth > baseline_depth)
 		{
-			if (time_break || System.currentTimeMillis()-timeStart >= PLAY_TIME) {
+			if (time_break || searchExpired()) {
 				time_break = true;
-				return new EvaluationInfo(10000);
+				return 10000;
 			}
 		}
 
@@ -546,11 +652,11 @@ public class SmartPlayerNegamax extends Player
 		{
 			if (inCheck)
 			{
-				return new EvaluationInfo(-INF + depth);
+				return -INF + depth;
 			}
 			else
 			{
-				return new EvaluationInfo(0);
+				return 0;
 			}
 		}
 
@@ -558,8 +664,7 @@ public class SmartPlayerNegamax extends Player
 		if (depth == maxDepth)
 		{
 			leafs++;
-			EvaluationInfo quieRet = quiescence(alpha, beta, color, depth, maxDepth, previousMove, nullMoveSearch);
-			return quieRet;
+			return quiescence(alpha, beta, color, depth, maxDepth, previousMove);
 			
 		}
 		
@@ -578,99 +683,118 @@ public class SmartPlayerNegamax extends Player
 		
 		if (plysLeft <= 2 && !inCheck && Math.abs(beta) < INF-1000 && USE_FUTILITY_PRUNING)
 		{
-			//Evaluation of current node for pruning purposes
-			EvaluationInfo absoluteEval = Evaluation.evaluate(board);
-			int evalScore = absoluteEval.value * color;
-			if (evalScore - (plysLeft == 2 ? NEGAMAX_FUTILITY_PREFRONTIER_MARGIN : NEGAMAX_FUTILITY_FRONTIER_MARGIN) >= beta)
+			//Evaluation of current node for pruning purposes (only needs to know if it clears beta + margin)
+			int margin = plysLeft == 2 ? NEGAMAX_FUTILITY_PREFRONTIER_MARGIN : NEGAMAX_FUTILITY_FRONTIER_MARGIN;
+			int evalScore = Evaluation.lazyEvaluate(board, color, beta + margin - 1, beta + margin, lazyMaterialMargin, lazyPawnMargin, lazyTierCount);
+			if (evalScore - margin >= beta)
 			{
-				currentLine.special = 5;
-				return new EvaluationInfo(evalScore, absoluteEval.splits);
+				pvTag[depth] = 5;
+				return evalScore;
 			}
 		}
 
-		//Probe the state table (transposition table)
-		CompressedBoard compressedState = null;
+		//Probe the state table (transposition table), by key and occupied squares so nothing is allocated
 		long zobristHash = 0L;
+		long occupied = 0L;
 		Move TTMove = null;
 
-		if (USE_TT_NEGAMAX && !nullMoveSearch) {
+		if (USE_TT_NEGAMAX) {
 
-			if (previousZobristHash == 0) compressedState = new CompressedBoard(board, color);
-			else compressedState = new CompressedBoard(board, previousZobristHash, previousMove, color); //Update previous hash
-			
-			zobristHash = compressedState.hashCode();
+			if (previousZobristHash == 0) zobristHash = Compression.compressState(board, color);
+			else zobristHash = Compression.updateZobristHash(board, color, previousZobristHash, previousMove); //Update previous hash
+			occupied = StateTable.occupiedSquares(board);
 
-			CompressionInfo table_info = retrieveEvaluation(compressedState);
-			if (table_info != null) 
+			long table_info = retrieveEvaluation(zobristHash, occupied);
+			if (table_info == 0 && depth <= PositionStore.PROBE_MAX_PLY) table_info = PositionStore.probe(zobristHash, occupied); //Results of earlier sessions
+			if (table_info != 0) 
 			{
-				if (table_info.depth >= plysLeft && depth > 0) { //Do not risk auto-return on root
+				int tableDepth = CompressionWriter.recordDepth(table_info);
+				int tableNodeType = CompressionWriter.recordNodeType(table_info);
+				int tableScore = CompressionWriter.recordScore(table_info);
+				if (tableDepth >= plysLeft && depth > 0) { //Do not risk auto-return on root
 					//PV Node (Exact)
-					if (table_info.nodeType == 1) {
+					if (tableNodeType == 1) {
 						nodesProcessedByTT++;
-						currentLine.special = 1;
-						return new EvaluationInfo(table_info.score);
+						pvTag[depth] = 1;
+						return tableScore;
 					}
 					//Upper Bound (<= alpha) (improves beta)
-					else if (table_info.nodeType == 2) {
-						if (table_info.score <= alpha) {
+					else if (tableNodeType == 2) {
+						if (tableScore <= alpha) {
 							nodesProcessedByTT++;
-							currentLine.special = 2;
-							return new EvaluationInfo(table_info.score);
+							pvTag[depth] = 2;
+							return tableScore;
 						}
 					}
 					//Lower Bound (>= beta) (improves alpha)
-					else if (table_info.nodeType == 3) {
-						if (table_info.score >= beta)
+					else if (tableNodeType == 3) {
+						if (tableScore >= beta)
 						{
 							nodesProcessedByTT++;
-							currentLine.special = 3;
-							return new EvaluationInfo(table_info.score);
+							pvTag[depth] = 3;
+							return tableScore;
 						}
 					}
 				}
-				TTMove = table_info.PVMove; //Regardless of depth, is a good starting point/approx. for move sorting
+				TTMove = OpeningBook.decodeMove(moves, CompressionWriter.recordMove(table_info)); //Regardless of depth, is a good starting point/approx. for move sorting
 			}
 		}
 
 		/*
-		 * Null Move Pruning (may slow the program down + very inaccurate at the moment)
+		 * Null Move Pruning: give the opponent a free move, if a reduced search still clears beta the
+		 * node is almost surely a cutoff
 		 * 
 		 * Conditions:
-		 * - NOT Frontier Node (plysLeft == 1)
+		 * - plysLeft >= NMP_MIN_PLYS
 		 * - NOT Root Node (depth == 0)
-		 * - NOT previous move is null
 		 * - NOT in check
-		 * - Must have pieces other than pawns (count > 4 ~~ 12pts = endgame)
+		 * - Beta is not close to mate value
+		 * - Has pieces other than pawns (king and pawn endings are where zugzwang is common)
 		 * - allowNull is true (don't allow 2 consecutive null moves)
+		 * - Static evaluation is at least beta
 		 */
-		
-		
-		int nonPawnPiecesCount = board.getPiecesOfType(Knight.ENUM, pieceColor).size() + 
-								 board.getPiecesOfType(Bishop.ENUM, pieceColor).size() + 
-								 board.getPiecesOfType(Rook.ENUM, pieceColor).size() +
-								 board.getPiecesOfType(Queen.ENUM, pieceColor).size();
-		
-		if (plysLeft > 1 && depth > 0 && previousMove != null && !inCheck && nonPawnPiecesCount > 4 && allowNull && USE_NMP)
+		if (USE_NMP && plysLeft >= NMP_MIN_PLYS && depth > 0 && !inCheck && allowNull && Math.abs(beta) < INF-1000 && hasNonPawnMaterial(board, color))
 		{
-			int R = plysLeft <= 3 ? 1 : (plysLeft <= 6 ? 3 : 4); //[2-3] -> R=1; [4-6] -> R=3; [7+] -> R=4
-			EvaluationInfo absoluteNullScore = negamax(depth+R,maxDepth,-beta,-alpha,-color,null,0,new EvaluationLine(null),true,false);
-			int nullScore = -absoluteNullScore.value;
-			//Cutoff if still better than beta
-			if (nullScore >= beta)
+			int evalScore = Evaluation.lazyEvaluate(board, color, beta - 1, beta + NMP_EVAL_STEP * NMP_MAX_EVAL_R, lazyMaterialMargin, lazyPawnMargin, lazyTierCount);
+			if (evalScore >= beta)
 			{
-				currentLine.special = 4;
-				return new EvaluationInfo(nullScore, absoluteNullScore.splits);
+				int R = NMP_BASE_R + plysLeft / NMP_DEPTH_DIVISOR + Math.min(NMP_MAX_EVAL_R, (evalScore - beta) / NMP_EVAL_STEP);
+				int nullDepth = Math.min(maxDepth, depth+1+R);
+
+				//Null make: the board stays as it is, only the color to play (and its key tag) flips
+				long nullHash = zobristHash == 0 ? 0 : Compression.nullMoveHash(zobristHash);
+				int nullScore = -negamax(nullDepth, maxDepth, -beta, -beta+1, -color, null, nullHash, false);
+				if (nullScore >= beta && !time_break)
+				{
+					if (nullScore >= INF-1000) nullScore = beta; //Mates found after passing aren't real
+
+					//Verify deep cutoffs with a reduced search of this node without null moves (catches zugzwang)
+					boolean verified = true;
+					if (plysLeft >= NMP_VERIFY_PLYS) {
+						int verifyScore = negamax(Math.min(maxDepth, depth+R), maxDepth, beta-1, beta, color, previousMove, previousZobristHash, false);
+						verified = verifyScore >= beta && !time_break;
+					}
+					if (verified) {
+						nullMoveCutoffs++;
+						pvLength[depth] = 0;
+						pvTag[depth] = 4;
+						if (USE_TT_NEGAMAX) context.addToTable(zobristHash, occupied, 3, plysLeft, nullScore, encodeMove(TTMove)); //Lower bound
+						return nullScore;
+					}
+				}
 			}
 		}
-		
 
-		//Sort the moves
-		sortMoves(moves, previousMove, plysLeft, TTMove);
-		EvaluationInfo value = new EvaluationInfo(-INF); boolean valueIsLMR = false; Move PVMove = null;
+		//Sort the moves (the root by what the previous iteration learned)
+		if (depth == 0) orderRootMoves(moves, previousMove, plysLeft, TTMove);
+		else sortMoves(moves, previousMove, plysLeft, TTMove);
+		int value = -INF; boolean valueIsLMR = false; Move PVMove = null;
 		int originalAlpha = alpha;
 		int movesSearched = 0;
+		int moveIndex = -1;
 		for (Move m : moves)
 		{
+			moveIndex++;
 			//Don't consider this move if it draws (for immediate move)
 			if (depth == 0) {
 				if (m.equals(prevMoves[1]) && prevMoves[1].equals(prevMoves[3]) && prevMoves[0].equals(prevMoves[2])) {
@@ -679,9 +803,13 @@ public class SmartPlayerNegamax extends Player
 			}
 			
 
-			EvaluationLine childLine = new EvaluationLine(null);
-			EvaluationInfo absoluteChild = null;
 			int childValue = 0;
+			int childDepth = depth+1; //Ply of the child whose principal variation is kept
+
+			//At the root, the moves within the root margin of the best one and the best multiPV moves must
+			//get exact scores, so they're searched with a lower alpha
+			int childAlpha = depth == 0 ? rootAlpha(alpha) : alpha;
+			long nodesBefore = inner_nodes + q_nodes;
 
 			board.executeMove(m);
 			
@@ -705,33 +833,38 @@ public class SmartPlayerNegamax extends Player
 				if (!checksOpponent) {
 					//Try move at a reduced depth (-1 for movesSearched <= 6 then (plys+1)/3 for the rest)
 					int R = movesSearched <= 6 ? 1 : (plysLeft+1)/3;
-					absoluteChild = negamax(depth+1+R, maxDepth, -beta, -alpha, -color, m, zobristHash, childLine,nullMoveSearch,true);
-					childValue = -absoluteChild.value;
-					if (childValue <= alpha)
+					childValue = -negamax(depth+1+R, maxDepth, -beta, -childAlpha, -color, m, zobristHash, true);
+					if (childValue <= childAlpha)
 					{
 						LMRsuccess = true;
+						childDepth = depth+1+R;
 					}
 				}
 			}
 			
 
-			if (!LMRsuccess) {
+			if (!LMRsuccess && depth == 0 && childAlpha < alpha && childAlpha > -INF) {
+				//Lowered root alpha: a null window first shows if the move gets above it, only then is the score needed
+				childValue = -negamax(depth+1, maxDepth, -childAlpha-1, -childAlpha, -color, m, zobristHash, true);
+				if (childValue > childAlpha) {
+					childValue = -negamax(depth+1, maxDepth, -beta, -childAlpha, -color, m, zobristHash, true);
+				}
+			}
+			else if (!LMRsuccess) {
 				//Regular search
-				absoluteChild = negamax(depth+1, maxDepth, -beta, -alpha, -color, m, zobristHash, childLine,nullMoveSearch,true);
-				childValue = -absoluteChild.value;
+				childValue = -negamax(depth+1, maxDepth, -beta, -childAlpha, -color, m, zobristHash, true);
 			}
 			
 
 			board.undoMove(m);
 
 			//Check if this move's evaluation is better than the current best
-			if (childValue > value.value)
+			if (childValue > value)
 			{
-				value = new EvaluationInfo(childValue, absoluteChild.splits); valueIsLMR = LMRsuccess;
+				value = childValue; valueIsLMR = LMRsuccess;
 				
 				//Update the current line if found better move
-				currentLine.bestMove = m;
-				currentLine.next = childLine;
+				updatePV(depth, childDepth, m);
 			}
 			
 			/*
@@ -741,21 +874,17 @@ public class SmartPlayerNegamax extends Player
 			}
 			*/
 			
-			//Debug All Lines Output
-			if (SHOW_DETAILED_LINES && depth == 0)
+			//Root move data for the next iteration's ordering and the detailed output
+			if (depth == 0)
 			{
-				double adjustedEval = (childValue * color) / 100.0;
-				String evalPrint = (adjustedEval == 0 ? "" : (adjustedEval > 0 ? "+" : "-")) + Math.abs(adjustedEval);
-				detailedLines += ("Line (" + evalPrint + "): "); //+ "SEE=" + (m.getVictim() != null ? Evaluation.SEE(board, m) : 0) + " ");
-				detailedLines += (m.toStandardNotation()) + " ";
-				detailedLines += (childLine) + "\n";
+				recordRootMove(rootTable.get(moveIndex), childValue, childDepth, childValue > childAlpha, inner_nodes + q_nodes - nodesBefore);
 			}
 			
 			
 			//Update alpha, update bestMove, and check beta cutoff (too good, opponent won't play this)
-			if (value.value > alpha)
+			if (value > alpha)
 			{
-				alpha = value.value;
+				alpha = value;
 				PVMove = m;
 
 				//Beta-cutoff
@@ -772,22 +901,174 @@ public class SmartPlayerNegamax extends Player
 		if (depth == 0) bestMove = PVMove;
 		
 		//TT Store
-		if (USE_TT_NEGAMAX && !nullMoveSearch && !time_break && !valueIsLMR) {
-			if (value.value <= originalAlpha) {
+		if (USE_TT_NEGAMAX && !time_break && !valueIsLMR) {
+			if (value <= originalAlpha) {
 				//Fail-low (<= alpha)
-				Compression.addToTable(compressedState, 2, plysLeft, value.value, PVMove);
+				context.addToTable(zobristHash, occupied, 2, plysLeft, value, encodeMove(PVMove));
 			}
-			else if (value.value >= beta) {
+			else if (value >= beta) {
 				//Fail-high (alpha-beta cutoff, >= beta)
-				Compression.addToTable(compressedState, 3, plysLeft, value.value, PVMove);
+				context.addToTable(zobristHash, occupied, 3, plysLeft, value, encodeMove(PVMove));
 			}
 			else {
 				//Exact score: alpha < score < beta
-				Compression.addToTable(compressedState, 1, plysLeft, value.value, PVMove);
+				context.addToTable(zobristHash, occupied, 1, plysLeft, value, encodeMove(PVMove));
 			}
 		}
 		return value;
 	}
+	/**
+	 * Checks if the search has run out of time or nodes, or has been asked to stop
+	 * @return True if the search should end
+	 */
+	private boolean searchExpired()
+	{
+		if (stopRequested) return true;
+		long now = System.currentTimeMillis();
+		if (searchDeadline > 0 ? now >= searchDeadline : now - timeStart >= PLAY_TIME) return true;
+		return nodeLimit > 0 && searchedNodes + inner_nodes + q_nodes >= nodeLimit;
+	}
+
+	/**
+	 * Sets the principal variation of a ply to a move followed by the principal variation of its child
+	 * @param depth The current ply
+	 * @param childDepth The ply the child was searched at
+	 * @param m The move leading to the child
+	 */
+	private void updatePV(int depth, int childDepth, Move m)
+	{
+		int length = pvLength[childDepth];
+		pvTable[depth][0] = m;
+		System.arraycopy(pvTable[childDepth], 0, pvTable[depth], 1, length);
+		pvLength[depth] = length + 1;
+		pvTag[depth] = pvTag[childDepth];
+	}
+
+	/**
+	 * Gets the alpha the next root move is searched with: the root's alpha, lowered by the root margin,
+	 * and lowered to the score of the multiPV-th best root move so far (so the best multiPV moves all get
+	 * exact scores)
+	 * @param alpha The alpha of the root
+	 * @return The alpha of the root move
+	 */
+	private int rootAlpha(int alpha)
+	{
+		long lowered = rootMargin > 0 ? Math.max(-INF, (long) alpha - rootMargin) : alpha;
+		//The multiPV-th best exact score of the moves searched so far (-INF while there are fewer)
+		if (multiPV > 1) lowered = Math.min(lowered, rootBestScores[multiPV-1]);
+		return (int) lowered;
+	}
+
+	/**
+	 * Orders the root moves: by the root table if an earlier iteration searched this position (see
+	 * RootMove), otherwise like any other node, starting a new root table
+	 * @param moves The root moves, reordered in place
+	 * @param previousMove The move before the root (null if unknown)
+	 * @param plysLeft The plys left to search
+	 * @param TTMove The move of the state table (null if none)
+	 */
+	private void orderRootMoves(ArrayList<Move> moves, Move previousMove, int plysLeft, Move TTMove)
+	{
+		Arrays.fill(rootBestScores, -INF);
+		if (rootTableKey == rootKey && rootTable.size() == moves.size()) {
+			Collections.sort(rootTable);
+			moves.clear();
+			for (RootMove root: rootTable)
+			{
+				root.previousScore = root.score;
+				root.searched = false;
+				moves.add(root.move);
+			}
+			return;
+		}
+		sortMoves(moves, previousMove, plysLeft, TTMove);
+		rootTable.clear();
+		rootTableKey = rootKey;
+		for (Move m: moves) rootTable.add(new RootMove(m, MAX_PLY));
+	}
+
+	/**
+	 * Records what a search of a root move found, for the next iteration's ordering and the detailed output
+	 * @param root The root move
+	 * @param score The score of the move
+	 * @param childDepth The ply the move's child was searched at
+	 * @param exact True if the score is exact, false if it's an upper bound
+	 * @param nodes The nodes of the move's subtree
+	 */
+	private void recordRootMove(RootMove root, int score, int childDepth, boolean exact, long nodes)
+	{
+		root.score = score;
+		root.exact = exact;
+		root.searched = true;
+		root.nodes = nodes;
+		root.lineLength = pvLength[childDepth];
+		root.lineTag = pvTag[childDepth];
+		System.arraycopy(pvTable[childDepth], 0, root.line, 0, pvLength[childDepth]);
+
+		//Insert the score into the best exact scores of this pass
+		int last = rootBestScores.length - 1;
+		if (!exact || score <= rootBestScores[last]) return;
+		int j = last;
+		while (j > 0 && rootBestScores[j-1] < score) {
+			rootBestScores[j] = rootBestScores[j-1];
+			j--;
+		}
+		rootBestScores[j] = score;
+	}
+
+	/**
+	 * Formats a line of moves with its ending tag
+	 * @param line The moves
+	 * @param length The number of moves in the line
+	 * @param tag The tag of the line's last node
+	 * @return The line in standard notation
+	 */
+	private static String formatLine(Move[] line, int length, int tag)
+	{
+		StringBuilder out = new StringBuilder();
+		for (int i=0;i<length;i++) {
+			out.append(line[i].toStandardNotation()).append(' ');
+		}
+		out.append(LINE_TAGS[tag]);
+		return out.toString();
+	}
+
+	/**
+	 * Formats an evaluation in pawns with its sign
+	 * @param score The absolute evaluation (positive favoring white)
+	 * @return The formatted evaluation
+	 */
+	private static String formatEval(int score)
+	{
+		double adjustedEval = score / 100.0;
+		return (adjustedEval == 0 ? "" : (adjustedEval > 0 ? "+" : "-")) + Math.abs(adjustedEval);
+	}
+
+	/**
+	 * Fully evaluates the position at the end of the main line by playing it out on the board
+	 * @return The full evaluation (with splits) of the final position
+	 */
+	private EvaluationInfo evaluateMainLine()
+	{
+		Board board = getBoard();
+		int length = pvLength[0];
+		for (int i=0;i<length;i++) board.executeMove(pvTable[0][i]);
+		EvaluationInfo eval = Evaluation.evaluateDetailed(board);
+		for (int i=length-1;i>=0;i--) board.undoMove(pvTable[0][i]);
+		return eval;
+	}
+
+	/**
+	 * Formats a count as a percentage of a total
+	 * @param count The count
+	 * @param total The total
+	 * @return The percentage string
+	 */
+	private static String percent(long count, long total)
+	{
+		return (total == 0 ? 0 : Math.round(count * 1000.0 / total) / 10.0) + "%";
+	}
+
 	/**
 	 * Procedure to run negamax on a certain depth
 	 * @return The debug output of the run
@@ -802,44 +1083,62 @@ public class SmartPlayerNegamax extends Player
 		q_nodes = 0;
 		total_nodes = 0;
 		nodesProcessedByTT = 0;
+		nullMoveCutoffs = 0;
+		lazyTierCount = new long[3];
+		getBoard().getPawnHashTable().hits = 0;
+		getBoard().getPawnHashTable().misses = 0;
 		timeStart = System.currentTimeMillis();
-		detailedLines = "";
+		rootKey = Compression.compressState(getBoard(), color);
 		time_break = false;
 
 		//Initialize heuristics/debug
-		EvaluationInfo score;
-		EvaluationLine PVLine = new EvaluationLine(null);
+		int score;
 		counterMove = new Move[8][8][8][8];
 		killerMove = new Move[32][2];
+		long allocationStart = ThreadStats.getAllocatedBytes();
 
 		//Run negamax
 		try
 		{
-			score = negamax(0, depth, -INF, INF, color, null, 0, PVLine, false, false);
+			score = negamax(0, depth, -INF, INF, color, null, 0, false);
 		}
 		catch (IOException e)
 		{
-			score = new EvaluationInfo(0);
+			score = 0;
 		}
+		long allocated = ThreadStats.getAllocatedBytes() - allocationStart;
+		lastScore = score;
+		if (time_break) rootTableKey = 0; //Partly searched, its order isn't worth keeping
 
 		//Debug printing
 		total_nodes = inner_nodes + q_nodes; //No leaf nodes because q_nodes includes leafs
+		if (!buildReport) return "";
+		
+		long totalEvals = lazyTierCount[0] + lazyTierCount[1] + lazyTierCount[2];
+		PawnHashTable pawnHash = getBoard().getPawnHashTable();
 		
-		double adjustedEval = (score.value * color) / 100.0;
-		String evalPrint = (adjustedEval == 0 ? "" : (adjustedEval > 0 ? "+" : "-")) + Math.abs(adjustedEval);
+		String evalPrint = formatEval(score * color);
 		
 		String output = "";
 		
 		if (SHOW_LINES) {
 			if (SHOW_DETAILED_LINES)
 			{
+				StringBuilder detailedLines = new StringBuilder();
+				for (RootMove root: rootTable)
+				{
+					if (!root.searched) continue;
+					detailedLines.append("Line (").append(formatEval(root.score * color)).append("): ");
+					detailedLines.append(root.move.toStandardNotation()).append(' ');
+					detailedLines.append(formatLine(root.line, root.lineLength, root.lineTag)).append('\n');
+				}
 				output += ("\nDetailed Lines -> \n");
 				output += (detailedLines+"\n");
 				output += ("Best -> \n");
 			}
 			
 			output += ("Main Line (" + evalPrint + "): ");
-			output += (PVLine + "\n");
+			output += (formatLine(pvTable[0], pvLength[0], pvTag[0]) + "\n");
 		}
 		
 		output += (moveCount
@@ -851,20 +1150,31 @@ public class SmartPlayerNegamax extends Player
 				+ " | Quies: " + q_nodes
 				+ " | Total: " + total_nodes
 				+ " | From TT: " + nodesProcessedByTT
+				+ " | Null Cutoffs: " + nullMoveCutoffs
+				+ " || "
+				+ "\nLazy Eval:"
+				+ " | Evals: " + totalEvals
+				+ " | Skipped Attacks: " + percent(lazyTierCount[0] + lazyTierCount[1], totalEvals)
+				+ " (Tier 1: " + percent(lazyTierCount[0], totalEvals)
+				+ ", Tier 2: " + percent(lazyTierCount[1], totalEvals) + ")"
+				+ " | Pawn Hash Hits: " + percent(pawnHash.hits, pawnHash.hits + pawnHash.misses)
 				+ " || "
 				+ "\nGeneral:"
 				+ " | Time Elapsed: " + (System.currentTimeMillis() - timeStart) / 1000.0 + "s"
+				+ " | Allocated: " + (total_nodes == 0 ? 0 : allocated / total_nodes) + " B/node"
 				+ " | Depth: " + depth)
 				+ "\n"
 				+ "\n<<Detailed Evaluation>>";
-		if (!score.splits.isEmpty()) output += 
-				("\nMaterial: " + (score.splits.get(0))/100.0
-				+ "\nPosition: " + (score.splits.get(1))/100.0
-				+ "\nBishop Pair: " + (score.splits.get(2))/100.0
-				+ "\nKing Safety: " + (score.splits.get(3))/100.0
-				+ "\nPawn Structure: " + (score.splits.get(4))/100.0
-				+ "\nDevelopment: " + (score.splits.get(5))/100.0
-				+ "\nMobility: " + (score.splits.get(6))/100.0);
+		//Leaf evaluations are lazy, so the breakdown is calculated once at the end of the main line
+		EvaluationInfo leafEval = evaluateMainLine();
+		output += 
+				("\nMaterial: " + (leafEval.splits.get(0))/100.0
+				+ "\nPosition: " + (leafEval.splits.get(1))/100.0
+				+ "\nBishop Pair: " + (leafEval.splits.get(2))/100.0
+				+ "\nKing Safety: " + (leafEval.splits.get(3))/100.0
+				+ "\nPawn Structure: " + (leafEval.splits.get(4))/100.0
+				+ "\nDevelopment: " + (leafEval.splits.get(5))/100.0
+				+ "\nMobility: " + (leafEval.splits.get(6))/100.0);
 		
 		
 		return output;
@@ -882,16 +1192,42 @@ public class SmartPlayerNegamax extends Player
 		
 		
 		//[Opening]\\
-		if (currentOpening != null)
+		Move bookMove = context.usesBook() ? OpeningBook.probe(board, getColor()) : null;
+		if (bookMove != null)
 		{
-			currentOpening = Opening.getNextNode(board, getColor(), currentOpening);
-			System.out.println(currentOpening);
-			if (currentOpening != null) return currentOpening.getMove();
+			System.out.println("BOOK: " + bookMove.toStandardNotation());
+			return bookMove;
+		}
+
+		//[Book Leaf]\\ Answer from the precomputed search if it's deep enough, otherwise seed the state table with it
+		//(not for a weakened player, whose move must come from its own node budget)
+		CompressionInfo leaf = context.usesBook() && skill == null ? LeafCache.probe(board, getColor()) : null;
+		if (leaf != null)
+		{
+			System.out.println("LEAF: " + leaf.PVMove.toStandardNotation() + " (depth " + leaf.depth + ", " + formatEval(leaf.score * numColor) + ")");
+			if (leaf.depth >= PLAY_DEPTH) return leaf.PVMove;
+			try
+			{
+				context.addToTable(Compression.compressState(board, numColor), StateTable.occupiedSquares(board), leaf.nodeType, leaf.depth, leaf.score, encodeMove(leaf.PVMove));
+			}
+			catch (IOException e)
+			{
+			}
+		}
+
+		//[Skill Level]\\ Weakened player: a search on the level's node budget
+		if (skill != null)
+		{
+			bestMove = searchWithLimits(MAX_SEARCH_DEPTH, 0, 0, null);
+			System.out.println(getName() + " (skill " + skill.level + "): " + (bestMove == null ? "none" : bestMove.toStandardNotation())
+					+ " | Nodes: " + searchedNodes);
+			return recordPlayedMove();
 		}
 
 		//[Run Search]\\
 
 		String runInfo = null;
+		stopRequested = false;
 		
 		//Iterative Deepening approach, cap out at certain time
 		runInfo = runNegamax(PLAY_DEPTH, numColor);
@@ -934,7 +1270,15 @@ public class SmartPlayerNegamax extends Player
 		//Print search debug output
 		System.out.println(runInfo);
 
-		
+		return recordPlayedMove();
+	}
+
+	/**
+	 * Remembers the chosen move as played (for repetition avoidance and the move count)
+	 * @return The chosen move
+	 */
+	private Move recordPlayedMove()
+	{
 		//Update previous moves
 		for (int i=prevMoves.length-1;i>=1;i--) {
 			prevMoves[i] = prevMoves[i-1];
@@ -946,9 +1290,225 @@ public class SmartPlayerNegamax extends Player
 		
 		//Add to move queue
 		return bestMove;
-		
 	}
 	
+	/**
+	 * Searches the current position to a fixed depth (no opening book, no iterative deepening, and no
+	 * search report, so timing the call times the search alone). The root isn't ordered by an earlier
+	 * search of the position, so repeating the call repeats the same search
+	 * @param depth The search depth
+	 * @return The best move
+	 */
+	public Move searchFixedDepth(int depth)
+	{
+		rootTableKey = 0;
+		buildReport = false;
+		runNegamax(depth, getColor().equals(Color.WHITE) ? 1 : -1);
+		buildReport = true;
+		return bestMove;
+	}
+
+	/**
+	 * Gets the number of nodes visited by the last search (inner and quiescence nodes)
+	 * @return The node count
+	 */
+	public long getNodeCount()
+	{
+		return total_nodes;
+	}
+
+	/**
+	 * Searches with iterative deepening until a depth, time or node limit is reached or the search
+	 * is stopped (depth 1, or the minimum depth of a scheduled search, always completes, and an
+	 * interrupted iteration is discarded)
+	 * @param maxDepth The maximum depth
+	 * @param timeLimit The time limit in milliseconds (0 - none)
+	 * @param nodeLimit The node limit (0 - none)
+	 * @param listener Notified after every completed iteration (may be null)
+	 * @return The best move of the last completed iteration
+	 */
+	public Move searchWithLimits(int maxDepth, long timeLimit, long nodeLimit, SearchListener listener)
+	{
+		boolean oldDeepening = ITERATIVE_DEEPENING;
+		int oldBaselineDepth = baseline_depth;
+		ITERATIVE_DEEPENING = true;
+		baseline_depth = ticket == null ? 1 : Math.max(1, ticket.minimumDepth); //Never cut short
+		buildReport = false;
+		stopRequested = false; //A stop asked of an earlier search doesn't carry over
+		long start = System.currentTimeMillis();
+		this.searchDeadline = timeLimit > 0 ? start + timeLimit : Long.MAX_VALUE;
+		this.nodeLimit = skill == null ? nodeLimit : nodeLimit > 0 ? Math.min(nodeLimit, skill.nodes) : skill.nodes;
+		this.searchedNodes = 0;
+		rootMargin = skill == null ? 0 : skill.margin;
+		completedRootCount = 0;
+		multiPVOrder = new int[0];
+
+		int color = getColor().equals(Color.WHITE) ? 1 : -1;
+		Move best = null;
+		int bestScore = 0;
+		for (int depth=1;depth<=Math.min(maxDepth, MAX_SEARCH_DEPTH);depth++)
+		{
+			runNegamax(depth, color);
+			if (time_break || bestMove == null) break;
+			best = bestMove;
+			bestScore = lastScore;
+			searchedNodes += total_nodes;
+			completeRootMoves();
+			if (listener != null) listener.iterationComplete(this, depth, searchedNodes, System.currentTimeMillis() - start);
+			if (depth >= baseline_depth && searchExpired()) break;
+		}
+
+		lastScore = bestScore; //Score of the last completed iteration, not the discarded one
+		if (skill != null && best != null) best = skill.pickMove(completedRootMoves, completedRootScores, completedRootExact, completedRootCount, bestScore, best);
+		ITERATIVE_DEEPENING = oldDeepening;
+		baseline_depth = oldBaselineDepth;
+		buildReport = true;
+		rootMargin = 0;
+		searchDeadline = 0;
+		this.nodeLimit = 0;
+		return best;
+	}
+
+	/**
+	 * Keeps the root moves of a completed iteration, with the best multiPV exact ones in order
+	 */
+	private void completeRootMoves()
+	{
+		ArrayList<RootMove> searched = new ArrayList<>();
+		ArrayList<Integer> exact = new ArrayList<>();
+		for (RootMove root: rootTable)
+		{
+			if (!root.searched) continue;
+			int i = searched.size();
+			searched.add(root);
+			completedRootMoves[i] = root.move;
+			completedRootScores[i] = root.score;
+			completedRootExact[i] = root.exact;
+			if (root.exact) exact.add(i);
+		}
+		completedRootCount = searched.size();
+
+		exact.sort((a, b) -> Integer.compare(completedRootScores[b], completedRootScores[a]));
+		multiPVOrder = new int[Math.min(multiPV, exact.size())];
+		for (int k=0;k<multiPVOrder.length;k++)
+		{
+			int i = exact.get(k);
+			RootMove root = searched.get(i);
+			multiPVOrder[k] = i;
+			completedRootLines[i] = new Move[root.lineLength + 1];
+			completedRootLines[i][0] = root.move;
+			System.arraycopy(root.line, 0, completedRootLines[i], 1, root.lineLength);
+		}
+	}
+
+	/**
+	 * Sets the number of best root moves that searches with limits score exactly, each with its line
+	 * (MultiPV), all in one search of the root
+	 * @param lines The number of lines (1 for the best move only)
+	 */
+	public void setMultiPV(int lines)
+	{
+		multiPV = Math.max(1, Math.min(MAX_ROOT_MOVES, lines));
+		rootBestScores = new int[multiPV];
+	}
+
+	/**
+	 * Gets the number of lines of the last completed iteration (at most the MultiPV setting, fewer if
+	 * the position has fewer moves)
+	 * @return The number of lines
+	 */
+	public int getMultiPVCount()
+	{
+		return multiPVOrder.length;
+	}
+
+	/**
+	 * Gets a line of the last completed iteration
+	 * @param index The rank of the line (0 is the best)
+	 * @return The root move followed by its principal variation
+	 */
+	public Move[] getMultiPVLine(int index)
+	{
+		return completedRootLines[multiPVOrder[index]];
+	}
+
+	/**
+	 * Gets the exact score of a line of the last completed iteration
+	 * @param index The rank of the line (0 is the best)
+	 * @return The score from the perspective of the color to move
+	 */
+	public int getMultiPVScore(int index)
+	{
+		return completedRootScores[multiPVOrder[index]];
+	}
+
+	/**
+	 * Weakens the player to a skill level (its searches get the level's node budget and pick among
+	 * the near-best moves)
+	 * @param skill The skill level, or null for full strength
+	 */
+	public void setSkillLevel(SkillLevel skill)
+	{
+		this.skill = skill;
+	}
+
+	/**
+	 * Makes the searches of this player share the cores through a scheduler (the minimum depth of
+	 * the ticket is searched whatever the limits)
+	 * @param scheduler The scheduler, or null to search without one
+	 * @param ticket The ticket of the next search
+	 */
+	public void setScheduling(SearchScheduler scheduler, SearchTicket ticket)
+	{
+		this.scheduler = scheduler;
+		this.ticket = ticket;
+	}
+
+	/**
+	 * Asks a running search to stop as soon as possible (thread-safe)
+	 */
+	public void requestStop()
+	{
+		stopRequested = true;
+	}
+
+	public EngineContext getContext()
+	{
+		return context;
+	}
+
+	/**
+	 * Gets the score of the last search
+	 * @return The score from the perspective of the color to move
+	 */
+	public int getLastScore()
+	{
+		return lastScore;
+	}
+
+	/**
+	 * Gets the main line of the last search
+	 * @return The moves of the principal variation
+	 */
+	public Move[] getPrincipalVariation()
+	{
+		Move[] line = new Move[pvLength[0]];
+		System.arraycopy(pvTable[0], 0, line, 0, line.length);
+		return line;
+	}
+
+	/**
+	 * Converts a score into moves to mate
+	 * @param score The score
+	 * @return The moves to mate (negative if getting mated), or 0 if the score isn't a mate score
+	 */
+	public static int getMateDistance(int score)
+	{
+		if (Math.abs(score) < INF - 1000) return 0;
+		int plies = INF - Math.abs(score);
+		return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+	}
+
 	/**
 	 * Prints information about the settings of this player
 	 */
@@ -956,7 +1516,7 @@ public class SmartPlayerNegamax extends Player
 		System.out.println("----- AI Settings -----");
 		System.out.println("INITIAL DEPTH: " + (PLAY_DEPTH));
 		System.out.println("PLAY TIME CUTOFF: " + PLAY_TIME);
-		Compression.printDataDetails();
+		context.printDataDetails();
 		
 	}
 
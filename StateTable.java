@@ -0,0 +1,210 @@
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The state table (transposition table) of an engine context, kept in one array of longs so that
+ * probing and storing a state allocates nothing
+ *
+ * Every entry is three longs: the checked key (Zobrist key ^ state ^ occupied squares), the state
+ * (packed like the second long of a CompressionWriter record) and the occupied squares of the
+ * position, which rejects the rare Zobrist key collision. Searches read and write entries without
+ * locks: an entry torn by two writers fails the key check and reads as a miss. A state is never 0 (the
+ * node type is at least 1), so 0 marks an empty entry
+ *
+ * Entries are grouped in buckets of BUCKET_SIZE picked by the key. The table starts small and doubles
+ * as it fills, up to the capacity; a full bucket replaces its shallowest entry
+ *
+ * @author Victor Gong
+ * @version 10/19/2026
+ */
+public final class StateTable
+{
+	public static final int ENTRY_BYTES = 24;
+	private static final int BUCKET_SIZE = 4; //Entries per bucket
+	private static final int MIN_BUCKETS = 1 << 10;
+
+	private volatile long[] entries;
+	private volatile int maxBuckets; //Buckets of a table at full capacity (a power of two)
+	private final AtomicInteger size = new AtomicInteger();
+
+	/**
+	 * @param capacity The maximum number of states
+	 */
+	public StateTable(int capacity)
+	{
+		maxBuckets = bucketsOf(capacity);
+		entries = new long[Math.min(MIN_BUCKETS, maxBuckets) * BUCKET_SIZE * 3];
+	}
+
+	/**
+	 * Gets the occupied squares of a board (part of the check of an entry)
+	 * @param board The board
+	 * @return The occupied squares
+	 */
+	public static long occupiedSquares(Board board)
+	{
+		return board.getBitboard().colorBB[0] | board.getBitboard().colorBB[1];
+	}
+
+	/**
+	 * Converts a number of states into a number of buckets
+	 * @param capacity The number of states
+	 * @return The largest power of two of buckets that holds at most that many states (at least 1)
+	 */
+	private static int bucketsOf(int capacity)
+	{
+		return Integer.highestOneBit(Math.max(1, capacity / BUCKET_SIZE));
+	}
+
+	/**
+	 * Gets the index of the first entry of the bucket of a key
+	 * @param table The entries
+	 * @param key The Zobrist key
+	 * @return The index
+	 */
+	private static int bucketOf(long[] table, long key)
+	{
+		int buckets = table.length / (BUCKET_SIZE * 3);
+		return ((int) (key ^ key >>> 32) & (buckets - 1)) * BUCKET_SIZE * 3;
+	}
+
+	/**
+	 * Looks up a state
+	 * @param key The Zobrist key of the state
+	 * @param occupied The occupied squares of the state
+	 * @return The state, or 0 if it isn't in the table
+	 */
+	public long probe(long key, long occupied)
+	{
+		long[] table = entries;
+		int bucket = bucketOf(table, key);
+		for (int i=bucket;i<bucket+BUCKET_SIZE*3;i+=3)
+		{
+			long data = table[i+1], entryOccupied = table[i+2];
+			if (data != 0 && entryOccupied == occupied && (table[i] ^ data ^ entryOccupied) == key) return data;
+		}
+		return 0;
+	}
+
+	/**
+	 * Stores a state. A state already in the table is only replaced by a search at least as deep,
+	 * and never when it's a PV node
+	 * @param key The Zobrist key of the state
+	 * @param occupied The occupied squares of the state
+	 * @param data The state (see CompressionWriter.encodeState)
+	 * @return True if the state was stored
+	 */
+	public boolean store(long key, long occupied, long data)
+	{
+		long[] table = entries;
+		int bucket = bucketOf(table, key);
+		int depth = CompressionWriter.recordDepth(data);
+		int empty = -1, shallowest = -1;
+		for (int i=bucket;i<bucket+BUCKET_SIZE*3;i+=3)
+		{
+			long entryData = table[i+1], entryOccupied = table[i+2];
+			if (entryData == 0) {
+				if (empty < 0) empty = i;
+				continue;
+			}
+			if (entryOccupied == occupied && (table[i] ^ entryData ^ entryOccupied) == key) {
+				//Don't replace a deeper search (more accurate) or a PV node
+				if (CompressionWriter.recordDepth(entryData) > depth || CompressionWriter.recordNodeType(entryData) == 1) return false;
+				write(table, i, key, occupied, data);
+				return true;
+			}
+			if (shallowest < 0 || CompressionWriter.recordDepth(entryData) < CompressionWriter.recordDepth(table[shallowest+1])) shallowest = i;
+		}
+
+		if (empty >= 0) {
+			write(table, empty, key, occupied, data);
+			if (size.incrementAndGet() > table.length / 4 && table.length / (BUCKET_SIZE * 3) < maxBuckets) grow(table); //3/4 full
+			return true;
+		}
+		if (CompressionWriter.recordDepth(table[shallowest+1]) > depth) return false;
+		write(table, shallowest, key, occupied, data);
+		return true;
+	}
+
+	private static void write(long[] table, int i, long key, long occupied, long data)
+	{
+		table[i+1] = data;
+		table[i+2] = occupied;
+		table[i] = key ^ data ^ occupied;
+	}
+
+	/**
+	 * Doubles the table, if it's still the given one and below the capacity (stores that race the
+	 * copy may be lost, which is fine for a cache)
+	 * @param table The entries that filled up
+	 */
+	private synchronized void grow(long[] table)
+	{
+		int buckets = table.length / (BUCKET_SIZE * 3);
+		if (table != entries || buckets >= maxBuckets) return;
+
+		long[] grown = new long[table.length * 2];
+		int count = 0;
+		for (int i=0;i<table.length;i+=3)
+		{
+			if (table[i+1] == 0) continue;
+			long key = table[i] ^ table[i+1] ^ table[i+2];
+			int bucket = bucketOf(grown, key);
+			for (int j=bucket;j<bucket+BUCKET_SIZE*3;j+=3)
+			{
+				if (grown[j+1] != 0) continue;
+				System.arraycopy(table, i, grown, j, 3);
+				count++;
+				break;
+			}
+		}
+		entries = grown;
+		size.set(count);
+	}
+
+	/**
+	 * Sets the maximum number of states (a table over it starts again empty)
+	 * @param capacity The maximum number of states
+	 */
+	public synchronized void setCapacity(int capacity)
+	{
+		maxBuckets = bucketsOf(capacity);
+		if (entries.length / (BUCKET_SIZE * 3) > maxBuckets) {
+			entries = new long[maxBuckets * BUCKET_SIZE * 3];
+			size.set(0);
+		}
+	}
+
+	public int size()
+	{
+		return size.get();
+	}
+
+	/**
+	 * Empties the table (keeps its size, so the next search doesn't grow it again)
+	 */
+	public synchronized void clear()
+	{
+		Arrays.fill(entries, 0);
+		size.set(0);
+	}
+
+	/**
+	 * Copies out the states of the table
+	 * @return The states as {key, state, occupied} triples, one after another
+	 */
+	public long[] export()
+	{
+		long[] table = entries;
+		long[] states = new long[table.length];
+		int n = 0;
+		for (int i=0;i<table.length;i+=3)
+		{
+			if (table[i+1] == 0) continue;
+			states[n++] = table[i] ^ table[i+1] ^ table[i+2];
+			states[n++] = table[i+1];
+			states[n++] = table[i+2];
+		}
+		return Arrays.copyOf(states, n);
+	}
+}
@@ -0,0 +1,238 @@
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * An immutable, sorted segment file of the position store, memory-mapped for reading, with a Bloom
+ * filter kept in memory so that keys that aren't in the segment are rejected without reading it
+ *
+ * File layout (big-endian):
+ *    Header - magic (int), version (int), entry count (int), Bloom filter words (int), Zobrist key of
+ *             the starting position (long), newest generation the segment replaced if it's a merge
+ *             (int, -1 otherwise)
+ *    Entries - key (long), state (long, as in CompressionWriter records), occupied squares (long),
+ *              sorted by key
+ *    Bloom filter - words (long)
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class StoreSegment
+{
+	public static final int ENTRY_LONGS = 3;
+	private static final int MAGIC = 0x43505331; //"CPS1"
+	private static final int VERSION = 2;
+	private static final int HEADER_BYTES = 28;
+	private static final int ENTRY_BYTES = ENTRY_LONGS * 8;
+	private static final int BLOOM_BITS_PER_KEY = 10;
+	private static final int BLOOM_HASHES = 7; //Optimal for 10 bits per key (~1% false positives)
+
+	private final File file;
+	private final int generation;
+	private final MappedByteBuffer entries;
+	private final int count;
+	private final long[] bloom;
+
+	private StoreSegment(File file, int generation, MappedByteBuffer entries, int count, long[] bloom)
+	{
+		this.file = file;
+		this.generation = generation;
+		this.entries = entries;
+		this.count = count;
+		this.bloom = bloom;
+	}
+
+	/**
+	 * Mixes the bits of a key (Zobrist keys are sparse, so they make poor Bloom filter hashes as is)
+	 * @param key The key
+	 * @return The mixed key
+	 */
+	private static long mix(long key)
+	{
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return key;
+	}
+
+	/**
+	 * Gets the bit positions of a key in a Bloom filter (double hashing)
+	 * @param key The key
+	 * @param i The index of the hash (0 to BLOOM_HASHES-1)
+	 * @param bits The size of the filter in bits
+	 * @return The bit position
+	 */
+	private static long bloomBit(long key, int i, long bits)
+	{
+		long hash = mix(key);
+		int h1 = (int) hash, h2 = (int) (hash >>> 32);
+		return ((h1 + (long) i * h2) & Long.MAX_VALUE) % bits;
+	}
+
+	/**
+	 * Writes a segment file
+	 * @param file The file
+	 * @param records The records ({key, state, occupied squares} per record), sorted by key without duplicates
+	 * @param count The number of records
+	 * @param startKey The Zobrist key of the starting position
+	 * @param replacedGeneration The newest generation the segment replaces (it replaces every older
+	 *                           one too), or -1 if it doesn't replace any
+	 * @throws IOException
+	 */
+	public static void write(File file, long[][] records, int count, long startKey, int replacedGeneration) throws IOException
+	{
+		int words = Math.max(1, (int) (((long) count * BLOOM_BITS_PER_KEY + 63) / 64));
+		long[] bloom = new long[words];
+		for (int r=0;r<count;r++)
+		{
+			for (int i=0;i<BLOOM_HASHES;i++)
+			{
+				long bit = bloomBit(records[r][0], i, words * 64L);
+				bloom[(int) (bit >>> 6)] |= 1L << bit;
+			}
+		}
+
+		//Written to a temporary file first, so a crash never leaves a half-written segment behind
+		File temp = new File(file.getPath() + ".tmp");
+		FileOutputStream stream = new FileOutputStream(temp);
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeInt(count);
+		out.writeInt(words);
+		out.writeLong(startKey);
+		out.writeInt(replacedGeneration);
+		for (int r=0;r<count;r++)
+		{
+			for (int i=0;i<ENTRY_LONGS;i++) out.writeLong(records[r][i]);
+		}
+		for (long word: bloom) out.writeLong(word);
+		out.flush();
+		stream.getFD().sync();
+		out.close();
+		if (!temp.renameTo(file)) throw new IOException("Could not create segment " + file);
+	}
+
+	/**
+	 * Reads the newest generation a segment file replaced from its header, without mapping the file
+	 * (so a replaced segment can still be deleted where mapped files can't be)
+	 * @param file The file
+	 * @return The generation, or -1 if the segment doesn't replace any (or isn't a segment of this version)
+	 * @throws IOException
+	 */
+	public static int readReplacedGeneration(File file) throws IOException
+	{
+		if (file.length() < HEADER_BYTES) return -1;
+		DataInputStream in = new DataInputStream(new FileInputStream(file));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) return -1;
+			in.readInt(); in.readInt(); in.readLong(); //Entry count, Bloom filter words, start key
+			return in.readInt();
+		}
+		finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Opens a segment file
+	 * @param file The file
+	 * @param generation The generation of the segment (newer segments have higher generations)
+	 * @param startKey The Zobrist key of the starting position
+	 * @return The segment, or null if it doesn't match this engine
+	 * @throws IOException
+	 */
+	public static StoreSegment open(File file, int generation, long startKey) throws IOException
+	{
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		FileChannel channel = raf.getChannel();
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		channel.close();
+		raf.close();
+
+		if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getLong(16) != startKey) return null;
+		int count = buffer.getInt(8);
+		int words = buffer.getInt(12);
+		if (buffer.capacity() != HEADER_BYTES + (long) count * ENTRY_BYTES + words * 8L) return null;
+
+		long[] bloom = new long[words];
+		int bloomStart = HEADER_BYTES + count * ENTRY_BYTES;
+		for (int i=0;i<words;i++) bloom[i] = buffer.getLong(bloomStart + i * 8);
+		return new StoreSegment(file, generation, buffer, count, bloom);
+	}
+
+	/**
+	 * Checks the Bloom filter for a key
+	 * @param key The key
+	 * @return False if the key is surely not in the segment
+	 */
+	public boolean mightContain(long key)
+	{
+		long bits = bloom.length * 64L;
+		for (int i=0;i<BLOOM_HASHES;i++)
+		{
+			long bit = bloomBit(key, i, bits);
+			if ((bloom[(int) (bit >>> 6)] & 1L << bit) == 0) return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Finds the record of a key (binary search)
+	 * @param key The key
+	 * @return The index of the record, or -1 if the key isn't in the segment
+	 */
+	public int find(long key)
+	{
+		if (!mightContain(key)) return -1;
+		int lo = 0, hi = count - 1;
+		while (lo <= hi)
+		{
+			int mid = (lo + hi) >>> 1;
+			long midKey = getKey(mid);
+			if (midKey < key) lo = mid + 1;
+			else if (midKey > key) hi = mid - 1;
+			else return mid;
+		}
+		return -1;
+	}
+
+	public long getKey(int index)
+	{
+		return entries.getLong(HEADER_BYTES + index * ENTRY_BYTES);
+	}
+
+	public long getState(int index)
+	{
+		return entries.getLong(HEADER_BYTES + index * ENTRY_BYTES + 8);
+	}
+
+	public long getOccupied(int index)
+	{
+		return entries.getLong(HEADER_BYTES + index * ENTRY_BYTES + 16);
+	}
+
+	public int size()
+	{
+		return count;
+	}
+
+	public int getGeneration()
+	{
+		return generation;
+	}
+
+	public File getFile()
+	{
+		return file;
+	}
+}
@@ -0,0 +1,189 @@
+import java.awt.Color;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Saves the state table to a file when the program shuts down and restores it at startup, so a
+ * restarted engine begins with the positions it analyzed last time. Both directions stream the file
+ * through a buffer instead of mapping it, as a mapped file can't be replaced while the mapping lives
+ * (on Windows)
+ *
+ * Occupied squares and moves are stored with White on the near side (like the Zobrist keys), so a
+ * snapshot works for both board orientations. A snapshot with another version, other Zobrist keys or
+ * a bad checksum is ignored
+ *
+ * File layout (big-endian):
+ *    Header - magic (int), version (int), entry count (int), reserved (int), Zobrist key of the
+ *             starting position (long), CRC32 of the entries (long)
+ *    Entries - key (long), state (long, as in CompressionWriter records), occupied squares (long)
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public final class TableSnapshot
+{
+	public static final String SNAPSHOT_FILE = "chess.tt";
+	private static final int MAGIC = 0x43545431; //"CTT1"
+	private static final int VERSION = 2;
+	private static final int HEADER_BYTES = 32;
+	private static final int ENTRY_BYTES = 24;
+	private static final int BUFFER_BYTES = ENTRY_BYTES * 4096; //Entries written or read at a time
+
+	/**
+	 * Turns a bitboard of the current orientation into one with White on the near side (and back)
+	 * @param bitboard The bitboard
+	 * @return The reoriented bitboard
+	 */
+	private static long orient(long bitboard)
+	{
+		return Game.getNearColor().equals(Color.BLACK) ? Long.reverse(bitboard) : bitboard;
+	}
+
+	/**
+	 * Gets the Zobrist key of the starting position (identifies the keys a snapshot was made with)
+	 * @return The key
+	 */
+	private static long startKey()
+	{
+		Board board = new Board();
+		FEN.load(board, FEN.START_FEN);
+		return Compression.compressState(board, 1);
+	}
+
+	/**
+	 * Writes out the entries in a buffer, adding them to the checksum
+	 * @param channel The file
+	 * @param buffer The buffer (emptied)
+	 * @param crc The checksum of the entries
+	 * @throws IOException
+	 */
+	private static void writeBuffer(FileChannel channel, ByteBuffer buffer, CRC32 crc) throws IOException
+	{
+		buffer.flip();
+		crc.update(buffer.array(), 0, buffer.limit());
+		while (buffer.hasRemaining()) channel.write(buffer);
+		buffer.clear();
+	}
+
+	/**
+	 * Fills a buffer from a file (less than full only at the end of the file)
+	 * @param channel The file
+	 * @param buffer The buffer (refilled and flipped for reading)
+	 * @return True if anything was read
+	 * @throws IOException
+	 */
+	private static boolean readBuffer(FileChannel channel, ByteBuffer buffer) throws IOException
+	{
+		buffer.clear();
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) break;
+		}
+		buffer.flip();
+		return buffer.hasRemaining();
+	}
+
+	/**
+	 * Saves a state table to a snapshot file (replaces the file). The snapshot is written to a
+	 * temporary file and renamed over the old one once it's on disk, so a crash while saving keeps the
+	 * previous snapshot
+	 * @param states The state table
+	 * @param fileName The snapshot file
+	 * @return The number of saved states
+	 * @throws IOException If the snapshot can't be written or can't replace the old one
+	 */
+	public static int save(StateTable states, String fileName) throws IOException
+	{
+		long[] entries = states.export();
+		int count = entries.length / 3;
+
+		File temp = new File(fileName + ".tmp");
+		FileChannel channel = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+		try {
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+			CRC32 crc = new CRC32();
+			channel.position(HEADER_BYTES);
+			for (int i=0;i<entries.length;i+=3)
+			{
+				if (buffer.remaining() < ENTRY_BYTES) writeBuffer(channel, buffer, crc);
+				buffer.putLong(entries[i]);
+				buffer.putLong(entries[i+1]);
+				buffer.putLong(orient(entries[i+2]));
+			}
+			writeBuffer(channel, buffer, crc);
+
+			//The header goes in last, with the checksum of the entries
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			header.putInt(MAGIC).putInt(VERSION).putInt(count).putInt(0).putLong(startKey()).putLong(crc.getValue());
+			header.flip();
+			while (header.hasRemaining()) channel.write(header, header.position());
+			channel.force(true);
+		}
+		finally {
+			channel.close();
+		}
+
+		try {
+			Files.move(temp.toPath(), new File(fileName).toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException e) {
+			throw new IOException("Could not replace " + fileName + " (the new snapshot is left in " + temp + ")", e);
+		}
+		return count;
+	}
+
+	/**
+	 * Restores the states of a snapshot file into a state table
+	 * @param fileName The snapshot file
+	 * @param states The state table
+	 * @return The number of restored states (0 if the file is missing or unusable)
+	 * @throws IOException
+	 */
+	public static int load(String fileName, StateTable states) throws IOException
+	{
+		File snapshot = new File(fileName);
+		if (!snapshot.exists() || snapshot.length() < HEADER_BYTES) return 0;
+
+		FileChannel channel = FileChannel.open(snapshot.toPath(), StandardOpenOption.READ);
+		try {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+			readBuffer(channel, header);
+			int count = header.getInt(8);
+			if (header.getInt(0) != MAGIC || header.getInt(4) != VERSION || header.getLong(16) != startKey()
+					|| channel.size() != HEADER_BYTES + (long) count * ENTRY_BYTES) {
+				System.out.println("State table snapshot " + fileName + " doesn't match this engine, ignored");
+				return 0;
+			}
+
+			//Check the whole snapshot before restoring any of it
+			ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+			CRC32 crc = new CRC32();
+			while (readBuffer(channel, buffer)) crc.update(buffer.array(), 0, buffer.limit());
+			if (crc.getValue() != header.getLong(24)) {
+				System.out.println("State table snapshot " + fileName + " is corrupt, ignored");
+				return 0;
+			}
+
+			int restored = 0;
+			channel.position(HEADER_BYTES);
+			buffer.limit(0);
+			for (int i=0;i<count;i++)
+			{
+				if (!buffer.hasRemaining()) readBuffer(channel, buffer);
+				long key = buffer.getLong();
+				long data = buffer.getLong();
+				long occupied = orient(buffer.getLong());
+				if (states.store(key, occupied, data)) restored++;
+			}
+			return restored;
+		}
+		finally {
+			channel.close();
+		}
+	}
+}
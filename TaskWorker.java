@@ -0,0 +1,15 @@
+/**
+ * Processes the tasks a WorkerPool hands to one of its threads (an instance belongs to a single
+ * thread, so it may keep state of its own, such as an EngineContext)
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public interface TaskWorker<T>
+{
+	/**
+	 * Processes a task
+	 * @param task The task
+	 * @throws Exception If the task fails (reported to the pool's failure handler, the worker goes on)
+	 */
+	void process(T task) throws Exception;
+}
@@ -0,0 +1,24 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Per-thread statistics read from the JVM's management beans, shared by the engine's allocation
+ * report and the benchmarks
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class ThreadStats
+{
+	/**
+	 * Gets the number of bytes allocated by the current thread so far (0 if the JVM can't tell)
+	 * @return The allocated bytes
+	 */
+	public static long getAllocatedBytes()
+	{
+		java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return ((com.sun.management.ThreadMXBean) bean).getThreadAllocatedBytes(Thread.currentThread().getId());
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,320 @@
+import java.awt.Color;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+
+/**
+ * A headless front-end speaking the Universal Chess Interface (UCI) protocol over standard
+ * input/output, so the engine can be driven by GUIs and automated match runners without Swing
+ *
+ * Supported commands: uci, isready, ucinewgame, setoption (Hash, Threads, MultiPV, NullMove,
+ * LazyMargin1, LazyMargin2), position (startpos/fen
+ * with moves), go (depth, nodes, movetime, wtime/btime/winc/binc/movestogo, infinite), stop, quit
+ *
+ * The search runs on its own thread so that stop and quit are handled while it's thinking
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class UCI implements SearchListener
+{
+	public static final String ENGINE_NAME = "ChessAIv2";
+	public static final String ENGINE_AUTHOR = "Victor Gong";
+
+	private static final int DEFAULT_HASH_MB = 256;
+	private static final int MAX_HASH_MB = 4096;
+	private static final int MAX_MULTIPV = 16;
+	private static final int MAX_LAZY_MARGIN = 2000;
+	private static final int MOVE_OVERHEAD = 50; //Milliseconds kept in reserve for communication
+
+	private Board board;
+	private Color colorToMove;
+	private Thread searchThread = null;
+	private SmartPlayerNegamax searcher = null;
+	private final EngineContext context = new EngineContext(null, EngineContext.capacityOf(DEFAULT_HASH_MB), false);
+	private int multiPV = 1;
+	private boolean nullMove = false;
+	private int lazyMaterialMargin = Evaluation.LAZY_MATERIAL_MARGIN;
+	private int lazyPawnMargin = Evaluation.LAZY_PAWN_MARGIN;
+	private volatile boolean infinite = false;
+	private volatile boolean stopped = false;
+
+	public UCI()
+	{
+		handlePosition(new String[] {"position", "startpos"});
+	}
+
+	/**
+	 * Reads and handles commands until quit or the end of the input
+	 * @throws IOException
+	 */
+	public void run() throws IOException
+	{
+		BufferedReader br = new BufferedReader(new InputStreamReader(System.in));
+		String nextLine;
+		while ((nextLine = br.readLine()) != null)
+		{
+			String[] tokens = nextLine.trim().split("\\s+");
+			if (tokens[0].isEmpty()) continue;
+			String command = tokens[0];
+
+			if (command.equals("uci")) {
+				System.out.println("id name " + ENGINE_NAME);
+				System.out.println("id author " + ENGINE_AUTHOR);
+				System.out.println("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+				System.out.println("option name Threads type spin default 1 min 1 max 1");
+				System.out.println("option name MultiPV type spin default 1 min 1 max " + MAX_MULTIPV);
+				System.out.println("option name NullMove type check default false");
+				System.out.println("option name LazyMargin1 type spin default " + Evaluation.LAZY_MATERIAL_MARGIN + " min 0 max " + MAX_LAZY_MARGIN);
+				System.out.println("option name LazyMargin2 type spin default " + Evaluation.LAZY_PAWN_MARGIN + " min 0 max " + MAX_LAZY_MARGIN);
+				System.out.println("uciok");
+			}
+			else if (command.equals("isready")) {
+				System.out.println("readyok");
+			}
+			else if (command.equals("ucinewgame")) {
+				waitForSearch();
+				context.clearTable();
+			}
+			else if (command.equals("setoption")) {
+				waitForSearch();
+				setOption(tokens);
+			}
+			else if (command.equals("position")) {
+				waitForSearch();
+				handlePosition(tokens);
+			}
+			else if (command.equals("go")) {
+				waitForSearch();
+				handleGo(tokens);
+			}
+			else if (command.equals("stop")) {
+				stopSearch();
+			}
+			else if (command.equals("quit")) {
+				stopSearch();
+				return;
+			}
+		}
+		stopSearch();
+	}
+
+	/**
+	 * Handles setoption name [name] value [value]
+	 * @param tokens The command tokens
+	 */
+	private void setOption(String[] tokens)
+	{
+		String name = "";
+		String value = "";
+		for (int i=1;i<tokens.length-1;i++)
+		{
+			if (tokens[i].equals("name")) name = tokens[i+1];
+			if (tokens[i].equals("value")) value = tokens[i+1];
+		}
+		try {
+			if (name.equalsIgnoreCase("Hash")) {
+				int mb = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+				context.setTableCapacity(EngineContext.capacityOf(mb));
+				context.clearTable();
+			}
+			else if (name.equalsIgnoreCase("Threads")) {
+				if (Integer.parseInt(value) != 1) System.out.println("info string Only one search thread is supported");
+			}
+			else if (name.equalsIgnoreCase("NullMove")) {
+				nullMove = value.equalsIgnoreCase("true");
+			}
+			else if (name.equalsIgnoreCase("LazyMargin1")) {
+				lazyMaterialMargin = Math.max(0, Math.min(MAX_LAZY_MARGIN, Integer.parseInt(value)));
+			}
+			else if (name.equalsIgnoreCase("LazyMargin2")) {
+				lazyPawnMargin = Math.max(0, Math.min(MAX_LAZY_MARGIN, Integer.parseInt(value)));
+			}
+			else if (name.equalsIgnoreCase("MultiPV")) {
+				multiPV = Math.max(1, Math.min(MAX_MULTIPV, Integer.parseInt(value)));
+			}
+			else {
+				System.out.println("info string Unknown option " + name);
+			}
+		}
+		catch (NumberFormatException e) {
+			System.out.println("info string Invalid value " + value + " for option " + name);
+		}
+	}
+
+	/**
+	 * Handles position [startpos | fen (fields)] moves (moves)
+	 * @param tokens The command tokens
+	 */
+	private void handlePosition(String[] tokens)
+	{
+		Board newBoard = new Board();
+		try {
+			colorToMove = loadPosition(newBoard, tokens);
+		}
+		catch (IllegalArgumentException e) {
+			System.out.println("info string " + e.getMessage());
+			return;
+		}
+		board = newBoard;
+	}
+
+	/**
+	 * Sets up the position of a position command on a board: position [startpos | fen (fields)] moves (moves),
+	 * with the moves in long algebraic notation (e.g. e2e4, e7e8q)
+	 * @param board An empty board
+	 * @param tokens The command tokens
+	 * @return The color to move
+	 * @throws IllegalArgumentException If the FEN or a move is invalid
+	 */
+	public static Color loadPosition(Board board, String[] tokens)
+	{
+		if (tokens.length < 2) throw new IllegalArgumentException("Missing position");
+		int i = 1;
+		String fen;
+		if (tokens[1].equals("startpos")) {
+			fen = FEN.START_FEN;
+			i = 2;
+		}
+		else if (tokens[1].equals("fen")) {
+			StringBuilder fields = new StringBuilder();
+			for (i=2;i<tokens.length && !tokens[i].equals("moves");i++) fields.append(tokens[i]).append(' ');
+			fen = fields.toString();
+		}
+		else throw new IllegalArgumentException("Unknown position " + tokens[1]);
+
+		Color colorToMove = FEN.load(board, fen).colorToMove;
+		if (i < tokens.length && tokens[i].equals("moves")) {
+			for (i=i+1;i<tokens.length;i++)
+			{
+				Move move = findMove(board, colorToMove, tokens[i]);
+				if (move == null) throw new IllegalArgumentException("Illegal move " + tokens[i]);
+				board.executeMove(move);
+				colorToMove = Board.oppositeColor(colorToMove);
+			}
+		}
+		return colorToMove;
+	}
+
+	/**
+	 * Finds the legal move matching a move in long algebraic notation
+	 * @param board The board
+	 * @param colorToMove The color to move
+	 * @param notation The move (e.g. e2e4, e7e8q)
+	 * @return The move, or null if it isn't legal
+	 */
+	public static Move findMove(Board board, Color colorToMove, String notation)
+	{
+		for (Move m: board.allMoves(colorToMove))
+		{
+			if (m.toLongAlgebraic().equals(notation)) return m;
+		}
+		return null;
+	}
+
+	/**
+	 * Handles go with its search limits, starting the search on its own thread
+	 * @param tokens The command tokens
+	 * @throws IOException
+	 */
+	private void handleGo(String[] tokens) throws IOException
+	{
+		SearchLimits limits = SearchLimits.parse(tokens, colorToMove.equals(Color.WHITE));
+		infinite = limits.infinite;
+		final int searchDepth = limits.depth;
+		final long searchNodes = limits.nodes;
+		final long searchTime = limits.allocateTime(MOVE_OVERHEAD);
+		stopped = false;
+		searcher = new SmartPlayerNegamax(board, "UCI", colorToMove, 1, false, 0, context);
+		searcher.setMultiPV(multiPV);
+		searcher.setPruning(true, nullMove);
+		searcher.setLazyMargins(lazyMaterialMargin, lazyPawnMargin);
+		searchThread = new Thread(() -> {
+			Move best = searcher.searchWithLimits(searchDepth, searchTime, searchNodes, this);
+
+			//Under infinite, the best move is only reported once the GUI stops the search
+			while (infinite && !stopped) {
+				try {
+					Thread.sleep(5);
+				}
+				catch (InterruptedException e) {
+					break;
+				}
+			}
+			if (best == null) {
+				ArrayList<Move> legal = board.allMoves(colorToMove);
+				System.out.println("bestmove " + (legal.isEmpty() ? "0000" : legal.get(0).toLongAlgebraic()));
+			}
+			else {
+				System.out.println("bestmove " + best.toLongAlgebraic());
+			}
+		});
+		searchThread.start();
+	}
+
+	/**
+	 * Stops the current search (if any) and waits for it to report its best move
+	 */
+	private void stopSearch()
+	{
+		stopped = true;
+		if (searcher != null) searcher.requestStop();
+		waitForSearch();
+	}
+
+	/**
+	 * Waits for the current search (if any) to finish
+	 */
+	private void waitForSearch()
+	{
+		if (searchThread == null) return;
+		try {
+			searchThread.join();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		searchThread = null;
+	}
+
+	/**
+	 * Prints the info lines of a completed iteration (one per line under MultiPV)
+	 */
+	public void iterationComplete(SmartPlayerNegamax player, int depth, long nodes, long elapsed)
+	{
+		if (stopped) player.requestStop(); //A stop that came before the search started is cleared by it
+		if (multiPV == 1 || player.getMultiPVCount() == 0) {
+			printInfo(depth, 0, player.getLastScore(), player.getPrincipalVariation(), nodes, elapsed);
+			return;
+		}
+		for (int i=0;i<player.getMultiPVCount();i++)
+		{
+			printInfo(depth, i+1, player.getMultiPVScore(i), player.getMultiPVLine(i), nodes, elapsed);
+		}
+	}
+
+	/**
+	 * Prints an info line
+	 * @param depth The depth of the iteration
+	 * @param rank The rank of the line under MultiPV, or 0 without
+	 * @param score The score of the line
+	 * @param pv The line
+	 * @param nodes The nodes searched
+	 * @param elapsed The milliseconds searched
+	 */
+	private void printInfo(int depth, int rank, int score, Move[] pv, long nodes, long elapsed)
+	{
+		int mate = SmartPlayerNegamax.getMateDistance(score);
+		StringBuilder info = new StringBuilder("info depth ").append(depth);
+		if (rank > 0) info.append(" multipv ").append(rank);
+		info.append(mate != 0 ? " score mate " + mate : " score cp " + score);
+		info.append(" nodes ").append(nodes);
+		info.append(" nps ").append(elapsed == 0 ? nodes * 1000 : nodes * 1000 / elapsed);
+		info.append(" hashfull ").append(context.getTableUsage());
+		info.append(" time ").append(elapsed);
+		info.append(" pv");
+		for (Move m: pv) info.append(' ').append(m.toLongAlgebraic());
+		System.out.println(info);
+	}
+}
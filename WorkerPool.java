@@ -0,0 +1,89 @@
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+/**
+ * A fixed number of worker threads fed through a bounded queue, for the command line tools that
+ * stream a file of tasks (positions, games) through the engine: submit blocks while the queue is
+ * full, so the reader never runs far ahead of the workers
+ *
+ * Every thread creates its own TaskWorker when it starts. A task that throws is reported to the
+ * failure handler and the worker moves on to the next one
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class WorkerPool<T>
+{
+	private static final Object END_OF_INPUT = new Object(); //Tells a worker to stop
+
+	private final ArrayBlockingQueue<Object> queue;
+	private final Thread[] workers;
+
+	/**
+	 * Starts the worker threads
+	 * @param name The name of the threads (numbered)
+	 * @param threads The number of threads
+	 * @param queuePerWorker The tasks queued per thread before submit blocks
+	 * @param workerFactory Creates the worker of a thread (called on that thread)
+	 * @param onFailure Called with a task that failed and its exception
+	 */
+	public WorkerPool(String name, int threads, int queuePerWorker, Supplier<TaskWorker<T>> workerFactory, BiConsumer<T, Exception> onFailure)
+	{
+		this.queue = new ArrayBlockingQueue<>(threads * queuePerWorker);
+		this.workers = new Thread[threads];
+		for (int i=0;i<threads;i++)
+		{
+			workers[i] = new Thread(() -> work(workerFactory.get(), onFailure), name + "-" + i);
+			workers[i].start();
+		}
+	}
+
+	/**
+	 * Takes tasks off the queue and processes them until the end of the input
+	 * @param worker The worker of this thread
+	 * @param onFailure The failure handler
+	 */
+	@SuppressWarnings("unchecked")
+	private void work(TaskWorker<T> worker, BiConsumer<T, Exception> onFailure)
+	{
+		while (true)
+		{
+			Object next;
+			try {
+				next = queue.take();
+			}
+			catch (InterruptedException e) {
+				return;
+			}
+			if (next == END_OF_INPUT) return;
+			T task = (T) next;
+			try {
+				worker.process(task);
+			}
+			catch (Exception e) {
+				onFailure.accept(task, e);
+			}
+		}
+	}
+
+	/**
+	 * Queues a task, waiting while the queue is full
+	 * @param task The task
+	 * @throws InterruptedException
+	 */
+	public void submit(T task) throws InterruptedException
+	{
+		queue.put(task);
+	}
+
+	/**
+	 * Ends the input and waits for the workers to finish the queued tasks
+	 * @throws InterruptedException
+	 */
+	public void finish() throws InterruptedException
+	{
+		for (int i=0;i<workers.length;i++) queue.put(END_OF_INPUT);
+		for (Thread worker: workers) worker.join();
+	}
+}
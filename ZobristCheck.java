@@ -0,0 +1,82 @@
+import java.awt.Color;
+
+/**
+ * Checks the incremental Zobrist update against a full recomputation: walks the legal move tree of
+ * a few positions rich in castling and rook captures (where the castling rights change) and compares
+ * Compression.updateZobristHash with Compression.compressState after every move, in both board
+ * orientations
+ *
+ * Usage: java ZobristCheck [depth]
+ *
+ * @author Victor Gong
+ * @version 10/18/2026
+ */
+public class ZobristCheck
+{
+	//Test positions {Name, FEN}
+	private static final String[][] POSITIONS = {
+		{"Start", FEN.START_FEN},
+		{"Castling", "r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1"},
+		{"Rook captures", "r3k2r/1b4bq/8/8/8/8/7B/R3K2R w KQkq - 0 1"},
+		{"Kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1"},
+		{"Promotions", "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w kq - 0 1"},
+	};
+
+	//Mismatches printed before the rest are only counted
+	private static final int MAX_REPORTED = 10;
+
+	private static long mismatches = 0;
+
+	/**
+	 * Walks the legal move tree, comparing the incremental key of every child with its full key
+	 * @param board The board
+	 * @param color The color to move
+	 * @param key The full key of the board
+	 * @param depth The remaining depth
+	 * @param line The moves leading to the board (for the report)
+	 * @return The number of moves checked
+	 */
+	private static long check(Board board, Color color, long key, int depth, String line)
+	{
+		if (depth == 0) return 0;
+		long moves = 0;
+		Color next = Board.oppositeColor(color);
+		int nextNum = next.equals(Color.WHITE) ? 1 : -1;
+		for (Move m: board.allMoves(color))
+		{
+			board.executeMove(m);
+			String childLine = line + m.toLongAlgebraic() + " ";
+			long incremental = Compression.updateZobristHash(board, nextNum, key, m);
+			long full = Compression.compressState(board, nextNum);
+			if (incremental != full && mismatches++ < MAX_REPORTED) {
+				System.out.println("Mismatch after " + childLine);
+			}
+			moves += 1 + check(board, next, full, depth-1, childLine);
+			board.undoMove(m);
+		}
+		return moves;
+	}
+
+	public static void main(String[] args)
+	{
+		int depth = args.length > 0 ? Integer.parseInt(args[0]) : 3;
+
+		long total = 0;
+		for (Color orientation: new Color[] {Color.WHITE, Color.BLACK})
+		{
+			Game.setNearColor(orientation);
+			for (String[] position: POSITIONS)
+			{
+				Board board = new Board();
+				PositionInfo info = FEN.load(board, position[1]);
+				int colorNum = info.colorToMove.equals(Color.WHITE) ? 1 : -1;
+				long moves = check(board, info.colorToMove, Compression.compressState(board, colorNum), depth, "");
+				total += moves;
+				System.out.println(String.format("%-14s %-6s Moves checked: %,d",
+						position[0], orientation.equals(Color.WHITE) ? "white" : "black", moves));
+			}
+		}
+		System.out.println("Total moves checked: " + total + " | " + (mismatches == 0 ? "All keys match" : mismatches + " MISMATCHES"));
+		if (mismatches > 0) System.exit(1);
+	}
+}